@@ -0,0 +1,89 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.benchmark;
+
+import github.andriantony.periscope.annotation.Column;
+import github.andriantony.periscope.annotation.Primary;
+import github.andriantony.periscope.annotation.Reference;
+import github.andriantony.periscope.annotation.Table;
+import github.andriantony.periscope.constant.Relation;
+import java.util.List;
+
+/**
+ * An author row with a unique name and its books.
+ *
+ * @author Andriantony
+ */
+@Table(name = "author")
+public class BenchAuthor {
+
+    @Primary
+    @Column(name = "id")
+    private Integer id;
+
+    @Column(name = "name", nullable = false, unique = true, length = 64)
+    private String name;
+
+    @Column(name = "email", length = 128)
+    private String email;
+
+    @Column(name = "age")
+    private Integer age;
+
+    @Reference(name = "books", target = BenchBook.class, source = "id", refer = "author_id", relation = Relation.TO_MANY)
+    private List<BenchBook> books;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    public List<BenchBook> getBooks() {
+        return books;
+    }
+
+}
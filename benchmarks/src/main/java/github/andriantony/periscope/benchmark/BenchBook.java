@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.benchmark;
+
+import github.andriantony.periscope.annotation.Column;
+import github.andriantony.periscope.annotation.Primary;
+import github.andriantony.periscope.annotation.Reference;
+import github.andriantony.periscope.annotation.Table;
+import github.andriantony.periscope.constant.Relation;
+import java.math.BigDecimal;
+
+/**
+ * A book row with its author.
+ *
+ * @author Andriantony
+ */
+@Table(name = "book")
+public class BenchBook {
+
+    @Primary
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "author_id")
+    private Integer authorId;
+
+    @Column(name = "title", nullable = false, length = 128)
+    private String title;
+
+    @Column(name = "pages")
+    private int pages;
+
+    @Column(name = "price", length = 10, scale = 2)
+    private BigDecimal price;
+
+    @Reference(name = "author", target = BenchAuthor.class, source = "author_id", refer = "id", relation = Relation.TO_ONE)
+    private BenchAuthor author;
+
+    public Long getId() {
+        return id;
+    }
+
+    public Integer getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(Integer authorId) {
+        this.authorId = authorId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public int getPages() {
+        return pages;
+    }
+
+    public void setPages(int pages) {
+        this.pages = pages;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public BenchAuthor getAuthor() {
+        return author;
+    }
+
+}
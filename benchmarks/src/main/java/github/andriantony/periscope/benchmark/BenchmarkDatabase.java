@@ -0,0 +1,115 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+
+/**
+ * Creates the in-memory databases the benchmarks run against.
+ *
+ * @author Andriantony
+ */
+final class BenchmarkDatabase {
+
+    static final int AUTHORS = 1000;
+    static final int BOOKS = 10000;
+
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Creates a new private database holding the schema and, if requested, {@link #AUTHORS} authors with
+     * {@link #BOOKS} books spread evenly between them.
+     *
+     * @param seeded Whether to insert the rows
+     * @return a data source of the new database, which lives until the JVM exits
+     * @throws SQLException if the database can not be created
+     */
+    static DataSource create(boolean seeded) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:benchmark" + COUNT.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE author (id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(64) NOT NULL UNIQUE, email VARCHAR(128), age INT)");
+                statement.execute("CREATE TABLE book (id BIGINT AUTO_INCREMENT PRIMARY KEY, author_id INT, title VARCHAR(128) NOT NULL, pages INT, price DECIMAL(10, 2))");
+                statement.execute("CREATE INDEX book_author ON book (author_id)");
+            }
+
+            if (seeded) {
+                seed(connection);
+            }
+        }
+
+        return dataSource;
+    }
+
+    /**
+     * Deletes every row and restarts the generated keys.
+     *
+     * @param dataSource The database to truncate
+     * @throws SQLException if the tables can not be truncated
+     */
+    static void truncate(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE book RESTART IDENTITY");
+            statement.execute("TRUNCATE TABLE author RESTART IDENTITY");
+        }
+    }
+
+    private static void seed(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO author (name, email, age) VALUES (?, ?, ?)")) {
+            for (int i = 1; i <= AUTHORS; i++) {
+                statement.setString(1, "author" + i);
+                statement.setString(2, "author" + i + "@example.com");
+                statement.setInt(3, 20 + i % 60);
+                statement.addBatch();
+            }
+
+            statement.executeBatch();
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO book (author_id, title, pages, price) VALUES (?, ?, ?, ?)")) {
+            for (int i = 1; i <= BOOKS; i++) {
+                statement.setInt(1, 1 + i % AUTHORS);
+                statement.setString(2, "Book number " + i);
+                statement.setInt(3, 100 + i % 900);
+                statement.setBigDecimal(4, BigDecimal.valueOf(999 + i % 5000, 2));
+                statement.addBatch();
+            }
+
+            statement.executeBatch();
+        }
+    }
+
+}
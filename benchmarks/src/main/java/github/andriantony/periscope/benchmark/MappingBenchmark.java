@@ -0,0 +1,138 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.benchmark;
+
+import github.andriantony.periscope.constant.Operator;
+import github.andriantony.periscope.constant.SortDirection;
+import github.andriantony.periscope.dialect.Dialect;
+import github.andriantony.periscope.dialect.H2Dialect;
+import github.andriantony.periscope.type.ColumnDefinition;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Sort;
+import github.andriantony.periscope.util.QueryBuilder;
+import github.andriantony.periscope.util.Reflector;
+import github.andriantony.periscope.util.Verificator;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per-row and per-query work done in memory: resolving column metadata, mapping a row, rendering SQL
+ * and verifying values before a write. The row is read once and mapped repeatedly, so no database time is included.
+ *
+ * @author Andriantony
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private static final String[] COLUMNS = { "id", "author_id", "title", "pages", "price" };
+
+    private final Reflector reflector = new Reflector();
+    private final Verificator verificator = new Verificator();
+    private final Dialect dialect = new H2Dialect();
+    private Map<String, ColumnDefinition> columnMap;
+    private Expression[] expressions;
+    private Sort[] sorts;
+    private BenchBook book;
+    private Connection connection;
+    private Statement statement;
+    private ResultSet row;
+
+    @Setup
+    public void setUp() throws Exception {
+        columnMap = reflector.getColumns(BenchBook.class);
+        expressions = new Expression[] { new Expression("author_id", 7), new Expression("pages", Arrays.asList(100, 200, 300), Operator.IN) };
+        sorts = new Sort[] { new Sort("title"), new Sort("id", SortDirection.DESC) };
+
+        book = new BenchBook();
+        book.setAuthorId(7);
+        book.setTitle("Benchmarking in practice");
+        book.setPages(320);
+        book.setPrice(new BigDecimal("39.90"));
+
+        connection = BenchmarkDatabase.create(true).getConnection();
+        statement = connection.createStatement();
+        row = statement.executeQuery("SELECT id, author_id, title, pages, price FROM book WHERE id = 1");
+        row.next();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        row.close();
+        statement.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public Map<String, ColumnDefinition> getColumnMap() throws Exception {
+        return reflector.getColumns(BenchBook.class);
+    }
+
+    @Benchmark
+    public Map<String, ColumnDefinition> getColumnMapSubset() throws Exception {
+        return reflector.getColumns(BenchBook.class, new String[] { "title", "pages" });
+    }
+
+    @Benchmark
+    public BenchBook parse() throws Exception {
+        return reflector.parse(BenchBook.class, columnMap, COLUMNS, row);
+    }
+
+    @Benchmark
+    public String buildSelect() {
+        return new QueryBuilder(dialect).select("book", COLUMNS).where(expressions).orderBy(sorts).page(true).toString();
+    }
+
+    @Benchmark
+    public String buildInsert() {
+        return new QueryBuilder(dialect).insert("book", COLUMNS).toString();
+    }
+
+    @Benchmark
+    public BenchBook verifyLength() throws Exception {
+        verificator.verifyLength(book, columnMap);
+        return book;
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.benchmark;
+
+import github.andriantony.periscope.DatabaseEngine;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Modifier;
+import github.andriantony.periscope.type.TableReference;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reads through a pooled engine: a single row by primary key, every row of a 10,000 row table, and lists
+ * including a to-one and a to-many reference.
+ *
+ * @author Andriantony
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadBenchmark {
+
+    private DatabaseEngine engine;
+
+    @Setup
+    public void setUp() throws Exception {
+        engine = new DatabaseEngine(BenchmarkDatabase.create(true));
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public BenchAuthor getByPrimaryKey() throws Exception {
+        int id = 1 + ThreadLocalRandom.current().nextInt(BenchmarkDatabase.AUTHORS);
+        return engine.get(BenchAuthor.class, new Modifier().express(new Expression("id", id)));
+    }
+
+    @Benchmark
+    public List<BenchBook> listTenThousandRows() throws Exception {
+        return engine.list(BenchBook.class);
+    }
+
+    @Benchmark
+    public List<BenchBook> listWithToOneInclude() throws Exception {
+        return engine.list(BenchBook.class, new Modifier().limit(1000).include(new TableReference("author")));
+    }
+
+    @Benchmark
+    public List<BenchAuthor> listWithToManyInclude() throws Exception {
+        return engine.list(BenchAuthor.class, new Modifier().include(new TableReference("books")));
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.benchmark;
+
+import github.andriantony.periscope.DatabaseEngine;
+import github.andriantony.periscope.type.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures writes through a pooled engine: a single insert that checks its unique column first, and batched inserts
+ * and updates of {@value #BATCH} rows. The tables are emptied before every iteration so they do not grow without
+ * bound across the run.
+ *
+ * @author Andriantony
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteBenchmark {
+
+    private static final int BATCH = 1000;
+
+    private DataSource dataSource;
+    private DatabaseEngine engine;
+    private List<BenchBook> loaded;
+    private long sequence;
+    private int round;
+
+    @Setup
+    public void setUp() throws Exception {
+        dataSource = BenchmarkDatabase.create(false);
+        engine = new DatabaseEngine(dataSource);
+    }
+
+    @Setup(Level.Iteration)
+    public void prepare() throws Exception {
+        BenchmarkDatabase.truncate(dataSource);
+        engine.insertAll(newBooks());
+        loaded = engine.list(BenchBook.class, new Modifier().limit(BATCH));
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public Integer insertWithUniqueColumn() throws Exception {
+        BenchAuthor author = new BenchAuthor();
+        author.setName("author" + sequence++);
+        author.setEmail("author@example.com");
+        author.setAge(42);
+
+        return engine.insert(author);
+    }
+
+    @Benchmark
+    public List<Integer> insertAllBatch() throws Exception {
+        return engine.insertAll(newBooks());
+    }
+
+    @Benchmark
+    public int[] updateAllBatch() throws Exception {
+        round++;
+
+        for (BenchBook book : loaded) {
+            book.setPages(book.getPages() + round);
+        }
+
+        return engine.updateAll(loaded);
+    }
+
+    private static List<BenchBook> newBooks() {
+        List<BenchBook> books = new ArrayList<>(BATCH);
+
+        for (int i = 0; i < BATCH; i++) {
+            BenchBook book = new BenchBook();
+            book.setAuthorId(1 + i % 100);
+            book.setTitle("Batched book " + i);
+            book.setPages(100 + i);
+            book.setPrice(BigDecimal.valueOf(1999, 2));
+            books.add(book);
+        }
+
+        return books;
+    }
+
+}
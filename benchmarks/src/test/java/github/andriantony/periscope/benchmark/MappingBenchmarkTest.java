@@ -0,0 +1,81 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.benchmark;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Runs each mapping benchmark body once to check it does the work it claims to measure.
+ *
+ * @author Andriantony
+ */
+public class MappingBenchmarkTest {
+
+    private final MappingBenchmark benchmark = new MappingBenchmark();
+
+    @Before
+    public void setUp() throws Exception {
+        benchmark.setUp();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        benchmark.tearDown();
+    }
+
+    @Test
+    public void columnMapsAreResolved() throws Exception {
+        assertEquals(5, benchmark.getColumnMap().size());
+        assertEquals(2, benchmark.getColumnMapSubset().size());
+    }
+
+    @Test
+    public void rowIsMapped() throws Exception {
+        BenchBook book = benchmark.parse();
+
+        assertEquals(Long.valueOf(1), book.getId());
+        assertEquals(Integer.valueOf(2), book.getAuthorId());
+        assertEquals("Book number 1", book.getTitle());
+        assertEquals(101, book.getPages());
+    }
+
+    @Test
+    public void statementsAreRendered() {
+        String select = benchmark.buildSelect();
+
+        assertTrue(select, select.startsWith("SELECT "));
+        assertTrue(select, select.contains("ORDER BY"));
+        assertTrue(select, select.contains("FETCH NEXT ? ROWS ONLY"));
+        assertTrue(benchmark.buildInsert().startsWith("INSERT INTO book"));
+    }
+
+    @Test
+    public void validBookIsVerified() throws Exception {
+        assertEquals("Benchmarking in practice", benchmark.verifyLength().getTitle());
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.benchmark;
+
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Runs each read benchmark body once against the seeded database to check it does the work it claims to measure.
+ *
+ * @author Andriantony
+ */
+public class ReadBenchmarkTest {
+
+    private final ReadBenchmark benchmark = new ReadBenchmark();
+
+    @Before
+    public void setUp() throws Exception {
+        benchmark.setUp();
+    }
+
+    @After
+    public void tearDown() {
+        benchmark.tearDown();
+    }
+
+    @Test
+    public void rowIsFoundByPrimaryKey() throws Exception {
+        BenchAuthor author = benchmark.getByPrimaryKey();
+
+        assertNotNull(author);
+        assertEquals("author" + author.getId(), author.getName());
+    }
+
+    @Test
+    public void everyRowIsListed() throws Exception {
+        assertEquals(BenchmarkDatabase.BOOKS, benchmark.listTenThousandRows().size());
+    }
+
+    @Test
+    public void toOneReferencesAreLoaded() throws Exception {
+        List<BenchBook> books = benchmark.listWithToOneInclude();
+
+        assertEquals(1000, books.size());
+
+        for (BenchBook book : books) {
+            assertEquals(book.getAuthorId(), book.getAuthor().getId());
+        }
+    }
+
+    @Test
+    public void toManyReferencesAreLoaded() throws Exception {
+        List<BenchAuthor> authors = benchmark.listWithToManyInclude();
+        int books = 0;
+
+        for (BenchAuthor author : authors) {
+            books += author.getBooks().size();
+        }
+
+        assertEquals(BenchmarkDatabase.AUTHORS, authors.size());
+        assertEquals(BenchmarkDatabase.BOOKS, books);
+    }
+
+}
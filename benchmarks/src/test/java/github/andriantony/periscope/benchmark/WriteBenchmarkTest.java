@@ -0,0 +1,78 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.benchmark;
+
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Runs each write benchmark body once after an iteration setup to check it does the work it claims to measure.
+ *
+ * @author Andriantony
+ */
+public class WriteBenchmarkTest {
+
+    private final WriteBenchmark benchmark = new WriteBenchmark();
+
+    @Before
+    public void setUp() throws Exception {
+        benchmark.setUp();
+        benchmark.prepare();
+    }
+
+    @After
+    public void tearDown() {
+        benchmark.tearDown();
+    }
+
+    @Test
+    public void uniqueRowsAreInserted() throws Exception {
+        assertEquals(Integer.valueOf(1), benchmark.insertWithUniqueColumn());
+        assertEquals(Integer.valueOf(2), benchmark.insertWithUniqueColumn());
+    }
+
+    @Test
+    public void batchIsInsertedWithItsKeys() throws Exception {
+        List<Integer> keys = benchmark.insertAllBatch();
+
+        assertEquals(1000, keys.size());
+        assertEquals(Integer.valueOf(1001), keys.get(0));
+        assertEquals(Integer.valueOf(2000), keys.get(999));
+    }
+
+    @Test
+    public void batchIsUpdated() throws Exception {
+        int[] counts = benchmark.updateAllBatch();
+
+        assertEquals(1000, counts.length);
+
+        for (int count : counts) {
+            assertEquals(1, count);
+        }
+    }
+
+}
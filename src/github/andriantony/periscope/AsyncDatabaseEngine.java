@@ -0,0 +1,271 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.constant.Function;
+import github.andriantony.periscope.type.Modifier;
+import github.andriantony.periscope.type.PoolStatistics;
+import github.andriantony.periscope.util.TaskExecutors;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs the operations of a {@link DatabaseEngine} off the caller's thread and returns their results as
+ * {@link CompletableFuture}s, so independent queries overlap and a fan-out of lookups takes as long as the slowest
+ * one instead of the sum of all.
+ * <p>
+ * Each operation runs on the executor given at construction, which by default starts a virtual thread per operation
+ * when the runtime supports them and otherwise uses a fixed pool sized to the engine's connection pool. At most as
+ * many operations as the engine has connections run at once; the others wait for a permit instead of queueing in
+ * the connection pool. An engine using a single connection runs one operation at a time.
+ * </p>
+ * <p>
+ * Checked exceptions of an operation complete its future exceptionally with the original exception, so callers can
+ * recover from a specific failure with {@link CompletableFuture#exceptionally(java.util.function.Function)}.
+ * </p>
+ *
+ * @author Andriantony
+ */
+public final class AsyncDatabaseEngine implements AutoCloseable {
+
+    private final DatabaseEngine engine;
+    private final Executor executor;
+    private final boolean ownsExecutor;
+    private final Semaphore permits;
+
+    /**
+     * Creates an asynchronous view of the given engine running on the default executor.
+     *
+     * @param engine The engine running the operations
+     */
+    public AsyncDatabaseEngine(DatabaseEngine engine) {
+        this(engine, null, concurrencyOf(engine));
+    }
+
+    /**
+     * Creates an asynchronous view of the given engine running on the given executor.
+     *
+     * @param engine The engine running the operations
+     * @param executor The executor running the operations, which is left running by {@link #close()}
+     */
+    public AsyncDatabaseEngine(DatabaseEngine engine, Executor executor) {
+        this(engine, executor, concurrencyOf(engine));
+    }
+
+    /**
+     * Creates an asynchronous view of the given engine running at most the given number of operations at once.
+     *
+     * @param engine The engine running the operations
+     * @param executor The executor running the operations, or null to use the default executor
+     * @param maximumConcurrency The maximum number of operations running at once
+     */
+    public AsyncDatabaseEngine(DatabaseEngine engine, Executor executor, int maximumConcurrency) {
+        if (maximumConcurrency < 1) {
+            throw new IllegalArgumentException("Maximum concurrency must be at least 1");
+        }
+
+        this.engine = engine;
+        this.ownsExecutor = executor == null;
+        this.executor = executor != null ? executor : TaskExecutors.newDefaultExecutor("periscope-async", maximumConcurrency);
+        this.permits = new Semaphore(maximumConcurrency, true);
+    }
+
+    /**
+     * Returns the engine running the operations.
+     *
+     * @return the underlying engine
+     */
+    public DatabaseEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Runs the given task under the same concurrency bound as the engine's operations. Useful to run several
+     * blocking operations that depend on each other as one asynchronous unit.
+     *
+     * @param <T> The type of the result
+     * @param task The task to run
+     * @return a future completed with the task's result or exception
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        try {
+            executor.execute(() -> run(task, future));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    public <T> CompletableFuture<List<T>> list(Class<?> table) {
+        return submit(() -> engine.<T>list(table));
+    }
+
+    public <T> CompletableFuture<List<T>> list(Class<?> table, Modifier modifier) {
+        return submit(() -> engine.<T>list(table, modifier));
+    }
+
+    public <T> CompletableFuture<T> get(Class<?> table) {
+        return submit(() -> engine.<T>get(table));
+    }
+
+    public <T> CompletableFuture<T> get(Class<?> table, Modifier modifier) {
+        return submit(() -> engine.<T>get(table, modifier));
+    }
+
+    public <T> CompletableFuture<Map<Object, T>> getAll(Class<?> table, Collection<?> primaryKeys) {
+        return submit(() -> engine.<T>getAll(table, primaryKeys));
+    }
+
+    public <T> CompletableFuture<Map<Object, T>> getAll(Class<?> table, Collection<?> primaryKeys, Modifier modifier) {
+        return submit(() -> engine.<T>getAll(table, primaryKeys, modifier));
+    }
+
+    public <T> CompletableFuture<T> function(Class<?> table, Modifier modifier, Function function) {
+        return submit(() -> engine.<T>function(table, modifier, function));
+    }
+
+    public CompletableFuture<Integer> insert(Object entity) {
+        return submit(() -> engine.insert(entity));
+    }
+
+    public CompletableFuture<Integer> insert(Object entity, Modifier modifier) {
+        return submit(() -> engine.insert(entity, modifier));
+    }
+
+    public CompletableFuture<List<Integer>> insertAll(Collection<?> entities) {
+        return submit(() -> engine.insertAll(entities));
+    }
+
+    public CompletableFuture<List<Integer>> insertAll(Collection<?> entities, Modifier modifier) {
+        return submit(() -> engine.insertAll(entities, modifier));
+    }
+
+    public CompletableFuture<Void> update(Object entity) {
+        return submit(() -> {
+            engine.update(entity);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> update(Object entity, Modifier modifier) {
+        return submit(() -> {
+            engine.update(entity, modifier);
+            return null;
+        });
+    }
+
+    public CompletableFuture<int[]> updateAll(Collection<?> entities) {
+        return submit(() -> engine.updateAll(entities));
+    }
+
+    public CompletableFuture<int[]> updateAll(Collection<?> entities, Modifier modifier) {
+        return submit(() -> engine.updateAll(entities, modifier));
+    }
+
+    public CompletableFuture<Integer> update(Class<?> table, Map<String, Object> assignments, Modifier criteria) {
+        return submit(() -> engine.update(table, assignments, criteria));
+    }
+
+    public CompletableFuture<Integer> upsert(Object entity) {
+        return submit(() -> engine.upsert(entity));
+    }
+
+    public CompletableFuture<int[]> upsertAll(Collection<?> entities) {
+        return submit(() -> engine.upsertAll(entities));
+    }
+
+    public CompletableFuture<Void> delete(Class<?> table, Object primaryKey) {
+        return submit(() -> {
+            engine.delete(table, primaryKey);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> delete(Class<?> table, Modifier modifier) {
+        return submit(() -> {
+            engine.delete(table, modifier);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> delete(Object entity) {
+        return submit(() -> {
+            engine.delete(entity);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Integer> deleteAll(Class<?> table, Collection<?> primaryKeys) {
+        return submit(() -> engine.deleteAll(table, primaryKeys));
+    }
+
+    public CompletableFuture<Integer> deleteInChunks(Class<?> table, Modifier modifier, int chunkSize) {
+        return submit(() -> engine.deleteInChunks(table, modifier, chunkSize));
+    }
+
+    /**
+     * Shuts down the default executor after the submitted operations finish. An executor given by the caller and
+     * the engine are left running.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    private <T> void run(Callable<T> task, CompletableFuture<T> future) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return;
+        }
+
+        try {
+            future.complete(task.call());
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static int concurrencyOf(DatabaseEngine engine) {
+        PoolStatistics statistics = engine.getPoolStatistics();
+        return statistics != null ? statistics.getMaximumSize() : 1;
+    }
+
+}
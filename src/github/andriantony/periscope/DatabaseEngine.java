@@ -24,16 +24,25 @@
 package github.andriantony.periscope;
 
 import github.andriantony.periscope.annotation.Column;
+import github.andriantony.periscope.constant.Arithmetic;
+import github.andriantony.periscope.constant.Conjunction;
 import github.andriantony.periscope.constant.Function;
-import github.andriantony.periscope.constant.SqlEngine;
+import github.andriantony.periscope.constant.Operator;
 import github.andriantony.periscope.constant.WritePermission;
+import github.andriantony.periscope.dialect.Dialect;
+import github.andriantony.periscope.dialect.DialectRegistry;
 import github.andriantony.periscope.exception.IllegalOperationException;
 import github.andriantony.periscope.exception.NoAnnotationException;
 import github.andriantony.periscope.exception.NoSuchColumnException;
 import github.andriantony.periscope.exception.NotNullableException;
 import github.andriantony.periscope.exception.OverLimitException;
 import github.andriantony.periscope.exception.UniqueFieldViolationException;
+import github.andriantony.periscope.type.Assignment;
+import github.andriantony.periscope.type.CacheStatistics;
 import github.andriantony.periscope.type.ColumnDefinition;
+import github.andriantony.periscope.type.Cursor;
+import github.andriantony.periscope.type.EntityMetadata;
+import github.andriantony.periscope.type.PoolStatistics;
 import github.andriantony.periscope.type.Expression;
 import github.andriantony.periscope.type.TableReference;
 import github.andriantony.periscope.type.Modifier;
@@ -41,45 +50,295 @@ import github.andriantony.periscope.util.Reflector;
 import github.andriantony.periscope.type.Sort;
 import github.andriantony.periscope.type.FieldReference;
 import github.andriantony.periscope.util.Verificator;
+import github.andriantony.periscope.util.ConnectionPool;
+import github.andriantony.periscope.util.EntityCache;
 import github.andriantony.periscope.util.QueryBuilder;
+import github.andriantony.periscope.util.QueryCache;
+import github.andriantony.periscope.util.QueryShape;
+import github.andriantony.periscope.util.RowMapper;
+import github.andriantony.periscope.util.SnapshotStore;
+import github.andriantony.periscope.util.SqlCache;
+import github.andriantony.periscope.util.StatementCache;
+import github.andriantony.periscope.util.TaskExecutors;
 import java.lang.reflect.Field;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
 
 /**
+ * The entry point for reading and writing mapped classes.
+ * <p>
+ * An instance is safe to share between threads. It keeps no per-call state: SQL text is served from a shared
+ * cache and, on a miss, rendered by a {@link QueryBuilder} confined to the calling thread.
+ * </p>
+ * <p>
+ * An engine created from a {@link DataSource} borrows a connection from its {@link ConnectionPool} for each
+ * operation and returns it afterwards, so concurrent callers run on separate connections. An engine created
+ * from a single {@link Connection} runs every operation on that connection.
+ * </p>
+ * <p>
+ * SQL is rendered for the {@link Dialect} registered for the connection's product in {@link DialectRegistry}.
+ * </p>
+ * <p>
+ * Prepared statements are kept open per connection in a {@link StatementCache} and re-bound on reuse, so hot
+ * queries are prepared once per connection instead of once per call.
+ * </p>
+ * <p>
+ * Rows of classes annotated with {@link github.andriantony.periscope.annotation.Cached} are kept in an
+ * {@link EntityCache} by primary key. Reads by primary key are served from it, and every update, upsert and delete
+ * made through this engine invalidates the rows it may have changed.
+ * </p>
+ * <p>
+ * A list whose {@link Modifier} opts in with {@link Modifier#cache()} is served from a {@link QueryCache} keyed by
+ * the query and its values. Every write made through this engine evicts the cached results of the written table and
+ * of the tables related to it through references.
+ * </p>
  *
  * @author Andriantony
  */
-public final class DatabaseEngine {
+public final class DatabaseEngine implements AutoCloseable {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+    private static final int DEFAULT_QUERY_CACHE_SIZE = 256;
+    private static final String[] NO_COLUMNS = new String[0];
+    private static final Expression[] NO_EXPRESSIONS = new Expression[0];
+    private static final Sort[] NO_SORTS = new Sort[0];
+    private static final Object[] NO_VALUES = new Object[0];
 
     private final Connection connection;
+    private final ConnectionPool pool;
+    private final boolean ownsPool;
+    private final Dialect dialect;
     private final Reflector reflector;
     private final Verificator verificator;
-    private final QueryBuilder builder;
+    private final SqlCache sqlCache = new SqlCache(1024);
+    private final StatementCache statementCache = new StatementCache(DEFAULT_STATEMENT_CACHE_SIZE);
+    private final Consumer<Connection> discardListener = statementCache::discard;
+    private volatile int batchSize = 1000;
+    private volatile int fetchSize = 1000;
+    private volatile boolean uniquenessProbe = true;
+    private final SnapshotStore snapshots = new SnapshotStore();
+    private final EntityCache entityCache = new EntityCache();
+    private final QueryCache queryCache = new QueryCache(DEFAULT_QUERY_CACHE_SIZE);
+    private volatile boolean dirtyTracking;
+    private volatile boolean multiRowInsert;
+    private volatile ExecutorService referenceExecutor;
 
     public DatabaseEngine(Connection connection) throws SQLException {
+        this(connection, null, false, null);
+    }
+
+    /**
+     * Creates an engine running every operation on the given connection and rendering SQL for the given dialect
+     * instead of the one registered for the connection's product.
+     *
+     * @param connection The connection to use
+     * @param dialect The dialect to render SQL for
+     * @throws SQLException if the connection can not be used
+     */
+    public DatabaseEngine(Connection connection, Dialect dialect) throws SQLException {
+        this(connection, null, false, dialect);
+    }
+
+    public DatabaseEngine(DataSource dataSource) throws SQLException {
+        this(dataSource, DEFAULT_POOL_SIZE);
+    }
+
+    public DatabaseEngine(DataSource dataSource, int maximumPoolSize) throws SQLException {
+        this(null, new ConnectionPool(dataSource, maximumPoolSize), true, null);
+    }
+
+    public DatabaseEngine(ConnectionPool pool) throws SQLException {
+        this(null, pool, false, null);
+    }
+
+    public DatabaseEngine(ConnectionPool pool, Dialect dialect) throws SQLException {
+        this(null, pool, false, dialect);
+    }
+
+    private DatabaseEngine(Connection connection, ConnectionPool pool, boolean ownsPool, Dialect dialect) throws SQLException {
         this.connection = connection;
+        this.pool = pool;
+        this.ownsPool = ownsPool;
         this.reflector = new Reflector();
         this.verificator = new Verificator();
-        this.builder = new QueryBuilder(getConnectionEngine(connection));
+
+        if (pool != null) {
+            pool.addDiscardListener(discardListener);
+        }
+
+        if (dialect != null) {
+            this.dialect = dialect;
+            return;
+        }
+
+        Connection probe = acquire();
+
+        try {
+            this.dialect = DialectRegistry.forProductName(probe.getMetaData().getDatabaseProductName());
+        } finally {
+            release(probe);
+        }
     }
 
-    private SqlEngine getConnectionEngine(Connection connection) throws SQLException {
-        String product = connection.getMetaData().getDatabaseProductName().toLowerCase();
+    /**
+     * Returns the dialect this engine renders SQL for.
+     *
+     * @return the dialect of this engine
+     */
+    public Dialect getDialect() {
+        return dialect;
+    }
 
-        if (product.contains("microsoft sql server")) {
-            return SqlEngine.SQL_SERVER;
-        } else if (product.contains("mysql")) {
-            return SqlEngine.MYSQL;
-        } else {
-            return SqlEngine.UNKNOWN;
+    /**
+     * Returns a snapshot of the connection pool's counters.
+     *
+     * @return a snapshot of the connection pool's counters, or null if this engine uses a single connection
+     */
+    public PoolStatistics getPoolStatistics() {
+        return pool != null ? pool.getStatistics() : null;
+    }
+
+    /**
+     * Returns a snapshot of the prepared statement cache's counters.
+     *
+     * @return a snapshot of the prepared statement cache's counters
+     */
+    public CacheStatistics getStatementCacheStatistics() {
+        return statementCache.getStatistics();
+    }
+
+    /**
+     * Sets the number of prepared statements kept open per connection for reuse. The least recently used
+     * statement is closed when a connection exceeds it. Streaming queries are never cached.
+     *
+     * @param statementCacheSize The number of statements kept per connection, or 0 to disable the cache
+     */
+    public void setStatementCacheSize(int statementCacheSize) {
+        statementCache.setMaximumSize(statementCacheSize);
+
+        if (statementCacheSize == 0) {
+            statementCache.clear();
+        }
+    }
+
+    public int getStatementCacheSize() {
+        return statementCache.getMaximumSize();
+    }
+
+    /**
+     * Returns a snapshot of the entity cache's counters for the given class.
+     *
+     * @param table The cached class
+     * @return a snapshot of the class's counters, or null if no row of the class was cached yet
+     */
+    public CacheStatistics getEntityCacheStatistics(Class<?> table) {
+        return entityCache.getStatistics(table);
+    }
+
+    /**
+     * Returns a snapshot of the entity cache's counters for every cached class added together.
+     *
+     * @return a snapshot of the entity cache's counters
+     */
+    public CacheStatistics getEntityCacheStatistics() {
+        return entityCache.getStatistics();
+    }
+
+    /**
+     * Drops every cached row, for example after the tables were written by another application.
+     */
+    public void clearEntityCache() {
+        entityCache.clear();
+    }
+
+    /**
+     * Returns a snapshot of the query cache's counters.
+     *
+     * @return a snapshot of the query cache's counters
+     */
+    public CacheStatistics getQueryCacheStatistics() {
+        return queryCache.getStatistics();
+    }
+
+    /**
+     * Sets the number of list results kept for queries that opt in with {@link Modifier#cache()}. The least
+     * recently used result is dropped when the cache exceeds it.
+     *
+     * @param queryCacheSize The number of results kept, or 0 to disable the cache
+     */
+    public void setQueryCacheSize(int queryCacheSize) {
+        queryCache.setMaximumSize(queryCacheSize);
+    }
+
+    public int getQueryCacheSize() {
+        return queryCache.getMaximumSize();
+    }
+
+    /**
+     * Sets the time a cached list result is kept when its modifier does not specify one.
+     *
+     * @param queryCacheTtl The time in milliseconds, or 0 to keep results until a write evicts them
+     */
+    public void setQueryCacheTtl(long queryCacheTtl) {
+        queryCache.setDefaultTtl(queryCacheTtl);
+    }
+
+    public long getQueryCacheTtl() {
+        return queryCache.getDefaultTtl();
+    }
+
+    /**
+     * Drops every cached list result, for example after the tables were written by another application.
+     */
+    public void clearQueryCache() {
+        queryCache.clear();
+    }
+
+    /**
+     * Closes the cached prepared statements and the connection pool created by this engine. Connections and pools
+     * provided by the caller are left open.
+     */
+    @Override
+    public void close() {
+        statementCache.clear();
+        entityCache.clear();
+        queryCache.clear();
+
+        if (pool != null) {
+            pool.removeDiscardListener(discardListener);
+        }
+
+        synchronized (this) {
+            if (referenceExecutor != null) {
+                referenceExecutor.shutdown();
+            }
+        }
+
+        if (ownsPool) {
+            pool.close();
         }
     }
 
@@ -87,8 +346,35 @@ public final class DatabaseEngine {
         return list(table, new Modifier());
     }
 
-    @SuppressWarnings("unchecked")
     public <T> List<T> list(Class<?> table, Modifier modifier) throws SQLException, NoAnnotationException, ClassNotFoundException, IllegalAccessException, InstantiationException {
+        List<Object> cacheKey = modifier.isCached() ? queryCache.key(table, modifier) : null;
+
+        if (cacheKey != null) {
+            List<T> results = queryCache.get(cacheKey);
+
+            if (results != null) {
+                return results;
+            }
+        }
+
+        long generation = cacheKey != null ? queryCache.generation(table) : 0;
+        Connection connection = acquire();
+
+        try {
+            List<T> results = list(connection, table, modifier);
+
+            if (cacheKey != null) {
+                queryCache.put(cacheKey, table, results, modifier.getCacheTtl(), generation);
+            }
+
+            return results;
+        } finally {
+            release(connection);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> list(Connection connection, Class<?> table, Modifier modifier) throws SQLException, NoAnnotationException, ClassNotFoundException, IllegalAccessException, InstantiationException {
         List<Object> results = new ArrayList<>();
 
         String tableName = reflector.getTableName(table);
@@ -96,43 +382,77 @@ public final class DatabaseEngine {
         Expression[] expressions = modifier.getExpressions();
         Sort[] sorts = modifier.getSorts();
         TableReference[] tableReferences = modifier.getReferences();
-        LinkedHashMap<String, ColumnDefinition> columnMap = reflector.getColumnMap(table);
+        Map<String, ColumnDefinition> columnMap = reflector.getColumns(table);
+        RowMapper<Object> mapper = reflector.getRowMapper(table, columns);
+
+        Object[] seek = modifier.getSeek();
+        int reserved = countParameters(seek) + (modifier.isPaged() ? 2 : 0);
+        List<Expression[]> chunks = sorts.length > 0 ? null : split(expressions, reserved);
+
+        if (chunks != null) {
+            int offset = modifier.getOffset() == null ? 0 : modifier.getOffset();
+            long wanted = modifier.getLimit() == null ? Long.MAX_VALUE : (long) offset + modifier.getLimit();
+
+            for (Expression[] chunk : chunks) {
+                if (results.size() >= wanted) {
+                    break;
+                }
+
+                results.addAll(list(connection, table, new Modifier().mark(columns).express(chunk)));
+            }
+
+            if (modifier.isPaged()) {
+                results = new ArrayList<>(results.subList(Math.min(offset, results.size()), (int) Math.min(wanted, results.size())));
+            }
+
+            if (tableReferences.length > 0 && !results.isEmpty()) {
+                loadReferences(connection, results, reflector.getReferences(table, tableReferences, columnMap), modifier.getParallelism());
+            }
+
+            return (List<T>) results;
+        }
 
-        builder.reset();
-        builder.select(tableName, columns).where(expressions).orderBy(sorts);
+        verifyParameters(countParameters(expressions) + reserved);
+        expressions = pad(expressions, reserved);
 
-        try (PreparedStatement statement = this.connection.prepareStatement(builder.toString())) {
-            for (int i = 0; i < expressions.length; i++) {
-                statement.setObject(i + 1, expressions[i].getValue());
+        String sql = selectQuery(tableName, columns, expressions, sorts, seek, modifier.isPaged());
+        EntityMetadata metadata = reflector.getMetadata(table);
+        boolean cacheable = isCacheable(metadata, columns);
+        long generation = cacheable ? entityCache.generation(metadata) : 0;
+
+        try (StatementCache.Lease lease = statementCache.prepare(connection, sql, Statement.NO_GENERATED_KEYS)) {
+            PreparedStatement statement = lease.getStatement();
+            int index = bindSeek(statement, bind(statement, 1, expressions), seek);
+
+            if (modifier.isPaged()) {
+                bindPage(statement, index, modifier.getLimit(), modifier.getOffset());
             }
 
             try (ResultSet rs = statement.executeQuery()) {
+                int[] indexes = mapper.resolve(rs);
+
                 while (rs.next()) {
-                    results.add(reflector.parse(table, columnMap, columns, rs));
+                    results.add(mapper.map(rs, indexes));
                 }
             }
         }
 
-        if (tableReferences.length > 0) {
-            FieldReference[] fieldReferences = reflector.getReferences(table, tableReferences, columnMap);
+        if (cacheable) {
+            for (Object result : results) {
+                entityCache.put(result, metadata, generation);
+            }
+        }
 
+        if (dirtyTracking) {
             for (Object result : results) {
-                for (FieldReference fieldReference : fieldReferences) {
-                    Object refValue = fieldReference.getSourceField().get(result);
-                    fieldReference.getModifier().getExpressions()[0].setValue(refValue);
-
-                    switch (fieldReference.getRelation()) {
-                        case TO_MANY:
-                            fieldReference.getTargetField().set(result, list(fieldReference.getTargetClass(), fieldReference.getModifier()));
-                            break;
-                        case TO_ONE:
-                            fieldReference.getTargetField().set(result, get(fieldReference.getTargetClass(), fieldReference.getModifier()));
-                            break;
-                    }
-                }
+                snapshots.record(result, metadata);
             }
         }
 
+        if (tableReferences.length > 0 && !results.isEmpty()) {
+            loadReferences(connection, results, reflector.getReferences(table, tableReferences, columnMap), modifier.getParallelism());
+        }
+
         return (List<T>) results;
     }
 
@@ -140,8 +460,18 @@ public final class DatabaseEngine {
         return get(table, new Modifier());
     }
 
-    @SuppressWarnings("unchecked")
     public <T> T get(Class<?> table, Modifier modifier) throws SQLException, NoAnnotationException, ClassNotFoundException, IllegalAccessException, InstantiationException {
+        Connection connection = acquire();
+
+        try {
+            return get(connection, table, modifier);
+        } finally {
+            release(connection);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Connection connection, Class<?> table, Modifier modifier) throws SQLException, NoAnnotationException, ClassNotFoundException, IllegalAccessException, InstantiationException {
         Object result = null;
 
         String tableName = reflector.getTableName(table);
@@ -149,48 +479,270 @@ public final class DatabaseEngine {
         Expression[] expressions = modifier.getExpressions();
         Sort[] sorts = modifier.getSorts();
         TableReference[] tableReferences = modifier.getReferences();
-        LinkedHashMap<String, ColumnDefinition> columnMap = reflector.getColumnMap(table);
+        Map<String, ColumnDefinition> columnMap = reflector.getColumns(table);
+        RowMapper<Object> mapper = reflector.getRowMapper(table, columns);
 
-        builder.reset();
-        builder.select(tableName, columns).where(expressions).orderBy(sorts);
+        Object[] seek = modifier.getSeek();
+        EntityMetadata metadata = reflector.getMetadata(table);
+        boolean cacheable = isCacheable(metadata, columns);
+        Object cacheKey = cacheable ? getCacheKey(metadata, modifier) : null;
+        long generation = cacheable ? entityCache.generation(metadata) : 0;
 
-        try (PreparedStatement statement = this.connection.prepareStatement(builder.toString())) {
-            for (int i = 0; i < expressions.length; i++) {
-                statement.setObject(i + 1, expressions[i].getValue());
+        if (cacheKey != null) {
+            result = entityCache.get(metadata, cacheKey);
+        }
+
+        // Dialects that may not understand the paging clause only page when the caller asked for it
+        boolean paged = dialect.supportsPaging() || modifier.isPaged() || seek.length > 0;
+        int reserved = countParameters(seek) + (paged ? 2 : 0);
+
+        if (result == null && countParameters(expressions) + reserved > dialect.getMaxParameters()) {
+            Modifier fallback = new Modifier().mark(columns).express(expressions).sort(sorts).seek(seek).include(tableReferences).parallel(modifier.getParallelism());
+
+            if (paged) {
+                fallback.limit(1);
             }
 
-            try (ResultSet rs = statement.executeQuery()) {
-                if (rs.next()) {
-                    result = reflector.parse(table, columnMap, columns, rs);
-                }
+            if (modifier.getOffset() != null) {
+                fallback.offset(modifier.getOffset());
             }
+
+            List<Object> results = list(connection, table, fallback);
+            return results.isEmpty() ? null : (T) results.get(0);
         }
 
-        if (tableReferences.length > 0) {
-            FieldReference[] fieldReferences = reflector.getReferences(table, tableReferences, columnMap);
+        if (result == null) {
+            expressions = pad(expressions, reserved);
+            String sql = selectQuery(tableName, columns, expressions, sorts, seek, paged);
 
-            if (result != null) {
-                for (FieldReference fieldReference : fieldReferences) {
-                    Object refValue = fieldReference.getSourceField().get(result);
-                    fieldReference.getModifier().getExpressions()[0].setValue(refValue);
+            try (StatementCache.Lease lease = statementCache.prepare(connection, sql, Statement.NO_GENERATED_KEYS)) {
+                PreparedStatement statement = lease.getStatement();
+                int index = bindSeek(statement, bind(statement, 1, expressions), seek);
 
-                    switch (fieldReference.getRelation()) {
-                        case TO_MANY:
-                            fieldReference.getTargetField().set(result, list(fieldReference.getTargetClass(), fieldReference.getModifier()));
-                            break;
-                        case TO_ONE:
-                            fieldReference.getTargetField().set(result, get(fieldReference.getTargetClass(), fieldReference.getModifier()));
-                            break;
+                if (paged) {
+                    bindPage(statement, index, 1, modifier.getOffset());
+                }
+
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (rs.next()) {
+                        result = mapper.map(rs, mapper.resolve(rs));
                     }
                 }
             }
+
+            if (cacheable && result != null) {
+                entityCache.put(result, metadata, generation);
+            }
+        }
+
+        if (dirtyTracking && result != null) {
+            snapshots.record(result, metadata);
+        }
+
+        if (tableReferences.length > 0 && result != null) {
+            loadReferences(connection, Collections.singletonList(result), reflector.getReferences(table, tableReferences, columnMap), modifier.getParallelism());
         }
 
         return (T) result;
     }
 
+    public <T> Map<Object, T> getAll(Class<?> table, Collection<?> primaryKeys) throws SQLException, NoAnnotationException, ClassNotFoundException, IllegalAccessException, InstantiationException, NoSuchColumnException {
+        return getAll(table, primaryKeys, new Modifier());
+    }
+
+    /**
+     * Reads the rows with the given primary keys using one IN query per chunk of keys that fits the engine's parameter
+     * limit. Duplicate keys are read once, and included references are loaded in batches for all rows. Rows of a
+     * {@link github.andriantony.periscope.annotation.Cached} class are served from the entity cache when the modifier
+     * selects every column and has no additional expressions, and only the missing keys are queried.
+     *
+     * @param <T> the mapped class
+     * @param table The mapped class to read
+     * @param primaryKeys The primary keys of the rows to read
+     * @param modifier The columns, additional expressions and references of the query. Sorts and paging are ignored
+     * @return the rows by requested key, in the order the keys were given. Keys without a matching row are left out
+     * @throws SQLException if the query fails
+     * @throws NoAnnotationException if the class does not have the Table annotation
+     * @throws ClassNotFoundException if a referenced class can not be found
+     * @throws IllegalAccessException if a mapped field can not be accessed
+     * @throws InstantiationException if the class does not have a no-arg constructor
+     * @throws NoSuchColumnException if the class does not have a primary key
+     */
+    public <T> Map<Object, T> getAll(Class<?> table, Collection<?> primaryKeys, Modifier modifier) throws SQLException, NoAnnotationException, ClassNotFoundException, IllegalAccessException, InstantiationException, NoSuchColumnException {
+        Connection connection = acquire();
+
+        try {
+            return getAll(connection, table, primaryKeys, modifier);
+        } finally {
+            release(connection);
+        }
+    }
+
     @SuppressWarnings("unchecked")
+    private <T> Map<Object, T> getAll(Connection connection, Class<?> table, Collection<?> primaryKeys, Modifier modifier) throws SQLException, NoAnnotationException, ClassNotFoundException, IllegalAccessException, InstantiationException, NoSuchColumnException {
+        Map<Object, T> results = new LinkedHashMap<>();
+        Set<Object> keys = new LinkedHashSet<>(primaryKeys);
+        keys.remove(null);
+
+        if (keys.isEmpty()) {
+            return results;
+        }
+
+        Field primaryField = reflector.getPrimaryColumn(table);
+        String primaryColumn = primaryField.getAnnotation(Column.class).name();
+        String[] columns = modifier.getColumns();
+
+        if (columns.length > 0 && !Arrays.asList(columns).contains(primaryColumn)) {
+            columns = Arrays.copyOf(columns, columns.length + 1);
+            columns[columns.length - 1] = primaryColumn;
+        }
+
+        EntityMetadata metadata = reflector.getMetadata(table);
+        boolean cacheable = isCacheable(metadata, columns) && modifier.getExpressions().length == 0;
+        List<Object> values = new ArrayList<>(keys.size());
+        Map<Object, Object> rows = new HashMap<>();
+
+        for (Object key : keys) {
+            Object row = cacheable ? entityCache.get(metadata, key) : null;
+
+            if (row == null) {
+                values.add(key);
+            } else {
+                rows.put(reflector.getKey(key), row);
+
+                if (dirtyTracking) {
+                    snapshots.record(row, metadata);
+                }
+            }
+        }
+
+        TableReference[] tableReferences = cacheable ? new TableReference[0] : modifier.getReferences();
+        int chunkSize = Math.max(1, dialect.getMaxParameters() - countParameters(modifier.getExpressions()));
+
+        for (int from = 0; from < values.size(); from += chunkSize) {
+            Expression[] expressions = new Expression[modifier.getExpressions().length + 1];
+            expressions[0] = new Expression(primaryColumn, values.subList(from, Math.min(values.size(), from + chunkSize)), Operator.IN);
+            System.arraycopy(modifier.getExpressions(), 0, expressions, 1, modifier.getExpressions().length);
+
+            for (Object row : list(connection, table, new Modifier().mark(columns).express(expressions).include(tableReferences).parallel(modifier.getParallelism()))) {
+                rows.put(reflector.getKey(primaryField.get(row)), row);
+            }
+        }
+
+        if (cacheable && modifier.getReferences().length > 0 && !rows.isEmpty()) {
+            loadReferences(connection, new ArrayList<>(rows.values()), reflector.getReferences(table, modifier.getReferences(), reflector.getColumns(table)), modifier.getParallelism());
+        }
+
+        for (Object key : keys) {
+            Object row = rows.get(reflector.getKey(key));
+
+            if (row != null) {
+                results.put(key, (T) row);
+            }
+        }
+
+        return results;
+    }
+
+    public <T> Stream<T> stream(Class<?> table) throws SQLException, NoAnnotationException, IllegalAccessException, InstantiationException {
+        return stream(table, new Modifier());
+    }
+
+    public <T> Stream<T> stream(Class<?> table, Modifier modifier) throws SQLException, NoAnnotationException, IllegalAccessException, InstantiationException {
+        return stream(table, modifier, fetchSize);
+    }
+
+    /**
+     * Returns a lazily mapped stream over the rows matching the given modifier. The rows are read from a forward-only,
+     * read-only result set, so memory use does not grow with the number of rows. The returned stream holds an open
+     * statement, and a pooled connection if any, until it is closed or fully consumed.
+     *
+     * @param <T> the mapped class
+     * @param table The mapped class to read
+     * @param modifier The columns, expressions and sorts of the query. Table references are not supported
+     * @param fetchSize The number of rows the driver should fetch per round trip
+     * @return a lazily mapped stream that must be closed
+     * @throws SQLException if the query fails
+     * @throws NoAnnotationException if the class does not have the Table annotation
+     * @throws IllegalAccessException if a mapped field can not be accessed
+     * @throws InstantiationException if the class does not have a no-arg constructor
+     */
+    public <T> Stream<T> stream(Class<?> table, Modifier modifier, int fetchSize) throws SQLException, NoAnnotationException, IllegalAccessException, InstantiationException {
+        return this.<T>cursor(table, modifier, fetchSize).stream();
+    }
+
+    public <T> Cursor<T> cursor(Class<?> table, Modifier modifier) throws SQLException, NoAnnotationException, IllegalAccessException, InstantiationException {
+        return cursor(table, modifier, fetchSize);
+    }
+
+    public <T> Cursor<T> cursor(Class<?> table, Modifier modifier, int fetchSize) throws SQLException, NoAnnotationException, IllegalAccessException, InstantiationException {
+        if (modifier.getReferences().length > 0) {
+            throw new IllegalArgumentException("Table references can not be included in a streaming query");
+        }
+
+        String tableName = reflector.getTableName(table);
+        String[] columns = modifier.getColumns();
+        Expression[] expressions = modifier.getExpressions();
+        RowMapper<T> mapper = reflector.getRowMapper(table, columns);
+
+        Object[] seek = modifier.getSeek();
+        int reserved = countParameters(seek) + (modifier.isPaged() ? 2 : 0);
+        verifyParameters(countParameters(expressions) + reserved);
+        expressions = pad(expressions, reserved);
+
+        String sql = selectQuery(tableName, columns, expressions, modifier.getSorts(), seek, modifier.isPaged());
+
+        Connection connection = acquire();
+        PreparedStatement statement = null;
+
+        try {
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            int index = bindSeek(statement, bind(statement, 1, expressions), seek);
+
+            if (modifier.isPaged()) {
+                bindPage(statement, index, modifier.getLimit(), modifier.getOffset());
+            }
+
+            return new Cursor<>(statement, statement.executeQuery(), mapper, () -> release(connection));
+        } catch (SQLException | RuntimeException e) {
+            if (statement != null) {
+                try {
+                    statement.close();
+                } catch (SQLException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+
+            release(connection);
+            throw e;
+        }
+    }
+
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 0) {
+            throw new IllegalArgumentException("Fetch size must not be negative");
+        }
+
+        this.fetchSize = fetchSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
     public <T> T function(Class<?> table, Modifier modifier, Function function) throws SQLException, NoAnnotationException {
+        Connection connection = acquire();
+
+        try {
+            return function(connection, table, modifier, function);
+        } finally {
+            release(connection);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T function(Connection connection, Class<?> table, Modifier modifier, Function function) throws SQLException, NoAnnotationException {
         Object result = null;
 
         String tableName = reflector.getTableName(table);
@@ -198,13 +750,12 @@ public final class DatabaseEngine {
         Expression[] expressions = modifier.getExpressions();
 
         if (function != null) {
-            builder.reset();
-            builder.function(tableName, columns, function).where(expressions);
+            expressions = pad(expressions, 0);
+            String sql = functionQuery(tableName, columns, function, expressions);
 
-            try (PreparedStatement statement = connection.prepareStatement(builder.toString())) {
-                for (int i = 0; i < expressions.length; i++) {
-                    statement.setObject(i + 1, expressions[i].getValue());
-                }
+            try (StatementCache.Lease lease = statementCache.prepare(connection, sql, Statement.NO_GENERATED_KEYS)) {
+                PreparedStatement statement = lease.getStatement();
+                bind(statement, 1, expressions);
 
                 try (ResultSet rs = statement.executeQuery()) {
                     if (rs.next()) {
@@ -221,7 +772,38 @@ public final class DatabaseEngine {
         return insert(entity, new Modifier());
     }
 
+    /**
+     * Inserts the entity. Like {@link #insertAll(Collection, Modifier)}, the generated key is assigned to an
+     * auto-generated primary key.
+     *
+     * @param entity The entity to insert
+     * @param modifier The columns to write, or none for every insertable column
+     * @return the generated key, or null if the driver did not return a numeric one
+     * @throws NoAnnotationException if the class does not have the Table annotation
+     * @throws IllegalOperationException if the class does not permit inserts
+     * @throws NotNullableException if a non-nullable column is null
+     * @throws IllegalAccessException if a mapped field can not be accessed
+     * @throws OverLimitException if a value exceeds its column length
+     * @throws SQLException if the insert fails
+     * @throws ClassNotFoundException if a referenced class can not be found
+     * @throws InstantiationException if the class does not have a no-arg constructor
+     * @throws UniqueFieldViolationException if a unique value already exists
+     * @throws NoSuchColumnException if the marked columns do not match the mapped ones
+     */
     public Integer insert(Object entity, Modifier modifier) throws NoAnnotationException, IllegalOperationException, NotNullableException, IllegalAccessException, OverLimitException, SQLException, ClassNotFoundException, InstantiationException, UniqueFieldViolationException, NoSuchColumnException {
+        Connection connection = acquire();
+
+        try {
+            Integer result = insert(connection, entity, modifier);
+            commit(connection);
+            return result;
+        } finally {
+            release(connection);
+            queryCache.invalidate(entity.getClass());
+        }
+    }
+
+    private Integer insert(Connection connection, Object entity, Modifier modifier) throws NoAnnotationException, IllegalOperationException, NotNullableException, IllegalAccessException, OverLimitException, SQLException, ClassNotFoundException, InstantiationException, UniqueFieldViolationException, NoSuchColumnException {
         Class<?> table = entity.getClass();
         verificator.verifyPermission(table, WritePermission.INSERT);
 
@@ -229,19 +811,15 @@ public final class DatabaseEngine {
 
         String tableName = reflector.getTableName(table);
         String[] columns = modifier.getColumns();
-        LinkedHashMap<String, ColumnDefinition> columnMap = reflector.getColumnMap(table, columns);
+        Map<String, ColumnDefinition> columnMap = reflector.getColumns(table, columns);
+        ColumnDefinition primary = reflector.getMetadata(table).getPrimary();
+        boolean assignKey = primary != null && primary.getPrimary().auto();
 
-        verificator.verifyNonNullableInsertion(columnMap, reflector.getColumnMap(table));
+        verificator.verifyNonNullableInsertion(columnMap, reflector.getColumns(table));
         verificator.verifyNullability(entity, columnMap);
         verificator.verifyLength(entity, columnMap);
 
-        for (Map.Entry<String, ColumnDefinition> entry : reflector.getUniqueMap(columnMap).entrySet()) {
-            Object unique = get(table, new Modifier().express(new Expression(entry.getKey(), entry.getValue().getField().get(entity))));
-
-            if (unique != null) {
-                throw new UniqueFieldViolationException("The unique value " + entry.getValue().getField().get(entity) + " already exists");
-            }
-        }
+        verifyUniqueness(connection, table, Collections.singletonList(entity), columnMap, null);
 
         String[] insertedColumns = reflector.toColumnArray(columnMap);
 
@@ -249,112 +827,1018 @@ public final class DatabaseEngine {
             throw new NoSuchColumnException("Insertion column length mismatch");
         }
 
-        builder.reset();
-        builder.insert(tableName, insertedColumns);
+        String sql = insertQuery(tableName, insertedColumns);
 
-        try (PreparedStatement statement = this.connection.prepareStatement(builder.toString(), Statement.RETURN_GENERATED_KEYS)) {
+        try (StatementCache.Lease lease = statementCache.prepare(connection, sql, Statement.RETURN_GENERATED_KEYS)) {
+            PreparedStatement statement = lease.getStatement();
             int index = 1;
 
             for (Map.Entry<String, ColumnDefinition> entry : columnMap.entrySet()) {
                 statement.setObject(index++, entry.getValue().getField().get(entity));
             }
 
-            statement.executeUpdate();
+            try {
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                throw translate(e);
+            }
 
             try (ResultSet rs = statement.getGeneratedKeys()) {
                 if (rs.next()) {
-                    result = rs.getInt(1);
+                    Object key = rs.getObject(1);
+
+                    result = key instanceof Number ? ((Number) key).intValue() : null;
+
+                    if (assignKey) {
+                        reflector.setPrimaryValue(entity, key);
+                    }
                 }
             }
         }
 
+        if (dirtyTracking) {
+            snapshots.record(entity, reflector.getMetadata(table));
+        }
+
         return result;
     }
 
-    public void update(Object entity) throws NoAnnotationException, IllegalOperationException, NotNullableException, IllegalAccessException, OverLimitException, SQLException, ClassNotFoundException, InstantiationException, UniqueFieldViolationException, NoSuchColumnException {
-        update(entity, new Modifier());
+    public List<Integer> insertAll(Collection<?> entities) throws NoAnnotationException, IllegalOperationException, NotNullableException, IllegalAccessException, OverLimitException, SQLException, ClassNotFoundException, InstantiationException, UniqueFieldViolationException, NoSuchColumnException {
+        return insertAll(entities, new Modifier());
     }
 
-    public void update(Object entity, Modifier modifier) throws NoAnnotationException, IllegalOperationException, NotNullableException, IllegalAccessException, OverLimitException, SQLException, ClassNotFoundException, InstantiationException, UniqueFieldViolationException, NoSuchColumnException {
-        Class<?> table = entity.getClass();
-        verificator.verifyPermission(table, WritePermission.UPDATE);
-
-        String tableName = reflector.getTableName(table);
-        String[] columns = modifier.getColumns();
-        Expression[] keyExpressions = modifier.getExpressions().length > 0 ? modifier.getExpressions() : new Expression[]{reflector.getPrimaryExpression(entity)};
-        LinkedHashMap<String, ColumnDefinition> columnMap = reflector.getColumnMap(table, columns);
+    public List<Integer> insertAll(Collection<?> entities, Modifier modifier) throws NoAnnotationException, IllegalOperationException, NotNullableException, IllegalAccessException, OverLimitException, SQLException, ClassNotFoundException, InstantiationException, UniqueFieldViolationException, NoSuchColumnException {
+        Connection connection = acquire();
 
-        verificator.verifyNullability(entity, columnMap);
-        verificator.verifyLength(entity, columnMap);
+        try {
+            List<Integer> result = insertAll(connection, entities, modifier);
+            commit(connection);
+            return result;
+        } finally {
+            release(connection);
 
-        Field primaryField = reflector.getPrimaryColumn(table);
+            for (Class<?> table : entities.stream().map(Object::getClass).distinct().toArray(Class<?>[]::new)) {
+                queryCache.invalidate(table);
+            }
+        }
+    }
 
-        for (Map.Entry<String, ColumnDefinition> entry : reflector.getUniqueMap(columnMap).entrySet()) {
-            ColumnDefinition column = entry.getValue();
-            Field uniqueField = column.getField();
+    private List<Integer> insertAll(Connection connection, Collection<?> entities, Modifier modifier) throws NoAnnotationException, IllegalOperationException, NotNullableException, IllegalAccessException, OverLimitException, SQLException, ClassNotFoundException, InstantiationException, UniqueFieldViolationException, NoSuchColumnException {
+        List<Object> entityList = new ArrayList<>(entities);
+        Integer[] results = new Integer[entityList.size()];
+        Map<Class<?>, List<Integer>> groups = new LinkedHashMap<>();
 
-            List<Object> uniques = list(table, new Modifier().express(new Expression(entry.getKey(), column.getField().get(entity))));
+        for (int i = 0; i < entityList.size(); i++) {
+            Class<?> table = entityList.get(i).getClass();
+            List<Integer> group = groups.get(table);
 
-            for (Object unique : uniques) {
-                verificator.verifyUniqueness(entity, unique, primaryField, uniqueField);
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(table, group);
             }
+
+            group.add(i);
         }
 
-        builder.reset();
-        builder.update(tableName, reflector.toColumnArray(columnMap)).where(keyExpressions);
+        for (Map.Entry<Class<?>, List<Integer>> group : groups.entrySet()) {
+            Class<?> table = group.getKey();
+            verificator.verifyPermission(table, WritePermission.INSERT);
 
-        try (PreparedStatement statement = this.connection.prepareStatement(builder.toString())) {
-            int index = 1;
+            String tableName = reflector.getTableName(table);
+            String[] columns = modifier.getColumns();
+            Map<String, ColumnDefinition> columnMap = reflector.getColumns(table, columns);
+            ColumnDefinition primary = reflector.getMetadata(table).getPrimary();
+            boolean assignKeys = primary != null && primary.getPrimary().auto();
+            boolean readKeys = dialect.supportsBatchGeneratedKeys();
 
-            for (Map.Entry<String, ColumnDefinition> entry : columnMap.entrySet()) {
-                statement.setObject(index++, entry.getValue().getField().get(entity));
+            verificator.verifyNonNullableInsertion(columnMap, reflector.getColumns(table));
+
+            List<Object> groupEntities = new ArrayList<>(group.getValue().size());
+
+            for (Integer position : group.getValue()) {
+                Object entity = entityList.get(position);
+
+                verificator.verifyNullability(entity, columnMap);
+                verificator.verifyLength(entity, columnMap);
+                groupEntities.add(entity);
             }
 
-            for (int i = 0; i < keyExpressions.length; i++) {
-                statement.setObject(i + columnMap.size() + 1, keyExpressions[i].getValue());
+            verifyUniqueness(connection, table, groupEntities, columnMap, null);
+
+            String[] insertedColumns = reflector.toColumnArray(columnMap);
+
+            if (columns.length > 0 && columns.length != insertedColumns.length) {
+                throw new NoSuchColumnException("Insertion column length mismatch");
             }
 
-            statement.executeUpdate();
-        }
-    }
-    
-    public void delete(Class<?> table, Object primaryKey) throws NoAnnotationException, IllegalOperationException, SQLException, NoSuchColumnException {
-        verificator.verifyPermission(table, WritePermission.DELETE);
-        
-        String tableName = reflector.getTableName(table);
-        Expression[] expressions = new Expression[] { new Expression(reflector.getPrimaryColumn(table).getAnnotation(Column.class).name(), primaryKey) };
-        
-        builder.reset();
-        builder.delete(tableName).where(expressions);
-        
-        try (PreparedStatement statement = connection.prepareStatement(builder.toString())) {
-            for (int i = 0; i < expressions.length; i++) {
-                statement.setObject(i + 1, expressions[i].getValue());
+            List<Integer> positions = group.getValue();
+            int rowsPerStatement = multiRowInsert ? Math.min(dialect.getMaxInsertRows(), dialect.getMaxParameters() / Math.max(1, insertedColumns.length)) : 1;
+
+            if (rowsPerStatement > 1 && positions.size() > 1 && (!assignKeys || dialect.supportsMultiRowGeneratedKeys())) {
+                insertRows(connection, tableName, columnMap, insertedColumns, entityList, positions, rowsPerStatement, assignKeys, results);
+                continue;
             }
 
-            statement.executeUpdate();
-        }
-    }
-    
-    public void delete(Class<?> table, Modifier modifier) throws NoAnnotationException, IllegalOperationException, SQLException, NoSuchColumnException {
-        verificator.verifyPermission(table, WritePermission.DELETE);
-        
-        String tableName = reflector.getTableName(table);
-        Expression[] expressions = modifier.getExpressions();
-        
-        builder.reset();
-        builder.delete(tableName).where(expressions);
-        
-        try (PreparedStatement statement = connection.prepareStatement(builder.toString())) {
-            for (int i = 0; i < expressions.length; i++) {
-                statement.setObject(i + 1, expressions[i].getValue());
+            if (assignKeys && !readKeys) {
+                insertEach(connection, tableName, columnMap, insertedColumns, entityList, positions, results);
+                continue;
             }
 
-            statement.executeUpdate();
+            String sql = insertQuery(tableName, insertedColumns);
+
+            try (StatementCache.Lease lease = statementCache.prepare(connection, sql, readKeys ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS)) {
+                PreparedStatement statement = lease.getStatement();
+                int batchStart = 0;
+
+                for (int i = 0; i < positions.size(); i++) {
+                    Object entity = entityList.get(positions.get(i));
+                    int index = 1;
+
+                    for (Map.Entry<String, ColumnDefinition> entry : columnMap.entrySet()) {
+                        statement.setObject(index++, entry.getValue().getField().get(entity));
+                    }
+
+                    statement.addBatch();
+
+                    if (i + 1 - batchStart == batchSize || i + 1 == positions.size()) {
+                        try {
+                            statement.executeBatch();
+                        } catch (SQLException e) {
+                            throw translate(e);
+                        }
+
+                        List<Object> keys = new ArrayList<>();
+
+                        if (readKeys) {
+                            try (ResultSet rs = statement.getGeneratedKeys()) {
+                                while (rs.next()) {
+                                    keys.add(rs.getObject(1));
+                                }
+                            }
+                        }
+
+                        if (keys.size() == i + 1 - batchStart) {
+                            for (int j = 0; j < keys.size(); j++) {
+                                Object key = keys.get(j);
+                                int position = positions.get(batchStart + j);
+
+                                results[position] = key instanceof Number ? ((Number) key).intValue() : null;
+
+                                if (assignKeys) {
+                                    reflector.setPrimaryValue(entityList.get(position), key);
+                                }
+                            }
+                        } else if (assignKeys) {
+                            throw missingKeys(keys.size(), i + 1 - batchStart);
+                        }
+
+                        batchStart = i + 1;
+                    }
+                }
+            }
         }
-    }
-    
+
+        if (dirtyTracking) {
+            for (Object entity : entities) {
+                snapshots.record(entity, reflector.getMetadata(entity.getClass()));
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Inserts the entities at the given positions with multi-row INSERT
+     * statements of up to the given number of rows, so the SQL is only
+     * rendered and prepared for a full chunk and for the remainder.
+     */
+    private void insertRows(Connection connection, String tableName, Map<String, ColumnDefinition> columnMap, String[] columns, List<Object> entityList, List<Integer> positions, int rowsPerStatement, boolean assignKeys, Integer[] results) throws SQLException, IllegalAccessException, UniqueFieldViolationException {
+        for (int from = 0; from < positions.size(); from += rowsPerStatement) {
+            int rows = Math.min(rowsPerStatement, positions.size() - from);
+            String sql = insertQuery(tableName, columns, rows);
+
+            try (StatementCache.Lease lease = statementCache.prepare(connection, sql, assignKeys ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS)) {
+                PreparedStatement statement = lease.getStatement();
+                int index = 1;
+
+                for (int i = from; i < from + rows; i++) {
+                    Object entity = entityList.get(positions.get(i));
+
+                    for (Map.Entry<String, ColumnDefinition> entry : columnMap.entrySet()) {
+                        statement.setObject(index++, entry.getValue().getField().get(entity));
+                    }
+                }
+
+                try {
+                    statement.executeUpdate();
+                } catch (SQLException e) {
+                    throw translate(e);
+                }
+
+                if (!assignKeys) {
+                    continue;
+                }
+
+                List<Object> keys = new ArrayList<>(rows);
+
+                try (ResultSet rs = statement.getGeneratedKeys()) {
+                    while (rs.next()) {
+                        keys.add(rs.getObject(1));
+                    }
+                }
+
+                if (keys.size() == rows) {
+                    for (int j = 0; j < rows; j++) {
+                        Object key = keys.get(j);
+                        int position = positions.get(from + j);
+
+                        results[position] = key instanceof Number ? ((Number) key).intValue() : null;
+                        reflector.setPrimaryValue(entityList.get(position), key);
+                    }
+                } else {
+                    throw missingKeys(keys.size(), rows);
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts the entities at the given positions one statement at a time,
+     * for dialects whose driver can not return the generated keys of a
+     * batch, and assigns each generated key to its entity.
+     */
+    private void insertEach(Connection connection, String tableName, Map<String, ColumnDefinition> columnMap, String[] columns, List<Object> entityList, List<Integer> positions, Integer[] results) throws SQLException, IllegalAccessException, UniqueFieldViolationException {
+        String sql = insertQuery(tableName, columns);
+
+        try (StatementCache.Lease lease = statementCache.prepare(connection, sql, Statement.RETURN_GENERATED_KEYS)) {
+            PreparedStatement statement = lease.getStatement();
+
+            for (Integer position : positions) {
+                Object entity = entityList.get(position);
+                int index = 1;
+
+                for (Map.Entry<String, ColumnDefinition> entry : columnMap.entrySet()) {
+                    statement.setObject(index++, entry.getValue().getField().get(entity));
+                }
+
+                try {
+                    statement.executeUpdate();
+                } catch (SQLException e) {
+                    throw translate(e);
+                }
+
+                try (ResultSet rs = statement.getGeneratedKeys()) {
+                    if (!rs.next()) {
+                        throw missingKeys(0, 1);
+                    }
+
+                    Object key = rs.getObject(1);
+
+                    results[position] = key instanceof Number ? ((Number) key).intValue() : null;
+                    reflector.setPrimaryValue(entity, key);
+                }
+            }
+        }
+    }
+
+    private SQLException missingKeys(int keys, int rows) {
+        return new SQLException("The driver returned " + keys + " generated keys for " + rows + " inserted rows");
+    }
+
+    /**
+     * Enables or disables multi-row inserts. While enabled, {@link #insertAll(Collection)} packs as many rows into
+     * each INSERT ... VALUES statement as the dialect's parameter and row limits allow, which avoids one statement
+     * per row on drivers that do not rewrite batches. Falls back to batching if generated keys must be assigned and
+     * the dialect can not return them for multi-row inserts, and to one statement per row if it can not return them
+     * for batches either.
+     *
+     * @param multiRowInsert Whether to use multi-row inserts
+     */
+    public void setMultiRowInsert(boolean multiRowInsert) {
+        this.multiRowInsert = multiRowInsert;
+    }
+
+    public boolean isMultiRowInsert() {
+        return multiRowInsert;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Enables or disables dirty tracking. While enabled, entities loaded or written by this engine are remembered
+     * with their column values, and an update without marked columns or custom expressions only writes the columns
+     * that changed since. An update of an unchanged entity does not reach the database.
+     *
+     * @param dirtyTracking Whether to track loaded entities
+     */
+    public void setDirtyTracking(boolean dirtyTracking) {
+        this.dirtyTracking = dirtyTracking;
+    }
+
+    public boolean isDirtyTracking() {
+        return dirtyTracking;
+    }
+
+    public void setUniquenessProbe(boolean uniquenessProbe) {
+        this.uniquenessProbe = uniquenessProbe;
+    }
+
+    public boolean isUniquenessProbe() {
+        return uniquenessProbe;
+    }
+
+    public void update(Object entity) throws NoAnnotationException, IllegalOperationException, NotNullableException, IllegalAccessException, OverLimitException, SQLException, ClassNotFoundException, InstantiationException, UniqueFieldViolationException, NoSuchColumnException {
+        update(entity, new Modifier());
+    }
+
+    public void update(Object entity, Modifier modifier) throws NoAnnotationException, IllegalOperationException, NotNullableException, IllegalAccessException, OverLimitException, SQLException, ClassNotFoundException, InstantiationException, UniqueFieldViolationException, NoSuchColumnException {
+        Connection connection = acquire();
+
+        try {
+            update(connection, entity, modifier);
+            commit(connection);
+        } finally {
+            release(connection);
+        }
+    }
+
+    private void update(Connection connection, Object entity, Modifier modifier) throws NoAnnotationException, IllegalOperationException, NotNullableException, IllegalAccessException, OverLimitException, SQLException, ClassNotFoundException, InstantiationException, UniqueFieldViolationException, NoSuchColumnException {
+        Class<?> table = entity.getClass();
+        verificator.verifyPermission(table, WritePermission.UPDATE);
+
+        String tableName = reflector.getTableName(table);
+        String[] columns = modifier.getColumns();
+        Expression[] keyExpressions = modifier.getExpressions().length > 0 ? modifier.getExpressions() : new Expression[]{reflector.getPrimaryExpression(entity)};
+        boolean byPrimaryKey = modifier.getExpressions().length == 0;
+        Map<String, ColumnDefinition> columnMap = columns.length == 0 && byPrimaryKey ? reflector.getMetadata(table).getUpdatableColumns() : reflector.getColumns(table, columns);
+
+        if (dirtyTracking && columns.length == 0 && byPrimaryKey) {
+            Map<String, ColumnDefinition> changed = snapshots.changed(entity, reflector.getMetadata(table), columnMap);
+
+            if (changed != null && changed.isEmpty()) {
+                return;
+            } else if (changed != null) {
+                columnMap = changed;
+            }
+        }
+
+        verificator.verifyNullability(entity, columnMap);
+        verificator.verifyLength(entity, columnMap);
+
+        verifyUniqueness(connection, table, Collections.singletonList(entity), columnMap, reflector.getPrimaryColumn(table));
+
+        keyExpressions = pad(keyExpressions, columnMap.size());
+        String sql = updateQuery(tableName, reflector.toColumnArray(columnMap), keyExpressions);
+
+        try (StatementCache.Lease lease = statementCache.prepare(connection, sql, Statement.NO_GENERATED_KEYS)) {
+            PreparedStatement statement = lease.getStatement();
+            int index = 1;
+
+            for (Map.Entry<String, ColumnDefinition> entry : columnMap.entrySet()) {
+                statement.setObject(index++, entry.getValue().getField().get(entity));
+            }
+
+            bind(statement, index, keyExpressions);
+
+            try {
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                throw translate(e);
+            }
+        } finally {
+            if (byPrimaryKey) {
+                invalidate(table, reflector.getMetadata(table).getPrimary().getField().get(entity));
+            } else {
+                invalidateAll(table);
+            }
+        }
+
+        if (dirtyTracking && byPrimaryKey) {
+            snapshots.refresh(entity, reflector.getMetadata(table), columnMap);
+        }
+    }
+    
+    public int[] updateAll(Collection<?> entities) throws NoAnnotationException, IllegalOperationException, NotNullableException, IllegalAccessException, OverLimitException, SQLException, ClassNotFoundException, InstantiationException, UniqueFieldViolationException, NoSuchColumnException {
+        return updateAll(entities, new Modifier());
+    }
+
+    /**
+     * Updates the given entities by primary key using one batched statement per class and set of written columns.
+     * Unique columns are probed once per group. With dirty tracking enabled and no marked columns, each entity only
+     * writes its changed columns, and unchanged entities are skipped.
+     *
+     * @param entities The entities to update
+     * @param modifier The columns to write. Expressions are not supported, since every row is matched by primary key
+     * @return the update count of each entity in the given order, 0 for skipped entities, or
+     * {@link Statement#SUCCESS_NO_INFO} if the driver does not report it
+     * @throws NoAnnotationException if a class does not have the Table annotation
+     * @throws IllegalOperationException if a class does not permit updates
+     * @throws NotNullableException if a non-nullable column is null
+     * @throws IllegalAccessException if a mapped field can not be accessed
+     * @throws OverLimitException if a value exceeds its column length
+     * @throws SQLException if the update fails
+     * @throws ClassNotFoundException if a referenced class can not be found
+     * @throws InstantiationException if a class does not have a no-arg constructor
+     * @throws UniqueFieldViolationException if a unique value already exists or repeats within the entities
+     * @throws NoSuchColumnException if a class does not have a primary key
+     */
+    public int[] updateAll(Collection<?> entities, Modifier modifier) throws NoAnnotationException, IllegalOperationException, NotNullableException, IllegalAccessException, OverLimitException, SQLException, ClassNotFoundException, InstantiationException, UniqueFieldViolationException, NoSuchColumnException {
+        Connection connection = acquire();
+
+        try {
+            int[] result = updateAll(connection, entities, modifier);
+            commit(connection);
+            return result;
+        } finally {
+            release(connection);
+        }
+    }
+
+    private int[] updateAll(Connection connection, Collection<?> entities, Modifier modifier) throws NoAnnotationException, IllegalOperationException, NotNullableException, IllegalAccessException, OverLimitException, SQLException, ClassNotFoundException, InstantiationException, UniqueFieldViolationException, NoSuchColumnException {
+        if (modifier.getExpressions().length > 0) {
+            throw new IllegalArgumentException("Batched updates match every row by primary key");
+        }
+
+        List<Object> entityList = new ArrayList<>(entities);
+        int[] results = new int[entityList.size()];
+        String[] columns = modifier.getColumns();
+        Map<List<Object>, List<Integer>> groups = new LinkedHashMap<>();
+        Map<List<Object>, Map<String, ColumnDefinition>> groupColumns = new HashMap<>();
+
+        for (int i = 0; i < entityList.size(); i++) {
+            Object entity = entityList.get(i);
+            Class<?> table = entity.getClass();
+            verificator.verifyPermission(table, WritePermission.UPDATE);
+
+            Map<String, ColumnDefinition> columnMap = columns.length == 0 ? reflector.getMetadata(table).getUpdatableColumns() : reflector.getColumns(table, columns);
+
+            if (dirtyTracking && columns.length == 0) {
+                Map<String, ColumnDefinition> changed = snapshots.changed(entity, reflector.getMetadata(table), columnMap);
+
+                if (changed != null && changed.isEmpty()) {
+                    continue;
+                } else if (changed != null) {
+                    columnMap = changed;
+                }
+            }
+
+            List<Object> key = new ArrayList<>(columnMap.size() + 1);
+            key.add(table);
+            key.addAll(columnMap.keySet());
+
+            List<Integer> group = groups.get(key);
+
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(key, group);
+                groupColumns.put(key, columnMap);
+            }
+
+            group.add(i);
+        }
+
+        for (Map.Entry<List<Object>, List<Integer>> group : groups.entrySet()) {
+            Class<?> table = (Class<?>) group.getKey().get(0);
+            Map<String, ColumnDefinition> columnMap = groupColumns.get(group.getKey());
+            List<Integer> positions = group.getValue();
+            Field primaryField = reflector.getPrimaryColumn(table);
+            Expression[] keyExpressions = new Expression[] { new Expression(primaryField.getAnnotation(Column.class).name(), null) };
+            List<Object> groupEntities = new ArrayList<>(positions.size());
+
+            for (Integer position : positions) {
+                Object entity = entityList.get(position);
+
+                verificator.verifyNullability(entity, columnMap);
+                verificator.verifyLength(entity, columnMap);
+                groupEntities.add(entity);
+            }
+
+            verifyUniqueness(connection, table, groupEntities, columnMap, primaryField);
+
+            String sql = updateQuery(reflector.getTableName(table), reflector.toColumnArray(columnMap), keyExpressions);
+
+            try (StatementCache.Lease lease = statementCache.prepare(connection, sql, Statement.NO_GENERATED_KEYS)) {
+                PreparedStatement statement = lease.getStatement();
+                int batchStart = 0;
+
+                for (int i = 0; i < positions.size(); i++) {
+                    Object entity = entityList.get(positions.get(i));
+                    int index = 1;
+
+                    for (Map.Entry<String, ColumnDefinition> entry : columnMap.entrySet()) {
+                        statement.setObject(index++, entry.getValue().getField().get(entity));
+                    }
+
+                    statement.setObject(index, primaryField.get(entity));
+                    statement.addBatch();
+
+                    if (i + 1 - batchStart == batchSize || i + 1 == positions.size()) {
+                        int[] counts;
+
+                        try {
+                            counts = statement.executeBatch();
+                        } catch (SQLException e) {
+                            throw translate(e);
+                        }
+
+                        for (int j = 0; j < counts.length; j++) {
+                            results[positions.get(batchStart + j)] = counts[j];
+                        }
+
+                        batchStart = i + 1;
+                    }
+                }
+            } finally {
+                for (Object entity : groupEntities) {
+                    invalidate(table, primaryField.get(entity));
+                }
+            }
+
+            if (dirtyTracking) {
+                for (Object entity : groupEntities) {
+                    snapshots.refresh(entity, reflector.getMetadata(table), columnMap);
+                }
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Updates every row matching the criteria without loading it. An {@link Assignment} value is applied relative to
+     * the column's current value, such as {@code column = column + ?}, so counters can be changed in one round trip.
+     * Loaded entities, including their dirty tracking snapshots, are not refreshed.
+     *
+     * @param table The mapped class to update
+     * @param assignments The values by column name, in the order to assign them
+     * @param criteria The expressions selecting the rows to update
+     * @return the number of updated rows
+     * @throws NoAnnotationException if the class does not have the Table annotation
+     * @throws IllegalOperationException if the class does not permit updates
+     * @throws NotNullableException if a non-nullable column is assigned null
+     * @throws OverLimitException if a value exceeds its column length
+     * @throws SQLException if the update fails
+     * @throws UniqueFieldViolationException if the update violates a unique constraint
+     * @throws NoSuchColumnException if an assigned column is not mapped
+     */
+    public int update(Class<?> table, Map<String, Object> assignments, Modifier criteria) throws NoAnnotationException, IllegalOperationException, NotNullableException, OverLimitException, SQLException, UniqueFieldViolationException, NoSuchColumnException {
+        Connection connection = acquire();
+
+        try {
+            int result = update(connection, table, assignments, criteria.getExpressions());
+            commit(connection);
+            return result;
+        } finally {
+            release(connection);
+        }
+    }
+
+    private int update(Connection connection, Class<?> table, Map<String, Object> assignments, Expression[] expressions) throws NoAnnotationException, IllegalOperationException, NotNullableException, OverLimitException, SQLException, UniqueFieldViolationException, NoSuchColumnException {
+        verificator.verifyPermission(table, WritePermission.UPDATE);
+
+        if (assignments.isEmpty()) {
+            throw new IllegalArgumentException("At least one column must be assigned");
+        }
+
+        verificator.verifyAssignments(assignments, reflector.getColumns(table));
+
+        List<Expression[]> chunks = split(expressions, assignments.size());
+
+        if (chunks != null) {
+            int count = 0;
+
+            for (Expression[] chunk : chunks) {
+                count += update(connection, table, assignments, chunk);
+            }
+
+            return count;
+        }
+
+        verifyParameters(countParameters(expressions) + assignments.size());
+        expressions = pad(expressions, assignments.size());
+
+        String[] columns = new String[assignments.size()];
+        Arithmetic[] arithmetics = new Arithmetic[columns.length];
+        Object[] values = new Object[columns.length];
+        int position = 0;
+
+        for (Map.Entry<String, Object> entry : assignments.entrySet()) {
+            columns[position] = entry.getKey();
+
+            if (entry.getValue() instanceof Assignment) {
+                arithmetics[position] = ((Assignment) entry.getValue()).getArithmetic();
+                values[position] = ((Assignment) entry.getValue()).getValue();
+            } else {
+                values[position] = entry.getValue();
+            }
+
+            position++;
+        }
+
+        String sql = updateQuery(reflector.getTableName(table), columns, arithmetics, expressions);
+
+        try (StatementCache.Lease lease = statementCache.prepare(connection, sql, Statement.NO_GENERATED_KEYS)) {
+            PreparedStatement statement = lease.getStatement();
+            int index = 1;
+
+            for (Object value : values) {
+                statement.setObject(index++, value);
+            }
+
+            bind(statement, index, expressions);
+
+            try {
+                return statement.executeUpdate();
+            } catch (SQLException e) {
+                throw translate(e);
+            }
+        } finally {
+            invalidateAll(table);
+        }
+    }
+
+    public int upsert(Object entity) throws NoAnnotationException, IllegalOperationException, NotNullableException, IllegalAccessException, OverLimitException, SQLException, UniqueFieldViolationException, NoSuchColumnException {
+        return upsertAll(Collections.singletonList(entity))[0];
+    }
+
+    /**
+     * Inserts each entity, or updates the existing row with the same key, in one statement per row and without a
+     * prior existence check. The key is the primary key when the entity holds one and the unique columns otherwise.
+     * Entities are written with one batched statement per class and key, rendered as INSERT ... ON DUPLICATE KEY
+     * UPDATE on MySQL, as INSERT ... ON CONFLICT on PostgreSQL and SQLite and as MERGE elsewhere, with HOLDLOCK on SQL
+     * Server. On SQL Server an auto-generated primary key is never inserted. Every entity is verified before the first
+     * statement runs.
+     *
+     * @param entities The entities to write
+     * @return the row count reported by the driver for each entity in the given order
+     * @throws NoAnnotationException if a class does not have the Table annotation
+     * @throws IllegalOperationException if a class does not permit both inserts and updates
+     * @throws NotNullableException if a non-nullable column is null
+     * @throws IllegalAccessException if a mapped field can not be accessed
+     * @throws OverLimitException if a value exceeds its column length
+     * @throws SQLException if the write fails, or if the dialect can not match rows by several unique columns
+     * @throws UniqueFieldViolationException if a unique column other than the key is violated
+     * @throws NoSuchColumnException if an entity has neither a primary key value nor unique columns
+     */
+    public int[] upsertAll(Collection<?> entities) throws NoAnnotationException, IllegalOperationException, NotNullableException, IllegalAccessException, OverLimitException, SQLException, UniqueFieldViolationException, NoSuchColumnException {
+        Connection connection = acquire();
+
+        try {
+            int[] result = upsertAll(connection, entities);
+            commit(connection);
+            return result;
+        } finally {
+            release(connection);
+        }
+    }
+
+    private int[] upsertAll(Connection connection, Collection<?> entities) throws NoAnnotationException, IllegalOperationException, NotNullableException, IllegalAccessException, OverLimitException, SQLException, UniqueFieldViolationException, NoSuchColumnException {
+        List<Object> entityList = new ArrayList<>(entities);
+        int[] results = new int[entityList.size()];
+        Map<List<Object>, List<Integer>> groups = new LinkedHashMap<>();
+
+        for (int i = 0; i < entityList.size(); i++) {
+            Class<?> table = entityList.get(i).getClass();
+            ColumnDefinition primary = reflector.getMetadata(table).getPrimary();
+            List<Object> key = Arrays.asList(table, primary != null && primary.getField().get(entityList.get(i)) != null);
+            List<Integer> group = groups.get(key);
+
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(key, group);
+            }
+
+            group.add(i);
+        }
+
+        List<String> statements = new ArrayList<>(groups.size());
+
+        // Every group is verified before the first batch runs, so a rejected entity does not leave others written
+        for (Map.Entry<List<Object>, List<Integer>> group : groups.entrySet()) {
+            Class<?> table = (Class<?>) group.getKey().get(0);
+            boolean byPrimaryKey = (Boolean) group.getKey().get(1);
+            EntityMetadata metadata = reflector.getMetadata(table);
+            ColumnDefinition primary = metadata.getPrimary();
+
+            verificator.verifyPermission(table, WritePermission.INSERT);
+            verificator.verifyPermission(table, WritePermission.UPDATE);
+
+            Map<String, ColumnDefinition> columnMap = byPrimaryKey ? metadata.getColumns() : metadata.getInsertableColumns();
+            Set<String> keys = byPrimaryKey ? Collections.singleton(primary.getColumn().name()) : metadata.getUniqueColumns().keySet();
+
+            if (keys.isEmpty()) {
+                throw new NoSuchColumnException("Class " + table.getSimpleName() + " has neither a primary key value nor unique columns to upsert by");
+            }
+
+            if (keys.size() > 1 && !dialect.supportsMultipleUpsertKeys()) {
+                throw new SQLFeatureNotSupportedException(dialect.getName() + " can not upsert " + table.getSimpleName() + " by several unique columns");
+            }
+
+            List<String> updates = new ArrayList<>();
+            List<String> inserts = new ArrayList<>();
+
+            for (Map.Entry<String, ColumnDefinition> entry : columnMap.entrySet()) {
+                boolean isPrimary = entry.getValue().getPrimary() != null;
+
+                if (!isPrimary && !keys.contains(entry.getKey())) {
+                    updates.add(entry.getKey());
+                }
+
+                if (!(isPrimary && entry.getValue().getPrimary().auto() && !dialect.supportsIdentityInsert())) {
+                    inserts.add(entry.getKey());
+                }
+            }
+
+            for (Integer position : group.getValue()) {
+                verificator.verifyNullability(entityList.get(position), columnMap);
+                verificator.verifyLength(entityList.get(position), columnMap);
+            }
+
+            statements.add(upsertQuery(reflector.getTableName(table), reflector.toColumnArray(columnMap), keys.toArray(new String[0]), updates.toArray(new String[0]), inserts.toArray(new String[0])));
+        }
+
+        int next = 0;
+
+        for (Map.Entry<List<Object>, List<Integer>> group : groups.entrySet()) {
+            Class<?> table = (Class<?>) group.getKey().get(0);
+            boolean byPrimaryKey = (Boolean) group.getKey().get(1);
+            EntityMetadata metadata = reflector.getMetadata(table);
+            ColumnDefinition primary = metadata.getPrimary();
+            List<Integer> positions = group.getValue();
+            Map<String, ColumnDefinition> columnMap = byPrimaryKey ? metadata.getColumns() : metadata.getInsertableColumns();
+            String sql = statements.get(next++);
+
+            try (StatementCache.Lease lease = statementCache.prepare(connection, sql, Statement.NO_GENERATED_KEYS)) {
+                PreparedStatement statement = lease.getStatement();
+                int batchStart = 0;
+
+                for (int i = 0; i < positions.size(); i++) {
+                    Object entity = entityList.get(positions.get(i));
+                    int index = 1;
+
+                    for (Map.Entry<String, ColumnDefinition> entry : columnMap.entrySet()) {
+                        statement.setObject(index++, entry.getValue().getField().get(entity));
+                    }
+
+                    statement.addBatch();
+
+                    if (i + 1 - batchStart == batchSize || i + 1 == positions.size()) {
+                        int[] counts;
+
+                        try {
+                            counts = statement.executeBatch();
+                        } catch (SQLException e) {
+                            throw translate(e);
+                        }
+
+                        for (int j = 0; j < counts.length; j++) {
+                            results[positions.get(batchStart + j)] = counts[j];
+                        }
+
+                        batchStart = i + 1;
+                    }
+                }
+            } finally {
+                if (byPrimaryKey) {
+                    for (Integer position : positions) {
+                        invalidate(table, primary.getField().get(entityList.get(position)));
+                    }
+                } else {
+                    invalidateAll(table);
+                }
+            }
+
+            if (dirtyTracking) {
+                for (Integer position : positions) {
+                    snapshots.record(entityList.get(position), metadata);
+                }
+            }
+        }
+
+        return results;
+    }
+
+    public void delete(Class<?> table, Object primaryKey) throws NoAnnotationException, IllegalOperationException, SQLException, NoSuchColumnException {
+        Connection connection = acquire();
+
+        try {
+            delete(connection, table, primaryKey);
+            commit(connection);
+        } finally {
+            release(connection);
+        }
+    }
+
+    private void delete(Connection connection, Class<?> table, Object primaryKey) throws NoAnnotationException, IllegalOperationException, SQLException, NoSuchColumnException {
+        verificator.verifyPermission(table, WritePermission.DELETE);
+        
+        String tableName = reflector.getTableName(table);
+        Expression[] expressions = new Expression[] { new Expression(reflector.getPrimaryColumn(table).getAnnotation(Column.class).name(), primaryKey) };
+        
+        String sql = deleteQuery(tableName, expressions);
+        
+        try (StatementCache.Lease lease = statementCache.prepare(connection, sql, Statement.NO_GENERATED_KEYS)) {
+            PreparedStatement statement = lease.getStatement();
+            bind(statement, 1, expressions);
+
+            statement.executeUpdate();
+        } finally {
+            invalidate(table, primaryKey);
+        }
+    }
+    
+    public void delete(Class<?> table, Modifier modifier) throws NoAnnotationException, IllegalOperationException, SQLException, NoSuchColumnException {
+        Connection connection = acquire();
+
+        try {
+            delete(connection, table, modifier.getExpressions());
+            commit(connection);
+        } finally {
+            release(connection);
+        }
+    }
+
+    private int delete(Connection connection, Class<?> table, Expression[] expressions) throws NoAnnotationException, IllegalOperationException, SQLException, NoSuchColumnException {
+        verificator.verifyPermission(table, WritePermission.DELETE);
+        
+        String tableName = reflector.getTableName(table);
+        List<Expression[]> chunks = split(expressions, 0);
+
+        if (chunks != null) {
+            int count = 0;
+
+            for (Expression[] chunk : chunks) {
+                count += delete(connection, table, chunk);
+            }
+
+            return count;
+        }
+
+        verifyParameters(countParameters(expressions));
+        expressions = pad(expressions, 0);
+        
+        String sql = deleteQuery(tableName, expressions);
+        
+        try (StatementCache.Lease lease = statementCache.prepare(connection, sql, Statement.NO_GENERATED_KEYS)) {
+            PreparedStatement statement = lease.getStatement();
+            bind(statement, 1, expressions);
+
+            return statement.executeUpdate();
+        } finally {
+            invalidateAll(table);
+        }
+    }
+
+    /**
+     * Deletes the rows with the given primary keys using one IN query per chunk of keys that fits the engine's
+     * parameter limit.
+     *
+     * @param table The mapped class to delete from
+     * @param primaryKeys The primary keys of the rows to delete
+     * @return the number of deleted rows
+     * @throws NoAnnotationException if the class does not have the Table annotation
+     * @throws IllegalOperationException if the class does not permit deletes
+     * @throws SQLException if the delete fails
+     * @throws NoSuchColumnException if the class does not have a primary key
+     */
+    public int deleteAll(Class<?> table, Collection<?> primaryKeys) throws NoAnnotationException, IllegalOperationException, SQLException, NoSuchColumnException {
+        Set<Object> keys = new LinkedHashSet<>(primaryKeys);
+        keys.remove(null);
+
+        if (keys.isEmpty()) {
+            return 0;
+        }
+
+        String primaryColumn = reflector.getPrimaryColumn(table).getAnnotation(Column.class).name();
+        Connection connection = acquire();
+
+        try {
+            int result = delete(connection, table, new Expression[] { new Expression(primaryColumn, keys, Operator.IN) });
+            commit(connection);
+            return result;
+        } finally {
+            release(connection);
+        }
+    }
+
+    /**
+     * Deletes the rows matching the modifier's expressions in statements of at most the given number of rows, until
+     * a statement deletes fewer rows. Each statement is committed on its own, either by auto-commit or by the engine
+     * on pooled connections, so a large purge holds few locks at a time. Rendered with TOP on SQL Server, LIMIT on MySQL and a primary key
+     * subquery with LIMIT on PostgreSQL, SQLite and H2. Dialects without a limited delete select the primary keys of
+     * each chunk with a paged query first and delete them by key.
+     *
+     * @param table The mapped class to delete from
+     * @param modifier The expressions selecting the rows to delete
+     * @param chunkSize The maximum number of rows deleted per statement
+     * @return the number of deleted rows
+     * @throws NoAnnotationException if the class does not have the Table annotation
+     * @throws IllegalOperationException if the class does not permit deletes
+     * @throws SQLException if a delete fails
+     * @throws NoSuchColumnException if the class does not have a primary key
+     */
+    public int deleteInChunks(Class<?> table, Modifier modifier, int chunkSize) throws NoAnnotationException, IllegalOperationException, SQLException, NoSuchColumnException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+
+        verificator.verifyPermission(table, WritePermission.DELETE);
+
+        String tableName = reflector.getTableName(table);
+        String primaryColumn = reflector.getPrimaryColumn(table).getAnnotation(Column.class).name();
+        Expression[] expressions = modifier.getExpressions();
+
+        expressions = pad(expressions, 1);
+
+        if (!dialect.supportsLimitedDelete()) {
+            return deleteInChunksByKey(table, tableName, primaryColumn, expressions, chunkSize);
+        }
+
+        String sql = limitedDeleteQuery(tableName, primaryColumn, expressions);
+        int count = 0;
+        int deleted;
+
+        do {
+            Connection connection = acquire();
+
+            try (StatementCache.Lease lease = statementCache.prepare(connection, sql, Statement.NO_GENERATED_KEYS)) {
+                PreparedStatement statement = lease.getStatement();
+
+                if (dialect.isDeleteLimitFirst()) {
+                    statement.setInt(1, chunkSize);
+                    bind(statement, 2, expressions);
+                } else {
+                    statement.setInt(bind(statement, 1, expressions), chunkSize);
+                }
+
+                deleted = statement.executeUpdate();
+                commit(connection);
+            } finally {
+                release(connection);
+                invalidateAll(table);
+            }
+
+            count += deleted;
+        } while (deleted >= chunkSize);
+
+        return count;
+    }
+
+    private int deleteInChunksByKey(Class<?> table, String tableName, String primaryColumn, Expression[] expressions, int chunkSize) throws NoAnnotationException, IllegalOperationException, SQLException, NoSuchColumnException {
+        String sql = selectQuery(tableName, new String[] { primaryColumn }, expressions, NO_SORTS, NO_VALUES, true);
+        int count = 0;
+        List<Object> keys;
+
+        do {
+            keys = new ArrayList<>(chunkSize);
+            Connection connection = acquire();
+
+            try {
+                try (StatementCache.Lease lease = statementCache.prepare(connection, sql, Statement.NO_GENERATED_KEYS)) {
+                    PreparedStatement statement = lease.getStatement();
+                    bindPage(statement, bind(statement, 1, expressions), chunkSize, null);
+
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            keys.add(rs.getObject(1));
+                        }
+                    }
+                }
+
+                if (!keys.isEmpty()) {
+                    count += delete(connection, table, new Expression[] { new Expression(primaryColumn, keys, Operator.IN) });
+                    commit(connection);
+                }
+            } finally {
+                release(connection);
+            }
+        } while (keys.size() >= chunkSize);
+
+        return count;
+    }
+    
     public void delete(Object entity) throws NoSuchColumnException, IllegalAccessException, SQLException, NoAnnotationException, IllegalOperationException {
+        Connection connection = acquire();
+
+        try {
+            delete(connection, entity);
+            commit(connection);
+        } finally {
+            release(connection);
+        }
+    }
+
+    private void delete(Connection connection, Object entity) throws NoSuchColumnException, IllegalAccessException, SQLException, NoAnnotationException, IllegalOperationException {
         Class<?> table = entity.getClass();
         
         verificator.verifyPermission(table, WritePermission.DELETE);
@@ -363,16 +1847,629 @@ public final class DatabaseEngine {
         Field primaryField = reflector.getPrimaryColumn(table);
         Expression[] expressions = new Expression[] { new Expression(primaryField.getAnnotation(Column.class).name(), primaryField.get(entity)) };
         
-        builder.reset();
-        builder.delete(tableName).where(expressions);
+        String sql = deleteQuery(tableName, expressions);
         
-        try (PreparedStatement statement = connection.prepareStatement(builder.toString())) {
-            for (int i = 0; i < expressions.length; i++) {
-                statement.setObject(i + 1, expressions[i].getValue());
-            }
+        try (StatementCache.Lease lease = statementCache.prepare(connection, sql, Statement.NO_GENERATED_KEYS)) {
+            PreparedStatement statement = lease.getStatement();
+            bind(statement, 1, expressions);
 
             statement.executeUpdate();
+        } finally {
+            invalidate(table, primaryField.get(entity));
+        }
+
+        snapshots.forget(entity);
+    }
+
+    private void verifyUniqueness(Connection connection, Class<?> table, List<?> entities, Map<String, ColumnDefinition> columnMap, Field primaryField) throws IllegalAccessException, SQLException, NoAnnotationException, UniqueFieldViolationException {
+        Map<String, ColumnDefinition> uniqueMap = reflector.getUniqueMap(columnMap);
+
+        if (uniqueMap.isEmpty() || !uniquenessProbe) {
+            return;
+        }
+
+        String tableName = reflector.getTableName(table);
+        String[] uniqueColumns = reflector.toColumnArray(uniqueMap);
+        List<Map<Object, Object>> owners = new ArrayList<>(uniqueColumns.length);
+
+        for (ColumnDefinition column : uniqueMap.values()) {
+            Map<Object, Object> columnOwners = new LinkedHashMap<>();
+
+            for (Object entity : entities) {
+                Object value = column.getField().get(entity);
+
+                if (value != null) {
+                    Object owner = columnOwners.put(reflector.getKey(value), entity);
+
+                    if (owner != null && owner != entity) {
+                        throw new UniqueFieldViolationException("The unique value " + value + " is duplicated");
+                    }
+                }
+            }
+
+            owners.add(columnOwners);
+        }
+
+        String[] probeColumns = uniqueColumns;
+
+        if (primaryField != null && primaryField.getAnnotation(Column.class) == null) {
+            // Without a mapped primary key column, no existing row can be told apart from the written entity
+            primaryField = null;
+        }
+
+        if (primaryField != null) {
+            probeColumns = new String[uniqueColumns.length + 1];
+            probeColumns[0] = primaryField.getAnnotation(Column.class).name();
+            System.arraycopy(uniqueColumns, 0, probeColumns, 1, uniqueColumns.length);
+        }
+
+        int limit = dialect.getMaxParameters();
+        List<Expression> expressions = new ArrayList<>();
+        int parameters = 0;
+
+        for (int i = 0; i < uniqueColumns.length; i++) {
+            List<Object> values = new ArrayList<>(owners.get(i).keySet());
+
+            for (int from = 0; from < values.size(); from += limit) {
+                List<Object> chunk = values.subList(from, Math.min(values.size(), from + limit));
+
+                if (parameters + chunk.size() > limit) {
+                    probeUniqueness(connection, tableName, probeColumns, expressions, owners, primaryField);
+                    expressions.clear();
+                    parameters = 0;
+                }
+
+                expressions.add(new Expression(uniqueColumns[i], chunk, Operator.IN, Conjunction.OR));
+                parameters += chunk.size();
+            }
+        }
+
+        if (!expressions.isEmpty()) {
+            probeUniqueness(connection, tableName, probeColumns, expressions, owners, primaryField);
+        }
+    }
+
+    private void probeUniqueness(Connection connection, String tableName, String[] probeColumns, List<Expression> expressions, List<Map<Object, Object>> owners, Field primaryField) throws IllegalAccessException, SQLException, UniqueFieldViolationException {
+        Expression[] probe = pad(expressions.toArray(new Expression[expressions.size()]), 0);
+        int offset = primaryField != null ? 1 : 0;
+
+        String sql = selectQuery(tableName, probeColumns, probe, NO_SORTS);
+
+        try (StatementCache.Lease lease = statementCache.prepare(connection, sql, Statement.NO_GENERATED_KEYS)) {
+            PreparedStatement statement = lease.getStatement();
+            bind(statement, 1, probe);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Object rowKey = primaryField != null ? reflector.getKey(rs.getObject(1)) : null;
+                    Object firstValue = null;
+
+                    for (int i = 0; i < owners.size(); i++) {
+                        Object value = rs.getObject(i + 1 + offset);
+                        // A row matched only through the database's collation is left to the unique constraint
+                        Object owner = value != null ? owners.get(i).get(reflector.getKey(value)) : null;
+
+                        if (owner != null && (primaryField == null || !Objects.equals(rowKey, reflector.getKey(primaryField.get(owner))))) {
+                            throw new UniqueFieldViolationException("The unique value " + value + " already exists");
+                        }
+
+                        firstValue = firstValue != null ? firstValue : value;
+                    }
+
+                    if (primaryField == null) {
+                        throw new UniqueFieldViolationException("The unique value " + firstValue + " already exists");
+                    }
+                }
+            }
+        }
+    }
+
+    private SQLException translate(SQLException exception) throws UniqueFieldViolationException {
+        if (verificator.isUniqueViolation(exception)) {
+            throw new UniqueFieldViolationException("A unique constraint was violated: " + exception.getMessage(), exception);
+        }
+
+        return exception;
+    }
+
+    private boolean isCacheable(EntityMetadata metadata, String[] columns) {
+        return metadata.getCached() != null && metadata.getPrimary() != null && columns.length == 0;
+    }
+
+    /**
+     * Returns the primary key a get is looking for, or null if the modifier selects rows by anything else.
+     */
+    private Object getCacheKey(EntityMetadata metadata, Modifier modifier) {
+        Expression[] expressions = modifier.getExpressions();
+
+        if (expressions.length != 1 || modifier.getSeek().length > 0 || (modifier.getOffset() != null && modifier.getOffset() > 0)) {
+            return null;
+        }
+
+        Expression expression = expressions[0];
+
+        if (expression.getOperator() != Operator.EQUAL || expression.getValue() == null || !metadata.getPrimary().getColumn().name().equalsIgnoreCase(expression.getKey())) {
+            return null;
+        }
+
+        return expression.getValue();
+    }
+
+    private void invalidate(Class<?> table, Object primaryKey) {
+        EntityMetadata metadata = reflector.getMetadata(table);
+        queryCache.invalidate(table);
+
+        if (metadata.getCached() != null) {
+            entityCache.invalidate(metadata, primaryKey);
+        }
+    }
+
+    private void invalidateAll(Class<?> table) {
+        EntityMetadata metadata = reflector.getMetadata(table);
+        queryCache.invalidate(table);
+
+        if (metadata.getCached() != null) {
+            entityCache.invalidateAll(metadata);
+        }
+    }
+
+    /**
+     * Loads the given references of the results. With a parallelism above one and a pool, helper tasks borrow free
+     * connections without waiting and share the references with the caller, which claims whatever is left, so the
+     * caller never waits for a reference nobody has started and nested parallel loads can not starve each other.
+     */
+    private void loadReferences(Connection connection, List<?> results, FieldReference[] fieldReferences, int parallelism) throws SQLException, NoAnnotationException, ClassNotFoundException, IllegalAccessException, InstantiationException {
+        if (parallelism < 2 || pool == null || fieldReferences.length < 2) {
+            for (FieldReference fieldReference : fieldReferences) {
+                loadReference(connection, results, fieldReference);
+            }
+
+            return;
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(fieldReferences.length);
+        ExecutorService executor = getReferenceExecutor();
+
+        for (int i = 1; i < Math.min(parallelism, fieldReferences.length); i++) {
+            executor.execute(() -> {
+                Connection helper;
+
+                try {
+                    helper = pool.tryAcquire();
+                } catch (SQLException e) {
+                    return;
+                }
+
+                if (helper != null) {
+                    try {
+                        loadReferences(helper, results, fieldReferences, next, failure, done);
+                    } finally {
+                        release(helper);
+                    }
+                }
+            });
+        }
+
+        loadReferences(connection, results, fieldReferences, next, failure, done);
+
+        boolean interrupted = false;
+
+        while (true) {
+            try {
+                done.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        Throwable cause = failure.get();
+
+        if (cause instanceof SQLException) {
+            throw (SQLException) cause;
+        } else if (cause instanceof NoAnnotationException) {
+            throw (NoAnnotationException) cause;
+        } else if (cause instanceof ClassNotFoundException) {
+            throw (ClassNotFoundException) cause;
+        } else if (cause instanceof IllegalAccessException) {
+            throw (IllegalAccessException) cause;
+        } else if (cause instanceof InstantiationException) {
+            throw (InstantiationException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+    }
+
+    private void loadReferences(Connection connection, List<?> results, FieldReference[] fieldReferences, AtomicInteger next, AtomicReference<Throwable> failure, CountDownLatch done) {
+        int index;
+
+        while ((index = next.getAndIncrement()) < fieldReferences.length) {
+            try {
+                if (failure.get() == null) {
+                    loadReference(connection, results, fieldReferences[index]);
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                done.countDown();
+            }
+        }
+    }
+
+    private ExecutorService getReferenceExecutor() {
+        ExecutorService executor = referenceExecutor;
+
+        if (executor == null) {
+            synchronized (this) {
+                executor = referenceExecutor;
+
+                if (executor == null) {
+                    executor = TaskExecutors.newDefaultExecutor("periscope-references", pool.getMaximumSize());
+                    referenceExecutor = executor;
+                }
+            }
+        }
+
+        return executor;
+    }
+
+    private void loadReference(Connection connection, List<?> results, FieldReference fieldReference) throws SQLException, NoAnnotationException, ClassNotFoundException, IllegalAccessException, InstantiationException {
+        Field sourceField = fieldReference.getSourceField();
+        Modifier modifier = fieldReference.getModifier();
+        String referColumn = fieldReference.getReferColumn();
+        Field referField = reflector.getColumns(fieldReference.getTargetClass()).get(referColumn).getField();
+        Map<Object, List<Object>> children = new HashMap<>();
+        Set<Object> keys = new LinkedHashSet<>();
+
+        for (Object result : results) {
+            Object key = sourceField.get(result);
+
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+
+        String[] columns = modifier.getColumns();
+
+        if (columns.length > 0 && !Arrays.asList(columns).contains(referColumn)) {
+            columns = Arrays.copyOf(columns, columns.length + 1);
+            columns[columns.length - 1] = referColumn;
+        }
+
+        List<Object> values = new ArrayList<>(keys);
+        int chunkSize = Math.max(1, dialect.getMaxParameters() - countParameters(modifier.getExpressions()));
+
+        for (int from = 0; from < values.size(); from += chunkSize) {
+            Expression[] expressions = new Expression[modifier.getExpressions().length + 1];
+            expressions[0] = new Expression(referColumn, values.subList(from, Math.min(values.size(), from + chunkSize)), Operator.IN);
+            System.arraycopy(modifier.getExpressions(), 0, expressions, 1, modifier.getExpressions().length);
+
+            Modifier chunkModifier = new Modifier().mark(columns).express(expressions).sort(modifier.getSorts()).seek(modifier.getSeek()).include(modifier.getReferences()).parallel(modifier.getParallelism());
+
+            for (Object child : list(connection, fieldReference.getTargetClass(), chunkModifier)) {
+                Object key = reflector.getKey(referField.get(child));
+                List<Object> group = children.get(key);
+
+                if (group == null) {
+                    group = new ArrayList<>();
+                    children.put(key, group);
+                }
+
+                group.add(child);
+            }
+        }
+
+        for (Object result : results) {
+            List<Object> group = page(children.get(reflector.getKey(sourceField.get(result))), modifier);
+
+            switch (fieldReference.getRelation()) {
+                case TO_MANY:
+                    fieldReference.getTargetField().set(result, group != null ? new ArrayList<>(group) : new ArrayList<>());
+                    break;
+                case TO_ONE:
+                    fieldReference.getTargetField().set(result, group != null && !group.isEmpty() ? group.get(0) : null);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Applies the limit and offset of a reference modifier to the children of
+     * one parent, since the batched query loads the children of many parents
+     * at once and can not limit them in SQL.
+     */
+    private List<Object> page(List<Object> group, Modifier modifier) {
+        if (group == null || !modifier.isPaged()) {
+            return group;
+        }
+
+        int from = Math.min(group.size(), modifier.getOffset() != null ? modifier.getOffset() : 0);
+        int to = modifier.getLimit() != null ? (int) Math.min(group.size(), (long) from + modifier.getLimit()) : group.size();
+
+        return group.subList(from, to);
+    }
+
+    private String selectQuery(String tableName, String[] columns, Expression[] expressions, Sort[] sorts) {
+        return selectQuery(tableName, columns, expressions, sorts, NO_VALUES, false);
+    }
+
+    private String selectQuery(String tableName, String[] columns, Expression[] expressions, Sort[] sorts, Object[] seek, boolean paged) {
+        if (seek.length > sorts.length) {
+            throw new IllegalArgumentException("Seek values require a sort directive for each value");
+        }
+
+        Sort[] seekSorts = seek.length > 0 ? Arrays.copyOf(sorts, seek.length) : NO_SORTS;
+
+        return sqlCache.get(new QueryShape(QueryShape.Kind.SELECT, null, dialect, tableName, columns, expressions, sorts, seek.length, paged), () -> {
+            QueryBuilder builder = new QueryBuilder(dialect).select(tableName, columns).where(expressions, seekSorts).orderBy(sorts);
+            return (paged ? builder.page(sorts.length > 0) : builder).toString();
+        });
+    }
+
+    private String functionQuery(String tableName, String[] columns, Function function, Expression[] expressions) {
+        return sqlCache.get(new QueryShape(QueryShape.Kind.FUNCTION, function, dialect, tableName, columns, expressions, NO_SORTS), () -> {
+            return new QueryBuilder(dialect).function(tableName, columns, function).where(expressions).toString();
+        });
+    }
+
+    private String insertQuery(String tableName, String[] columns) {
+        return insertQuery(tableName, columns, 1);
+    }
+
+    private String insertQuery(String tableName, String[] columns, int rows) {
+        return sqlCache.get(new QueryShape(QueryShape.Kind.INSERT, rows > 1 ? rows : null, dialect, tableName, columns, NO_EXPRESSIONS, NO_SORTS), () -> {
+            return new QueryBuilder(dialect).insert(tableName, columns, rows).toString();
+        });
+    }
+
+    private String updateQuery(String tableName, String[] columns, Expression[] expressions) {
+        return sqlCache.get(new QueryShape(QueryShape.Kind.UPDATE, null, dialect, tableName, columns, expressions, NO_SORTS), () -> {
+            return new QueryBuilder(dialect).update(tableName, columns).where(expressions).toString();
+        });
+    }
+
+    private String updateQuery(String tableName, String[] columns, Arithmetic[] arithmetics, Expression[] expressions) {
+        return sqlCache.get(new QueryShape(QueryShape.Kind.UPDATE, Arrays.asList(arithmetics), dialect, tableName, columns, expressions, NO_SORTS), () -> {
+            return new QueryBuilder(dialect).update(tableName, columns, arithmetics).where(expressions).toString();
+        });
+    }
+
+    private String upsertQuery(String tableName, String[] columns, String[] keys, String[] updates, String[] inserts) {
+        return sqlCache.get(new QueryShape(QueryShape.Kind.UPSERT, Arrays.asList(Arrays.asList(keys), Arrays.asList(updates), Arrays.asList(inserts)), dialect, tableName, columns, NO_EXPRESSIONS, NO_SORTS), () -> {
+            return new QueryBuilder(dialect).upsert(tableName, columns, keys, updates, inserts).toString();
+        });
+    }
+
+    private String deleteQuery(String tableName, Expression[] expressions) {
+        return sqlCache.get(new QueryShape(QueryShape.Kind.DELETE, null, dialect, tableName, NO_COLUMNS, expressions, NO_SORTS), () -> {
+            return new QueryBuilder(dialect).delete(tableName).where(expressions).toString();
+        });
+    }
+
+    private String limitedDeleteQuery(String tableName, String primaryColumn, Expression[] expressions) throws SQLFeatureNotSupportedException {
+        QueryShape shape = new QueryShape(QueryShape.Kind.DELETE, primaryColumn, dialect, tableName, NO_COLUMNS, expressions, NO_SORTS);
+        String sql = sqlCache.get(shape);
+
+        if (sql == null) {
+            sql = new QueryBuilder(dialect).delete(tableName, primaryColumn, expressions).toString();
+            sqlCache.put(shape, sql);
+        }
+
+        return sql;
+    }
+
+    private Connection acquire() throws SQLException {
+        return pool != null ? pool.acquire() : connection;
+    }
+
+    /**
+     * Commits the work of a write on a pooled connection that does not auto-commit. Connections passed to the
+     * engine are left to the caller, who owns their transaction.
+     */
+    private void commit(Connection connection) throws SQLException {
+        if (pool != null && !connection.getAutoCommit()) {
+            connection.commit();
+        }
+    }
+
+    /**
+     * Returns a pooled connection. Successful writes have been committed by then, so a transaction still open on a
+     * connection that does not auto-commit only holds reads or the work of a failed write, which is rolled back. A
+     * connection that can not be rolled back is closed, so the pool drops it.
+     */
+    private void release(Connection connection) {
+        if (pool != null) {
+            try {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                }
+            } catch (SQLException e) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                    // The pool drops the connection either way
+                }
+            }
+
+            pool.release(connection);
+        }
+    }
+
+    private int bind(PreparedStatement statement, int index, Expression[] expressions) throws SQLException {
+        for (Expression expression : expressions) {
+            switch (expression.getOperator()) {
+                case IN:
+                case NOT_IN:
+                case BETWEEN:
+                    for (Object value : expression.getValues()) {
+                        statement.setObject(index++, value);
+                    }
+                    break;
+                default:
+                    statement.setObject(index++, expression.getValue());
+                    break;
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * Pads the value lists of IN and NOT IN expressions to the next power of
+     * two by repeating their last value, which does not change the matched
+     * rows. Lists of similar length then share one SQL text and prepared
+     * statement instead of one per length. Padding stops at the engine's
+     * parameter limit.
+     *
+     * @param reserved The number of other parameters the statement binds
+     * @return the padded expressions, or the given ones if none was padded
+     */
+    private Expression[] pad(Expression[] expressions, int reserved) {
+        int available = dialect.getMaxParameters() - reserved - countParameters(expressions);
+        Expression[] padded = expressions;
+
+        for (int i = 0; i < expressions.length && available > 0; i++) {
+            Expression expression = expressions[i];
+            int count = expression.getParameterCount();
+
+            if ((expression.getOperator() != Operator.IN && expression.getOperator() != Operator.NOT_IN) || count < 3) {
+                continue;
+            }
+
+            int extra = Math.min(available, (Integer.highestOneBit(count - 1) << 1) - count);
+
+            if (extra > 0) {
+                List<Object> values = new ArrayList<>(count + extra);
+                values.addAll(expression.getValues());
+                values.addAll(Collections.nCopies(extra, values.get(count - 1)));
+
+                if (padded == expressions) {
+                    padded = expressions.clone();
+                }
+
+                padded[i] = new Expression(expression.getKey(), values, expression.getOperator(), expression.getConjunction());
+                available -= extra;
+            }
+        }
+
+        return padded;
+    }
+
+    /**
+     * Splits the largest IN expression so that every resulting set of
+     * expressions fits the engine's parameter limit. The union of the sets
+     * matches the same rows as the original expressions, which only holds
+     * when they are all combined with AND.
+     *
+     * @param reserved The number of parameters the statement binds before
+     * the expressions
+     * @return the split sets of expressions, or null if the expressions fit
+     * or can not be split
+     */
+    private List<Expression[]> split(Expression[] expressions, int reserved) {
+        int total = reserved + countParameters(expressions);
+
+        if (total <= dialect.getMaxParameters()) {
+            return null;
+        }
+
+        int largest = -1;
+
+        for (int i = 0; i < expressions.length; i++) {
+            if (i + 1 < expressions.length && expressions[i].getConjunction() != Conjunction.AND) {
+                return null;
+            }
+
+            if (expressions[i].getOperator() == Operator.IN && (largest < 0 || expressions[i].getParameterCount() > expressions[largest].getParameterCount())) {
+                largest = i;
+            }
+        }
+
+        if (largest < 0) {
+            return null;
+        }
+
+        Expression expression = expressions[largest];
+        List<Object> values = new ArrayList<>(new LinkedHashSet<>(expression.getValues()));
+        int chunkSize = dialect.getMaxParameters() - (total - expression.getParameterCount());
+
+        if (chunkSize < 1) {
+            return null;
+        }
+
+        List<Expression[]> chunks = new ArrayList<>();
+
+        for (int from = 0; from < values.size(); from += chunkSize) {
+            Expression[] chunk = expressions.clone();
+            chunk[largest] = new Expression(expression.getKey(), values.subList(from, Math.min(values.size(), from + chunkSize)), Operator.IN, expression.getConjunction());
+            chunks.add(chunk);
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Binds the values of a keyset condition in the order rendered by
+     * {@link QueryBuilder#where(Expression[], Sort[])}, where the n-th term
+     * repeats the first n - 1 values as equalities before its comparison.
+     */
+    private int bindSeek(PreparedStatement statement, int index, Object[] seek) throws SQLException {
+        for (int i = 0; i < seek.length; i++) {
+            for (int j = 0; j <= i; j++) {
+                statement.setObject(index++, seek[j]);
+            }
+        }
+
+        return index;
+    }
+
+    private int bindPage(PreparedStatement statement, int index, Integer limit, Integer offset) throws SQLException {
+        int rows = limit != null ? limit : Integer.MAX_VALUE;
+        int skipped = offset != null ? offset : 0;
+
+        if (dialect.isLimitFirst()) {
+            statement.setInt(index++, rows);
+            statement.setInt(index++, skipped);
+        } else {
+            statement.setInt(index++, skipped);
+            statement.setInt(index++, rows);
+        }
+
+        return index;
+    }
+
+    private int countParameters(Expression[] expressions) {
+        int count = 0;
+
+        for (Expression expression : expressions) {
+            count += expression.getParameterCount();
+        }
+
+        return count;
+    }
+
+    private int countParameters(Object[] seek) {
+        return seek.length * (seek.length + 1) / 2;
+    }
+
+    /**
+     * Rejects a statement that binds more parameters than the engine
+     * accepts before it is sent, for expressions that {@link #split} can not
+     * divide into several statements.
+     */
+    private void verifyParameters(int count) throws SQLFeatureNotSupportedException {
+        if (count > dialect.getMaxParameters()) {
+            throw new SQLFeatureNotSupportedException("The statement binds " + count + " parameters but " + dialect.getName() + " accepts at most "
+                    + dialect.getMaxParameters() + ". Only unsorted expressions combined with AND can be split into several statements");
         }
     }
 
-}
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.annotation;
+
+import github.andriantony.periscope.constant.Eviction;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * This annotation is used to keep rows of a mapped table in the entity cache of each engine, keyed by primary key.
+ * Rows read by primary key are then served from memory until they are written through the engine, evicted, or
+ * expired. Writes made outside the engine are only seen once the cached row expires.
+ * 
+ * @author Andriantony
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Cached {
+    
+    /**
+     * The maximum number of cached rows.
+     * This element is 1000 by default.
+     * 
+     * @return the maximum number of cached rows
+     */
+    public int size() default 1000;
+    
+    /**
+     * The time after which a cached row expires, in milliseconds.
+     * This element is set to 0 by default, which keeps rows until they are written or evicted.
+     * 
+     * @return the time to live of a cached row in milliseconds
+     */
+    public long ttl() default 0;
+    
+    /**
+     * The policy choosing the row to drop when the cache is full.
+     * This element is {@link Eviction#LRU} by default.
+     * 
+     * @return the eviction policy
+     */
+    public Eviction eviction() default Eviction.LRU;
+    
+}
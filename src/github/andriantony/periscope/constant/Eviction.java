@@ -0,0 +1,46 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.constant;
+
+/**
+ * An enumeration of the eviction policies of the entity cache.
+ * 
+ * @author Andriantony
+ */
+public enum Eviction {
+    
+    /**
+     * Evicts the least recently used entry.
+     * Suited to workloads where recently read rows are likely to be read again.
+     */
+    LRU,
+    
+    /**
+     * Admits new entries through a small recency window and keeps an entry leaving the window only if it was read
+     * more often than the least recently used entry of the main area, as estimated by a frequency sketch.
+     * Suited to workloads with a stable set of hot rows mixed with scans of rows read once.
+     */
+    TINY_LFU
+    
+}
@@ -84,7 +84,25 @@ public enum Operator {
     /**
      * Represents the SQL "NOT LIKE" clause.
      */
-    NOT_LIKE("NOT LIKE");
+    NOT_LIKE("NOT LIKE"),
+    
+    /**
+     * Represents the SQL "IN" clause.
+     * The value of an expression using this operator must be a {@link java.util.Collection} or an array, which is expanded into one placeholder per element.
+     */
+    IN("IN"),
+    
+    /**
+     * Represents the SQL "NOT IN" clause.
+     * The value of an expression using this operator must be a {@link java.util.Collection} or an array, which is expanded into one placeholder per element.
+     */
+    NOT_IN("NOT IN"),
+    
+    /**
+     * Represents the SQL "BETWEEN" clause.
+     * The value of an expression using this operator must be a {@link java.util.Collection} or an array holding the lower and the upper bound.
+     */
+    BETWEEN("BETWEEN");
 
     private final String text;
 
@@ -28,6 +28,8 @@ import java.sql.Connection;
 /**
  * Specifies the type of connection is currently used by {@link Connection}.
  * Used to generate appropriate query based on the selected engine.
+ * Each engine maps to a built-in {@link github.andriantony.periscope.dialect.Dialect},
+ * which covers other products as well.
  *
  * @author Andriantony
  */
@@ -36,15 +38,31 @@ public enum SqlEngine {
     /**
      * Represents a SQL Server connection type.
      */
-    SQL_SERVER,
+    SQL_SERVER(2100),
     /**
      * Represents a MySQL connection type.
      */
-    MYSQL,
+    MYSQL(65535),
     /**
      * Represents the default type selected when the connection type can not be
      * recognized.
      */
-    UNKNOWN
+    UNKNOWN(999);
+
+    private final int maxParameters;
+
+    SqlEngine(final int maxParameters) {
+        this.maxParameters = maxParameters;
+    }
+
+    /**
+     * Returns the maximum number of bind parameters a single statement may
+     * contain.
+     *
+     * @return the maximum number of bind parameters per statement
+     */
+    public int getMaxParameters() {
+        return this.maxParameters;
+    }
 
 }
@@ -0,0 +1,172 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.dialect;
+
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * Describes how SQL is rendered for a database product and which of its fast paths can be used.
+ * <p>
+ * Implementations must be stateless and safe to share between threads. A dialect is looked up by the product name
+ * reported by the JDBC driver through {@link DialectRegistry}, where custom dialects can be registered as well.
+ * </p>
+ *
+ * @author Andriantony
+ */
+public interface Dialect {
+
+    /**
+     * Returns a short name of the dialect, used in messages only.
+     *
+     * @return the name of the dialect
+     */
+    String getName();
+
+    /**
+     * Returns whether this dialect renders SQL for the given product.
+     *
+     * @param productName The product name reported by {@link java.sql.DatabaseMetaData#getDatabaseProductName()}, in
+     * lower case
+     * @return true if this dialect handles the product
+     */
+    boolean accepts(String productName);
+
+    /**
+     * Quotes a column name, or returns it as is if quoting would change how the product resolves it.
+     *
+     * @param identifier The column name
+     * @return the identifier to render
+     */
+    String quote(String identifier);
+
+    /**
+     * Returns the maximum number of parameters a single statement may bind.
+     *
+     * @return the maximum number of bound parameters
+     */
+    int getMaxParameters();
+
+    /**
+     * Returns the maximum number of rows a single INSERT ... VALUES statement may hold.
+     *
+     * @return the maximum number of rows per insert, or 1 if multi-row inserts are not supported
+     */
+    int getMaxInsertRows();
+
+    /**
+     * Returns whether the driver returns one generated key per row after a batch is executed.
+     *
+     * @return true if generated keys of batched inserts can be read
+     */
+    boolean supportsBatchGeneratedKeys();
+
+    /**
+     * Returns whether the driver returns one generated key per row of a multi-row insert.
+     *
+     * @return true if generated keys of multi-row inserts can be read
+     */
+    boolean supportsMultiRowGeneratedKeys();
+
+    /**
+     * Returns whether a value may be inserted into an auto-generated primary key column.
+     *
+     * @return true if auto-generated keys can be inserted explicitly
+     */
+    boolean supportsIdentityInsert();
+
+    /**
+     * Returns whether the database is known to accept the clause appended by {@link #appendPage(StringBuilder, boolean)}.
+     * When it is not, the engine only pages queries whose caller set a limit, offset or seek, and reads a single row
+     * by fetching the first row of the unpaged query.
+     *
+     * @return true if queries can be paged whenever useful
+     */
+    boolean supportsPaging();
+
+    /**
+     * Returns whether the row limit is bound before the number of skipped rows in the clause appended by
+     * {@link #appendPage(StringBuilder, boolean)}.
+     *
+     * @return true if the row limit is bound first
+     */
+    boolean isLimitFirst();
+
+    /**
+     * Appends a row limiting clause binding the row limit and the number of skipped rows.
+     *
+     * @param query The query to append to, ending after the ORDER BY directive if any
+     * @param sorted Whether the query has an ORDER BY directive
+     */
+    void appendPage(StringBuilder query, boolean sorted);
+
+    /**
+     * Appends a statement inserting a row, or updating the existing row whose key columns match. Every column must
+     * be bound once, in the order of the provided columns.
+     *
+     * @param query The query to append to
+     * @param tableName The name of the target table
+     * @param columns The bound columns
+     * @param keys The columns identifying an existing row
+     * @param updates The columns written to an existing row
+     * @param inserts The columns written to a new row
+     */
+    void appendUpsert(StringBuilder query, String tableName, String[] columns, String[] keys, String[] updates, String[] inserts);
+
+    /**
+     * Returns whether {@link #appendUpsert(StringBuilder, String, String[], String[], String[], String[])} accepts
+     * several independently unique key columns. When it does not, the engine rejects such upserts before writing.
+     *
+     * @return true if a row can be matched by any of several unique columns
+     */
+    boolean supportsMultipleUpsertKeys();
+
+    /**
+     * Returns whether a single DELETE statement can be limited to a bound number of rows. When it can not, the engine
+     * selects the primary keys of a chunk first and deletes them by key.
+     *
+     * @return true if {@link #appendLimitedDelete(StringBuilder, String, String, String)} is supported
+     */
+    boolean supportsLimitedDelete();
+
+    /**
+     * Returns whether the row limit of the statement appended by
+     * {@link #appendLimitedDelete(StringBuilder, String, String, String)} is bound before the condition's parameters.
+     *
+     * @return true if the row limit is bound first
+     */
+    boolean isDeleteLimitFirst();
+
+    /**
+     * Appends a DELETE statement removing at most a bound number of the rows matching a condition. Only called if
+     * {@link #supportsLimitedDelete()} returns true.
+     *
+     * @param query The query to append to
+     * @param tableName The name of the table to delete from
+     * @param primaryColumn The primary key column of the table
+     * @param condition The rendered WHERE clause, or an empty string
+     * @throws SQLFeatureNotSupportedException if the dialect does not support limited deletes
+     */
+    void appendLimitedDelete(StringBuilder query, String tableName, String primaryColumn, String condition) throws SQLFeatureNotSupportedException;
+
+}
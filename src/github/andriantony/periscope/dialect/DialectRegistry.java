@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.dialect;
+
+import github.andriantony.periscope.constant.SqlEngine;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Resolves the {@link Dialect} of a database product by the product name reported by its JDBC driver.
+ * Registered dialects are consulted before the built-in ones, and products without a matching dialect get a
+ * {@link GenericDialect}.
+ *
+ * @author Andriantony
+ */
+public final class DialectRegistry {
+
+    private static final Dialect SQL_SERVER = new SqlServerDialect();
+    private static final Dialect MYSQL = new MySqlDialect();
+    private static final Dialect GENERIC = new GenericDialect();
+    private static final CopyOnWriteArrayList<Dialect> DIALECTS = new CopyOnWriteArrayList<>(Arrays.asList(SQL_SERVER, MYSQL, new PostgreSqlDialect(), new H2Dialect(), new SqliteDialect()));
+
+    private DialectRegistry() {
+    }
+
+    /**
+     * Registers a dialect ahead of every previously registered and built-in dialect.
+     *
+     * @param dialect The dialect to register
+     */
+    public static void register(Dialect dialect) {
+        DIALECTS.add(0, dialect);
+    }
+
+    /**
+     * Returns the dialect of the given product.
+     *
+     * @param productName The product name reported by {@link java.sql.DatabaseMetaData#getDatabaseProductName()}
+     * @return the first registered dialect accepting the product, or the generic dialect
+     */
+    public static Dialect forProductName(String productName) {
+        String name = productName != null ? productName.toLowerCase(Locale.ROOT) : "";
+
+        for (Dialect dialect : DIALECTS) {
+            if (dialect.accepts(name)) {
+                return dialect;
+            }
+        }
+
+        return GENERIC;
+    }
+
+    /**
+     * Returns the built-in dialect of the given engine.
+     *
+     * @param engine The engine
+     * @return the dialect of the engine, or the generic dialect for {@link SqlEngine#UNKNOWN}
+     */
+    public static Dialect forEngine(SqlEngine engine) {
+        switch (engine) {
+            case SQL_SERVER:
+                return SQL_SERVER;
+            case MYSQL:
+                return MYSQL;
+            default:
+                return GENERIC;
+        }
+    }
+
+}
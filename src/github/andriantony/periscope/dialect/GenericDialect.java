@@ -0,0 +1,70 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.dialect;
+
+/**
+ * The dialect used for products without a registered dialect. It renders standard SQL without quoting, binds at most
+ * 999 parameters per statement, pages only when asked to, does not pack rows into multi-row inserts and deletes chunks
+ * by selected keys.
+ *
+ * @author Andriantony
+ */
+public class GenericDialect extends StandardDialect {
+
+    @Override
+    public String getName() {
+        return "Generic";
+    }
+
+    @Override
+    public boolean accepts(String productName) {
+        return true;
+    }
+
+    @Override
+    public String quote(String identifier) {
+        return identifier;
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 999;
+    }
+
+    @Override
+    public boolean supportsPaging() {
+        return false;
+    }
+
+    @Override
+    public int getMaxInsertRows() {
+        return 1;
+    }
+
+    @Override
+    public boolean supportsMultiRowGeneratedKeys() {
+        return false;
+    }
+
+}
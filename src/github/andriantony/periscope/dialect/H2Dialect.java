@@ -0,0 +1,64 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.dialect;
+
+/**
+ * The dialect of the H2 database engine. Column names are not quoted, since quoted identifiers are case-sensitive in
+ * H2 while unquoted ones are folded to upper case.
+ *
+ * @author Andriantony
+ */
+public class H2Dialect extends StandardDialect {
+
+    @Override
+    public String getName() {
+        return "H2";
+    }
+
+    @Override
+    public boolean accepts(String productName) {
+        return productName.equals("h2");
+    }
+
+    @Override
+    public String quote(String identifier) {
+        return identifier;
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 32767;
+    }
+
+    @Override
+    public boolean supportsLimitedDelete() {
+        return true;
+    }
+
+    @Override
+    public void appendLimitedDelete(StringBuilder query, String tableName, String primaryColumn, String condition) {
+        appendSubqueryLimitedDelete(query, tableName, primaryColumn, condition);
+    }
+
+}
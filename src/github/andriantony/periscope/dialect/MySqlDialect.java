@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.dialect;
+
+/**
+ * The dialect of MySQL and MariaDB.
+ *
+ * @author Andriantony
+ */
+public class MySqlDialect extends StandardDialect {
+
+    @Override
+    public String getName() {
+        return "MySQL";
+    }
+
+    @Override
+    public boolean accepts(String productName) {
+        return productName.contains("mysql") || productName.contains("mariadb");
+    }
+
+    @Override
+    public String quote(String identifier) {
+        return '`' + identifier + '`';
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 65535;
+    }
+
+    @Override
+    public boolean isLimitFirst() {
+        return true;
+    }
+
+    @Override
+    public void appendPage(StringBuilder query, boolean sorted) {
+        query.append("LIMIT ? OFFSET ? ");
+    }
+
+    /**
+     * Renders INSERT ... ON DUPLICATE KEY UPDATE, where a conflict on any unique key of the table updates the row.
+     */
+    @Override
+    public void appendUpsert(StringBuilder query, String tableName, String[] columns, String[] keys, String[] updates, String[] inserts) {
+        appendInsert(query, tableName, columns);
+        query.append("ON DUPLICATE KEY UPDATE ");
+
+        // Assigning a key to itself turns a conflict into a no-op when there is nothing to update
+        String[] assigned = updates.length > 0 ? updates : new String[] { keys[0] };
+
+        for (int i = 0; i < assigned.length; i++) {
+            query.append(quote(assigned[i])).append(" = VALUES(").append(quote(assigned[i])).append(')');
+            query.append(i + 1 < assigned.length ? ", " : " ");
+        }
+    }
+
+    @Override
+    public boolean supportsLimitedDelete() {
+        return true;
+    }
+
+    @Override
+    public void appendLimitedDelete(StringBuilder query, String tableName, String primaryColumn, String condition) {
+        query.append("DELETE FROM ").append(tableName).append(' ').append(condition).append("LIMIT ? ");
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.dialect;
+
+/**
+ * The dialect of PostgreSQL 9.5 or later. Column names are not quoted, since quoted identifiers are case-sensitive in
+ * PostgreSQL while unquoted ones are folded to lower case.
+ *
+ * @author Andriantony
+ */
+public class PostgreSqlDialect extends StandardDialect {
+
+    @Override
+    public String getName() {
+        return "PostgreSQL";
+    }
+
+    @Override
+    public boolean accepts(String productName) {
+        return productName.contains("postgresql");
+    }
+
+    @Override
+    public String quote(String identifier) {
+        return identifier;
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 32767;
+    }
+
+    @Override
+    public boolean isLimitFirst() {
+        return true;
+    }
+
+    @Override
+    public void appendPage(StringBuilder query, boolean sorted) {
+        query.append("LIMIT ? OFFSET ? ");
+    }
+
+    /**
+     * Renders INSERT ... ON CONFLICT on the key columns, which requires PostgreSQL 9.5. The key columns must be
+     * covered by exactly one unique constraint or index; several independently unique columns are rejected by
+     * the engine, since a conflict target can only name one of them.
+     */
+    @Override
+    public void appendUpsert(StringBuilder query, String tableName, String[] columns, String[] keys, String[] updates, String[] inserts) {
+        appendInsert(query, tableName, columns);
+        query.append("ON CONFLICT (");
+        appendColumns(query, "", keys);
+        query.append(") ");
+        appendConflictUpdate(query, updates);
+    }
+
+    @Override
+    public boolean supportsMultipleUpsertKeys() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsLimitedDelete() {
+        return true;
+    }
+
+    @Override
+    public void appendLimitedDelete(StringBuilder query, String tableName, String primaryColumn, String condition) {
+        appendSubqueryLimitedDelete(query, tableName, primaryColumn, condition);
+    }
+
+    /**
+     * Appends the action of an ON CONFLICT clause.
+     *
+     * @param query The query to append to
+     * @param updates The columns written to the existing row
+     */
+    protected void appendConflictUpdate(StringBuilder query, String[] updates) {
+        if (updates.length == 0) {
+            query.append("DO NOTHING ");
+            return;
+        }
+
+        query.append("DO UPDATE SET ");
+
+        for (int i = 0; i < updates.length; i++) {
+            query.append(quote(updates[i])).append(" = excluded.").append(quote(updates[i]));
+            query.append(i + 1 < updates.length ? ", " : " ");
+        }
+    }
+
+}
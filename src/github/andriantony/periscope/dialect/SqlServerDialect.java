@@ -0,0 +1,110 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.dialect;
+
+/**
+ * The dialect of Microsoft SQL Server.
+ *
+ * @author Andriantony
+ */
+public class SqlServerDialect extends StandardDialect {
+
+    @Override
+    public String getName() {
+        return "SQL Server";
+    }
+
+    @Override
+    public boolean accepts(String productName) {
+        return productName.contains("microsoft sql server");
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 2100;
+    }
+
+    @Override
+    public int getMaxInsertRows() {
+        return 1000;
+    }
+
+    @Override
+    public boolean supportsBatchGeneratedKeys() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsMultiRowGeneratedKeys() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsIdentityInsert() {
+        return false;
+    }
+
+    @Override
+    public void appendPage(StringBuilder query, boolean sorted) {
+        // SQL Server only accepts OFFSET after an ORDER BY directive
+        if (!sorted) {
+            query.append("ORDER BY (SELECT NULL) ");
+        }
+
+        super.appendPage(query, sorted);
+    }
+
+    @Override
+    public void appendUpsert(StringBuilder query, String tableName, String[] columns, String[] keys, String[] updates, String[] inserts) {
+        super.appendUpsert(query, tableName, columns, keys, updates, inserts);
+
+        // SQL Server requires MERGE to be terminated
+        query.setCharAt(query.length() - 1, ';');
+    }
+
+    /**
+     * Appends the target with HOLDLOCK, since SQL Server does not lock the missing key range between the match and
+     * the insert, so concurrent upserts of the same new key could otherwise both insert it.
+     */
+    @Override
+    protected void appendMergeTarget(StringBuilder query, String tableName) {
+        query.append(tableName).append(" WITH (HOLDLOCK)");
+    }
+
+    @Override
+    public boolean supportsLimitedDelete() {
+        return true;
+    }
+
+    @Override
+    public boolean isDeleteLimitFirst() {
+        return true;
+    }
+
+    @Override
+    public void appendLimitedDelete(StringBuilder query, String tableName, String primaryColumn, String condition) {
+        query.append("DELETE TOP (?) FROM ").append(tableName).append(' ').append(condition);
+    }
+
+}
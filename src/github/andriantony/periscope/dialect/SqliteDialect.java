@@ -0,0 +1,87 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.dialect;
+
+/**
+ * The dialect of SQLite.
+ *
+ * @author Andriantony
+ */
+public class SqliteDialect extends PostgreSqlDialect {
+
+    @Override
+    public String getName() {
+        return "SQLite";
+    }
+
+    @Override
+    public boolean accepts(String productName) {
+        return productName.contains("sqlite");
+    }
+
+    @Override
+    public String quote(String identifier) {
+        return '"' + identifier + '"';
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 999;
+    }
+
+    @Override
+    public int getMaxInsertRows() {
+        return 500;
+    }
+
+    @Override
+    public boolean supportsBatchGeneratedKeys() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsMultiRowGeneratedKeys() {
+        return false;
+    }
+
+    /**
+     * Renders INSERT ... ON CONFLICT with one clause per key column, since SQLite has no MERGE. A single key requires
+     * SQLite 3.24, and several clauses require SQLite 3.35.
+     */
+    @Override
+    public void appendUpsert(StringBuilder query, String tableName, String[] columns, String[] keys, String[] updates, String[] inserts) {
+        appendInsert(query, tableName, columns);
+
+        for (String key : keys) {
+            query.append("ON CONFLICT (").append(quote(key)).append(") ");
+            appendConflictUpdate(query, updates);
+        }
+    }
+
+    @Override
+    public boolean supportsMultipleUpsertKeys() {
+        return true;
+    }
+
+}
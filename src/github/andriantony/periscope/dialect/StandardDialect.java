@@ -0,0 +1,194 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.dialect;
+
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * A dialect rendering standard SQL: SQL:2008 OFFSET ... FETCH paging and MERGE upserts. Limited deletes have no
+ * standard form, so they are left to the products supporting one. Products deviating from it override the affected
+ * methods.
+ *
+ * @author Andriantony
+ */
+public abstract class StandardDialect implements Dialect {
+
+    @Override
+    public String quote(String identifier) {
+        return '"' + identifier + '"';
+    }
+
+    @Override
+    public int getMaxInsertRows() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean supportsBatchGeneratedKeys() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsMultiRowGeneratedKeys() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsIdentityInsert() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsPaging() {
+        return true;
+    }
+
+    @Override
+    public boolean isLimitFirst() {
+        return false;
+    }
+
+    @Override
+    public void appendPage(StringBuilder query, boolean sorted) {
+        query.append("OFFSET ? ROWS FETCH NEXT ? ROWS ONLY ");
+    }
+
+    @Override
+    public void appendUpsert(StringBuilder query, String tableName, String[] columns, String[] keys, String[] updates, String[] inserts) {
+        query.append("MERGE INTO ");
+        appendMergeTarget(query, tableName);
+        query.append(" dst USING (VALUES (");
+
+        for (int i = 0; i < columns.length; i++) {
+            query.append(i + 1 < columns.length ? "?, " : "?");
+        }
+
+        query.append(")) src (");
+        appendColumns(query, "", columns);
+        query.append(") ON ");
+
+        for (int i = 0; i < keys.length; i++) {
+            query.append("dst.").append(quote(keys[i])).append(" = src.").append(quote(keys[i]));
+            query.append(i + 1 < keys.length ? " AND " : " ");
+        }
+
+        if (updates.length > 0) {
+            query.append("WHEN MATCHED THEN UPDATE SET ");
+
+            for (int i = 0; i < updates.length; i++) {
+                query.append(quote(updates[i])).append(" = src.").append(quote(updates[i]));
+                query.append(i + 1 < updates.length ? ", " : " ");
+            }
+        }
+
+        query.append("WHEN NOT MATCHED THEN INSERT (");
+        appendColumns(query, "", inserts);
+        query.append(") VALUES (");
+        appendColumns(query, "src.", inserts);
+        query.append(") ");
+    }
+
+    @Override
+    public boolean supportsMultipleUpsertKeys() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsLimitedDelete() {
+        return false;
+    }
+
+    @Override
+    public boolean isDeleteLimitFirst() {
+        return false;
+    }
+
+    @Override
+    public void appendLimitedDelete(StringBuilder query, String tableName, String primaryColumn, String condition) throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException(getName() + " does not support limited deletes");
+    }
+
+    /**
+     * Appends the target table of a MERGE statement, before its alias.
+     *
+     * @param query The query to append to
+     * @param tableName The name of the target table
+     */
+    protected void appendMergeTarget(StringBuilder query, String tableName) {
+        query.append(tableName);
+    }
+
+    /**
+     * Appends a DELETE statement removing the rows whose primary key is among the first rows of a subquery limited
+     * with LIMIT, for products accepting LIMIT inside an IN subquery.
+     *
+     * @param query The query to append to
+     * @param tableName The name of the table to delete from
+     * @param primaryColumn The primary key column of the table
+     * @param condition The rendered WHERE clause, or an empty string
+     */
+    protected void appendSubqueryLimitedDelete(StringBuilder query, String tableName, String primaryColumn, String condition) {
+        query.append("DELETE FROM ").append(tableName).append(" WHERE ").append(quote(primaryColumn));
+        query.append(" IN (SELECT ").append(quote(primaryColumn)).append(" FROM ").append(tableName).append(' ');
+        query.append(condition).append("LIMIT ?) ");
+    }
+
+    /**
+     * Appends a comma separated list of quoted columns.
+     *
+     * @param query The query to append to
+     * @param prefix The text prepended to every column, such as a table alias
+     * @param columns The columns to append
+     */
+    protected void appendColumns(StringBuilder query, String prefix, String[] columns) {
+        for (int i = 0; i < columns.length; i++) {
+            query.append(prefix).append(quote(columns[i])).append(i + 1 < columns.length ? ", " : "");
+        }
+    }
+
+    /**
+     * Appends an INSERT statement binding every column once.
+     *
+     * @param query The query to append to
+     * @param tableName The name of the target table
+     * @param columns The inserted columns
+     */
+    protected void appendInsert(StringBuilder query, String tableName, String[] columns) {
+        query.append("INSERT INTO ").append(tableName).append(" (");
+        appendColumns(query, "", columns);
+        query.append(") VALUES (");
+
+        for (int i = 0; i < columns.length; i++) {
+            query.append(i + 1 < columns.length ? "?, " : "?");
+        }
+
+        query.append(") ");
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+
+}
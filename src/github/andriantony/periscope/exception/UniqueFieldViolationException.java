@@ -39,4 +39,14 @@ public class UniqueFieldViolationException extends Exception {
         super(message);
     }
     
+    /**
+     * Constructs a new instance of this exception with the specified message and cause.
+     * 
+     * @param message the error message
+     * @param cause the database error that reported the violation
+     */
+    public UniqueFieldViolationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+    
 }
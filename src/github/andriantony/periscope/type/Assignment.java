@@ -0,0 +1,63 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.type;
+
+import github.andriantony.periscope.constant.Arithmetic;
+
+/**
+ * An assignment relative to the current value of a column, such as {@code column = column + ?}.
+ * It is evaluated by the database, so concurrent updates of the same row do not overwrite each other.
+ * 
+ * @author Andriantony
+ */
+public final class Assignment {
+
+    private final Arithmetic arithmetic;
+    private final Object value;
+
+    /**
+     * Creates a new relative assignment.
+     * 
+     * @param arithmetic The operator applied to the column's current value
+     * @param value The right-hand operand
+     */
+    public Assignment(Arithmetic arithmetic, Object value) {
+        this.arithmetic = arithmetic;
+        this.value = value;
+    }
+
+    public Arithmetic getArithmetic() {
+        return arithmetic;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "? " + arithmetic + " " + value;
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.type;
+
+import github.andriantony.periscope.exception.CursorException;
+import github.andriantony.periscope.util.RowMapper;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A forward-only iterator over the rows of a query, mapping each row only when it is requested.
+ * <p>
+ * A cursor holds an open statement, and possibly a borrowed connection, until it is closed.
+ * It is closed automatically once the last row has been read, but callers that stop early must close it themselves,
+ * preferably with a try-with-resources block.
+ * </p>
+ * 
+ * @author Andriantony
+ * @param <T> the mapped class
+ */
+public final class Cursor<T> implements Iterator<T>, AutoCloseable {
+
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final RowMapper<T> mapper;
+    private final int[] indexes;
+    private final Runnable onClose;
+    private boolean fetched;
+    private boolean available;
+    private boolean closed;
+
+    /**
+     * Creates a new cursor over the given result set.
+     * 
+     * @param statement The statement that produced the result set
+     * @param resultSet The result set to iterate
+     * @param mapper The mapper used to convert each row
+     * @param onClose Called once after the statement has been closed, used to release the connection
+     * @throws SQLException if the columns of the result set can not be resolved
+     */
+    public Cursor(PreparedStatement statement, ResultSet resultSet, RowMapper<T> mapper, Runnable onClose) throws SQLException {
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.mapper = mapper;
+        this.indexes = mapper.resolve(resultSet);
+        this.onClose = onClose;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+
+        if (!fetched) {
+            try {
+                available = resultSet.next();
+                fetched = true;
+            } catch (SQLException e) {
+                close();
+                throw new CursorException("Failed to read the next row", e);
+            }
+
+            if (!available) {
+                close();
+            }
+        }
+
+        return available;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        fetched = false;
+
+        try {
+            return mapper.map(resultSet, indexes);
+        } catch (SQLException | InstantiationException e) {
+            close();
+            throw new CursorException("Failed to map the current row", e);
+        }
+    }
+
+    /**
+     * Returns a sequential stream over the remaining rows. Closing the stream closes this cursor.
+     * 
+     * @return a sequential stream over the remaining rows
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(this::close);
+    }
+
+    /**
+     * Closes the result set and statement of this cursor and releases its connection.
+     * Closing an already closed cursor has no effect.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        SQLException failure = null;
+
+        try {
+            try {
+                resultSet.close();
+            } catch (SQLException e) {
+                failure = e;
+            }
+
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        } finally {
+            onClose.run();
+        }
+
+        if (failure != null) {
+            throw new CursorException("Failed to close the cursor", failure);
+        }
+    }
+
+}
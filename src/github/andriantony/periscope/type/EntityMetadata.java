@@ -0,0 +1,250 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.type;
+
+import github.andriantony.periscope.annotation.Cached;
+import github.andriantony.periscope.annotation.Primary;
+import github.andriantony.periscope.constant.WritePermission;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable description of a mapped class.
+ * Instances are computed once per class and shared between threads, so none of the returned collections may be modified.
+ * 
+ * @author Andriantony
+ */
+public final class EntityMetadata {
+
+    private static final String[] NO_COLUMNS = new String[0];
+
+    private final Class<?> type;
+    private final String tableName;
+    private final Set<WritePermission> writePermissions;
+    private final Cached cached;
+    private final Map<String, ColumnDefinition> columns;
+    private final Map<String, ColumnDefinition> insertableColumns;
+    private final Map<String, ColumnDefinition> updatableColumns;
+    private final Map<String, ColumnDefinition> uniqueColumns;
+    private final Map<String, ReferenceDefinition> references;
+    private final ColumnDefinition primary;
+    private final Field primaryField;
+    private final String[] columnNames;
+    private final String[] insertableColumnNames;
+    private final String[] updatableColumnNames;
+
+    /**
+     * Creates a new instance.
+     * 
+     * @param type The mapped class
+     * @param tableName The name of the mapped table, or null if the class does not have the Table annotation
+     * @param writePermissions The write permissions of the mapped table
+     * @param columns The columns of the mapped table in declaration order
+     * @param references The references of the mapped table keyed by reference name
+     */
+    public EntityMetadata(Class<?> type, String tableName, Set<WritePermission> writePermissions, LinkedHashMap<String, ColumnDefinition> columns, LinkedHashMap<String, ReferenceDefinition> references) {
+        LinkedHashMap<String, ColumnDefinition> insertable = new LinkedHashMap<>();
+        LinkedHashMap<String, ColumnDefinition> updatable = new LinkedHashMap<>();
+        LinkedHashMap<String, ColumnDefinition> unique = new LinkedHashMap<>();
+        ColumnDefinition primaryColumn = null;
+
+        for (Map.Entry<String, ColumnDefinition> entry : columns.entrySet()) {
+            ColumnDefinition column = entry.getValue();
+
+            if (column.getPrimary() != null) {
+                primaryColumn = column;
+            } else {
+                updatable.put(entry.getKey(), column);
+            }
+
+            if (column.getPrimary() == null || !column.getPrimary().auto()) {
+                insertable.put(entry.getKey(), column);
+            }
+
+            if (column.getColumn().unique()) {
+                unique.put(entry.getKey(), column);
+            }
+        }
+
+        this.type = type;
+        this.tableName = tableName;
+        this.cached = type.getAnnotation(Cached.class);
+        this.writePermissions = writePermissions.isEmpty() ? Collections.<WritePermission>emptySet() : Collections.unmodifiableSet(EnumSet.copyOf(writePermissions));
+        this.columns = Collections.unmodifiableMap(columns);
+        this.insertableColumns = Collections.unmodifiableMap(insertable);
+        this.updatableColumns = Collections.unmodifiableMap(updatable);
+        this.uniqueColumns = Collections.unmodifiableMap(unique);
+        this.references = Collections.unmodifiableMap(references);
+        this.primary = primaryColumn;
+        this.primaryField = primaryColumn != null ? primaryColumn.getField() : findPrimaryField(type);
+        this.columnNames = columns.keySet().toArray(NO_COLUMNS);
+        this.insertableColumnNames = insertable.keySet().toArray(NO_COLUMNS);
+        this.updatableColumnNames = updatable.keySet().toArray(NO_COLUMNS);
+    }
+
+    /**
+     * Returns the mapped class.
+     * 
+     * @return the mapped class
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the name of the mapped table.
+     * 
+     * @return the name of the mapped table, or null if the class does not have the Table annotation
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Returns the write permissions of the mapped table.
+     * 
+     * @return the write permissions of the mapped table
+     */
+    public Set<WritePermission> getWritePermissions() {
+        return writePermissions;
+    }
+
+    /**
+     * Returns the entity cache settings of the mapped table.
+     * 
+     * @return the entity cache settings, or null if the mapped class does not have the Cached annotation
+     */
+    public Cached getCached() {
+        return cached;
+    }
+
+    /**
+     * Returns every column of the mapped table in declaration order.
+     * 
+     * @return every column of the mapped table
+     */
+    public Map<String, ColumnDefinition> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the columns written by an insertion, which are all columns except an automatically generated primary key.
+     * 
+     * @return the insertable columns
+     */
+    public Map<String, ColumnDefinition> getInsertableColumns() {
+        return insertableColumns;
+    }
+
+    /**
+     * Returns the columns written by an update identified by primary key, which are all columns except the primary key.
+     * 
+     * @return the updatable columns
+     */
+    public Map<String, ColumnDefinition> getUpdatableColumns() {
+        return updatableColumns;
+    }
+
+    /**
+     * Returns the columns that are required to hold unique values.
+     * 
+     * @return the unique columns
+     */
+    public Map<String, ColumnDefinition> getUniqueColumns() {
+        return uniqueColumns;
+    }
+
+    /**
+     * Returns the references of the mapped class keyed by reference name.
+     * 
+     * @return the references of the mapped class
+     */
+    public Map<String, ReferenceDefinition> getReferences() {
+        return references;
+    }
+
+    /**
+     * Returns the primary key column.
+     * 
+     * @return the primary key column, or null if the mapped class does not have one
+     */
+    public ColumnDefinition getPrimary() {
+        return primary;
+    }
+
+    /**
+     * Returns the field holding the primary key. Unlike {@link #getPrimary()}, this includes a field annotated with
+     * {@link Primary} but not with {@link github.andriantony.periscope.annotation.Column}.
+     * 
+     * @return the accessible primary key field, or null if the mapped class does not have one
+     */
+    public Field getPrimaryField() {
+        return primaryField;
+    }
+
+    /**
+     * Returns the names of every column. The returned array is shared and must not be modified.
+     * 
+     * @return the names of every column
+     */
+    public String[] getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Returns the names of the insertable columns. The returned array is shared and must not be modified.
+     * 
+     * @return the names of the insertable columns
+     */
+    public String[] getInsertableColumnNames() {
+        return insertableColumnNames;
+    }
+
+    /**
+     * Returns the names of the updatable columns. The returned array is shared and must not be modified.
+     * 
+     * @return the names of the updatable columns
+     */
+    public String[] getUpdatableColumnNames() {
+        return updatableColumnNames;
+    }
+
+    private static Field findPrimaryField(Class<?> type) {
+        Field primaryField = null;
+
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(Primary.class)) {
+                primaryField = field;
+                primaryField.setAccessible(true);
+            }
+        }
+
+        return primaryField;
+    }
+
+}
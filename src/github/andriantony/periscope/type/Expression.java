@@ -25,7 +25,12 @@ package github.andriantony.periscope.type;
 
 import github.andriantony.periscope.constant.Conjunction;
 import github.andriantony.periscope.constant.Operator;
+import java.lang.reflect.Array;
 import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * An expression used for SQL queries.
@@ -104,6 +109,60 @@ public class Expression {
         this.value = value;
     }
     
+    /**
+     * Returns the number of placeholders this expression binds.
+     * 
+     * @return the number of placeholders this expression binds
+     */
+    public int getParameterCount() {
+        switch (this.operator) {
+            case IN:
+            case NOT_IN:
+                if (this.value instanceof Collection) {
+                    return ((Collection<?>) this.value).size();
+                }
+
+                return this.value != null && this.value.getClass().isArray() ? Array.getLength(this.value) : 1;
+            case BETWEEN:
+                return 2;
+            default:
+                return 1;
+        }
+    }
+
+    /**
+     * Returns the values bound to the placeholders of this expression, in order.
+     * A collection or array value of an {@link Operator#IN}, {@link Operator#NOT_IN} or {@link Operator#BETWEEN}
+     * expression is expanded into its elements.
+     * 
+     * @return the values bound to the placeholders of this expression
+     * @throws IllegalArgumentException if a {@link Operator#BETWEEN} expression does not hold exactly two bounds
+     */
+    public List<Object> getValues() {
+        List<Object> values;
+
+        if (this.operator != Operator.IN && this.operator != Operator.NOT_IN && this.operator != Operator.BETWEEN) {
+            return Collections.singletonList(this.value);
+        } else if (this.value instanceof Collection) {
+            values = new ArrayList<>((Collection<?>) this.value);
+        } else if (this.value != null && this.value.getClass().isArray()) {
+            int length = Array.getLength(this.value);
+            values = new ArrayList<>(length);
+
+            for (int i = 0; i < length; i++) {
+                values.add(Array.get(this.value, i));
+            }
+        } else {
+            values = Collections.singletonList(this.value);
+        }
+
+        if (this.operator == Operator.BETWEEN && values.size() != 2) {
+            throw new IllegalArgumentException("A BETWEEN expression requires a lower and an upper bound");
+        }
+
+        return values;
+    }
+
     /**
      * Returns the comparison operator of this expression.
      * 
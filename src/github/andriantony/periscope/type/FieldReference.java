@@ -35,13 +35,15 @@ public class FieldReference {
     private final Class<?> targetClass;
     private final Field sourceField;
     private final Field targetField;
+    private final String referColumn;
     private final Modifier modifier;
     private final Relation relation;
 
-    public FieldReference(Class<?> targetClass, Field sourceField, Field targetField, Modifier modifier, Relation relation) {
+    public FieldReference(Class<?> targetClass, Field sourceField, Field targetField, String referColumn, Modifier modifier, Relation relation) {
         this.targetClass = targetClass;
         this.sourceField = sourceField;
         this.targetField = targetField;
+        this.referColumn = referColumn;
         this.modifier = modifier;
         this.relation = relation;
     }
@@ -58,6 +60,10 @@ public class FieldReference {
         return targetField;
     }
 
+    public String getReferColumn() {
+        return referColumn;
+    }
+
     public Modifier getModifier() {
         return modifier;
     }
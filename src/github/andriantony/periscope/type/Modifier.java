@@ -33,6 +33,12 @@ public final class Modifier {
     private Expression[] expressions = new Expression[0];
     private TableReference[] references = new TableReference[0];
     private Sort[] sorts = new Sort[0];
+    private Integer limit;
+    private Integer offset;
+    private Object[] seek = new Object[0];
+    private boolean cached;
+    private long cacheTtl;
+    private int parallelism = 1;
 
     public Modifier mark(String... columns) {
         this.columns = columns;
@@ -54,6 +60,83 @@ public final class Modifier {
         return this;
     }
 
+    public Modifier limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative");
+        }
+
+        this.limit = limit;
+        return this;
+    }
+
+    public Modifier offset(int offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+
+        this.offset = offset;
+        return this;
+    }
+
+    /**
+     * Starts the result after the row holding the given values, which must be the values of the leading sort columns
+     * of the last row of the previous page. This keyset pagination lets the database seek directly to the next page
+     * instead of reading and discarding every skipped row. The sort columns should not contain null values.
+     * 
+     * @param values The values of the leading sort columns of the last row read, in sort order
+     * @return this instance for further processing
+     */
+    public Modifier seek(Object... values) {
+        this.seek = values;
+        return this;
+    }
+
+    /**
+     * Serves the result of a list from the engine's query cache, caching it on a miss for the engine's default time
+     * to live. Results are copied in and out of the cache, so every caller receives its own list and entities. Any
+     * write through the engine to the queried table or to a table reachable from it through a reference evicts the
+     * result.
+     * 
+     * @return this instance for further processing
+     */
+    public Modifier cache() {
+        return cache(0);
+    }
+
+    /**
+     * Serves the result of a list from the engine's query cache, caching it on a miss for the given time.
+     * 
+     * @param ttl The time to keep the result in milliseconds, or 0 to use the engine's default
+     * @return this instance for further processing
+     * @see #cache()
+     */
+    public Modifier cache(long ttl) {
+        if (ttl < 0) {
+            throw new IllegalArgumentException("Cache time to live must not be negative");
+        }
+
+        this.cached = true;
+        this.cacheTtl = ttl;
+        return this;
+    }
+
+    /**
+     * Loads the included references of this call concurrently, each on its own pooled connection, using at most the
+     * given number of connections including the caller's. Each reference is still read in batches. References are
+     * loaded one after another when the engine uses a single connection or no other connection is free.
+     * 
+     * @param parallelism The maximum number of connections loading references at once
+     * @return this instance for further processing
+     */
+    public Modifier parallel(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+
+        this.parallelism = parallelism;
+        return this;
+    }
+
     public String[] getColumns() {
         return columns;
     }
@@ -70,4 +153,32 @@ public final class Modifier {
         return sorts;
     }
 
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public Integer getOffset() {
+        return offset;
+    }
+
+    public Object[] getSeek() {
+        return seek;
+    }
+
+    public boolean isCached() {
+        return cached;
+    }
+
+    public long getCacheTtl() {
+        return cacheTtl;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public boolean isPaged() {
+        return limit != null || offset != null;
+    }
+
 }
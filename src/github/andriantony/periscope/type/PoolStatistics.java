@@ -0,0 +1,151 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.type;
+
+/**
+ * An immutable snapshot of the counters of a connection pool.
+ * 
+ * @author Andriantony
+ */
+public final class PoolStatistics {
+
+    private final int maximumSize;
+    private final int active;
+    private final int idle;
+    private final long created;
+    private final long borrowed;
+    private final long timeouts;
+    private final long evicted;
+    private final long invalidated;
+    private final long totalWaitNanos;
+
+    public PoolStatistics(int maximumSize, int active, int idle, long created, long borrowed, long timeouts, long evicted, long invalidated, long totalWaitNanos) {
+        this.maximumSize = maximumSize;
+        this.active = active;
+        this.idle = idle;
+        this.created = created;
+        this.borrowed = borrowed;
+        this.timeouts = timeouts;
+        this.evicted = evicted;
+        this.invalidated = invalidated;
+        this.totalWaitNanos = totalWaitNanos;
+    }
+
+    /**
+     * Returns the maximum number of connections the pool may open.
+     * 
+     * @return the maximum number of connections
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Returns the number of connections currently borrowed.
+     * 
+     * @return the number of borrowed connections
+     */
+    public int getActive() {
+        return active;
+    }
+
+    /**
+     * Returns the number of open connections waiting to be borrowed.
+     * 
+     * @return the number of idle connections
+     */
+    public int getIdle() {
+        return idle;
+    }
+
+    /**
+     * Returns the number of connections opened since the pool was created.
+     * 
+     * @return the number of opened connections
+     */
+    public long getCreated() {
+        return created;
+    }
+
+    /**
+     * Returns the number of successful borrows since the pool was created.
+     * 
+     * @return the number of successful borrows
+     */
+    public long getBorrowed() {
+        return borrowed;
+    }
+
+    /**
+     * Returns the number of borrows that gave up after the acquisition timeout.
+     * 
+     * @return the number of timed out borrows
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * Returns the number of connections closed after staying idle longer than the idle timeout.
+     * 
+     * @return the number of evicted connections
+     */
+    public long getEvicted() {
+        return evicted;
+    }
+
+    /**
+     * Returns the number of connections closed because they failed validation on borrow.
+     * 
+     * @return the number of invalidated connections
+     */
+    public long getInvalidated() {
+        return invalidated;
+    }
+
+    /**
+     * Returns the total time borrowers spent waiting for a free slot, in nanoseconds.
+     * 
+     * @return the total wait time in nanoseconds
+     */
+    public long getTotalWaitNanos() {
+        return totalWaitNanos;
+    }
+
+    /**
+     * Returns the average time a borrower spent waiting for a free slot, in nanoseconds.
+     * 
+     * @return the average wait time in nanoseconds
+     */
+    public long getAverageWaitNanos() {
+        long attempts = borrowed + timeouts;
+        return attempts > 0 ? totalWaitNanos / attempts : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStatistics{maximumSize=" + maximumSize + ", active=" + active + ", idle=" + idle + ", created=" + created + ", borrowed=" + borrowed + ", timeouts=" + timeouts + ", evicted=" + evicted + ", invalidated=" + invalidated + ", averageWaitNanos=" + getAverageWaitNanos() + "}";
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.type;
+
+import github.andriantony.periscope.annotation.Reference;
+import github.andriantony.periscope.constant.Relation;
+import java.lang.reflect.Field;
+
+/**
+ * This class specifies a reference field with all of its attributes.
+ * 
+ * @author Andriantony
+ */
+public final class ReferenceDefinition {
+
+    private final Field field;
+    private final Reference reference;
+
+    /**
+     * Creates a new instance using the given field.
+     * 
+     * @param field The field annotated with the {@link Reference} annotation
+     */
+    public ReferenceDefinition(Field field) {
+        this.field = field;
+        this.field.setAccessible(true);
+        this.reference = field.getAnnotation(Reference.class);
+    }
+
+    /**
+     * Return this instance's reference field.
+     * 
+     * @return this instance's reference field
+     */
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * Return this instance's reference annotation.
+     * 
+     * @return this instance's reference annotation
+     */
+    public Reference getReference() {
+        return reference;
+    }
+
+    /**
+     * Return the relation mode of this reference.
+     * 
+     * @return the relation mode of this reference
+     */
+    public Relation getRelation() {
+        return reference.relation();
+    }
+
+}
@@ -0,0 +1,345 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.util;
+
+import github.andriantony.periscope.type.PoolStatistics;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+
+/**
+ * A lightweight, bounded pool of connections obtained from a {@link DataSource}.
+ * <p>
+ * Connections are borrowed with {@link #acquire()} and must be handed back with {@link #release(Connection)}.
+ * A connection that stayed idle for a while is validated before it is handed out, and connections idle for
+ * longer than the idle timeout are closed whenever the pool is used. The pool does not start any thread and
+ * never blocks on a monitor, so it can be used from virtual threads.
+ * </p>
+ *
+ * @author Andriantony
+ */
+public final class ConnectionPool implements AutoCloseable {
+
+    private static final long VALIDATION_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+    private static final int VALIDATION_TIMEOUT = 5;
+
+    private final DataSource dataSource;
+    private final int maximumSize;
+    private final long acquireTimeout;
+    private final long idleTimeout;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<IdleConnection> idle = new ConcurrentLinkedDeque<>();
+    private final ConcurrentHashMap<Connection, ConnectionDefaults> defaults = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Consumer<Connection>> discardListeners = new CopyOnWriteArrayList<>();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder borrowed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder invalidated = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * Creates a new pool with an acquisition timeout of 30 seconds and an idle timeout of 10 minutes.
+     *
+     * @param dataSource The source of new connections
+     * @param maximumSize The maximum number of connections the pool may open
+     */
+    public ConnectionPool(DataSource dataSource, int maximumSize) {
+        this(dataSource, maximumSize, TimeUnit.SECONDS.toMillis(30), TimeUnit.MINUTES.toMillis(10));
+    }
+
+    /**
+     * Creates a new pool.
+     *
+     * @param dataSource The source of new connections
+     * @param maximumSize The maximum number of connections the pool may open
+     * @param acquireTimeout The maximum time to wait for a connection, in milliseconds
+     * @param idleTimeout The time after which an unused connection is closed, in milliseconds
+     */
+    public ConnectionPool(DataSource dataSource, int maximumSize, long acquireTimeout, long idleTimeout) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be at least 1");
+        }
+
+        this.dataSource = dataSource;
+        this.maximumSize = maximumSize;
+        this.acquireTimeout = acquireTimeout;
+        this.idleTimeout = TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+        this.permits = new Semaphore(maximumSize, true);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the acquisition timeout for one to become available.
+     *
+     * @return a borrowed connection
+     * @throws SQLTimeoutException if no connection became available in time
+     * @throws SQLException if the pool is closed or a new connection can not be opened
+     */
+    public Connection acquire() throws SQLException {
+        if (closed) {
+            throw new SQLException("The connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+
+        try {
+            if (!permits.tryAcquire(acquireTimeout, TimeUnit.MILLISECONDS)) {
+                waitNanos.add(System.nanoTime() - start);
+                timeouts.increment();
+                throw new SQLTimeoutException("Timed out after " + acquireTimeout + " ms waiting for a connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+
+        waitNanos.add(System.nanoTime() - start);
+
+        return borrow();
+    }
+
+    /**
+     * Borrows a connection only if one is available without waiting.
+     *
+     * @return a borrowed connection, or null if every connection is in use
+     * @throws SQLException if the pool is closed or a new connection can not be opened
+     */
+    public Connection tryAcquire() throws SQLException {
+        if (closed) {
+            throw new SQLException("The connection pool is closed");
+        }
+
+        if (!permits.tryAcquire()) {
+            return null;
+        }
+
+        return borrow();
+    }
+
+    private Connection borrow() throws SQLException {
+        try {
+            IdleConnection candidate;
+
+            while ((candidate = idle.pollFirst()) != null) {
+                long idleTime = System.nanoTime() - candidate.since;
+
+                if (idleTime > idleTimeout) {
+                    discard(candidate.connection);
+                    evicted.increment();
+                } else if (idleTime > VALIDATION_INTERVAL && !isValid(candidate.connection)) {
+                    discard(candidate.connection);
+                    invalidated.increment();
+                } else {
+                    borrowed.increment();
+                    return candidate.connection;
+                }
+            }
+
+            Connection connection = dataSource.getConnection();
+
+            try {
+                defaults.put(connection, new ConnectionDefaults(connection));
+            } catch (SQLException | RuntimeException e) {
+                discard(connection);
+                throw e;
+            }
+
+            created.increment();
+            borrowed.increment();
+
+            return connection;
+        } catch (SQLException | RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a borrowed connection to the pool. The auto-commit mode, read-only flag and transaction isolation the
+     * connection had when it was opened are restored. The pool does not end transactions: a caller that disabled
+     * auto-commit must commit or roll back its work before releasing the connection. Closed connections and
+     * connections that can not be reset are dropped.
+     *
+     * @param connection The connection to return
+     */
+    public void release(Connection connection) {
+        try {
+            if (closed || connection.isClosed()) {
+                discard(connection);
+            } else {
+                reset(connection);
+                idle.offerFirst(new IdleConnection(connection, System.nanoTime()));
+            }
+        } catch (SQLException e) {
+            discard(connection);
+        } finally {
+            permits.release();
+        }
+
+        evictIdle();
+    }
+
+    /**
+     * Registers a callback invoked with every connection the pool closes, so state kept per connection can be
+     * released.
+     *
+     * @param listener The callback to invoke before a connection is closed
+     */
+    public void addDiscardListener(Consumer<Connection> listener) {
+        discardListeners.add(listener);
+    }
+
+    /**
+     * Unregisters a callback added with {@link #addDiscardListener(Consumer)}.
+     *
+     * @param listener The callback to stop invoking
+     */
+    public void removeDiscardListener(Consumer<Connection> listener) {
+        discardListeners.remove(listener);
+    }
+
+    /**
+     * Returns the maximum number of connections this pool may open.
+     *
+     * @return the maximum number of connections
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Returns a snapshot of this pool's counters.
+     *
+     * @return a snapshot of this pool's counters
+     */
+    public PoolStatistics getStatistics() {
+        return new PoolStatistics(maximumSize, maximumSize - permits.availablePermits(), idle.size(), created.sum(), borrowed.sum(), timeouts.sum(), evicted.sum(), invalidated.sum(), waitNanos.sum());
+    }
+
+    /**
+     * Closes every idle connection. Borrowed connections are closed when they are released.
+     */
+    @Override
+    public void close() {
+        closed = true;
+
+        IdleConnection candidate;
+
+        while ((candidate = idle.pollFirst()) != null) {
+            discard(candidate.connection);
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        IdleConnection oldest;
+
+        while ((oldest = idle.peekLast()) != null && now - oldest.since > idleTimeout) {
+            if (idle.removeLastOccurrence(oldest)) {
+                discard(oldest.connection);
+                evicted.increment();
+            }
+        }
+    }
+
+    private boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void reset(Connection connection) throws SQLException {
+        ConnectionDefaults state = defaults.get(connection);
+
+        if (state != null) {
+            state.restore(connection);
+        }
+    }
+
+    private void discard(Connection connection) {
+        defaults.remove(connection);
+
+        for (Consumer<Connection> listener : discardListeners) {
+            listener.accept(connection);
+        }
+
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // The connection is being dropped either way
+        }
+    }
+
+    private static final class IdleConnection {
+
+        private final Connection connection;
+        private final long since;
+
+        private IdleConnection(Connection connection, long since) {
+            this.connection = connection;
+            this.since = since;
+        }
+
+    }
+
+    private static final class ConnectionDefaults {
+
+        private final boolean autoCommit;
+        private final boolean readOnly;
+        private final int transactionIsolation;
+
+        private ConnectionDefaults(Connection connection) throws SQLException {
+            this.autoCommit = connection.getAutoCommit();
+            this.readOnly = connection.isReadOnly();
+            this.transactionIsolation = connection.getTransactionIsolation();
+        }
+
+        private void restore(Connection connection) throws SQLException {
+            if (connection.getAutoCommit() != autoCommit) {
+                connection.setAutoCommit(autoCommit);
+            }
+
+            if (connection.isReadOnly() != readOnly) {
+                connection.setReadOnly(readOnly);
+            }
+
+            if (connection.getTransactionIsolation() != transactionIsolation) {
+                connection.setTransactionIsolation(transactionIsolation);
+            }
+        }
+
+    }
+
+}
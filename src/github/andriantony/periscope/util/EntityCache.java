@@ -0,0 +1,356 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.util;
+
+import github.andriantony.periscope.annotation.Cached;
+import github.andriantony.periscope.constant.Eviction;
+import github.andriantony.periscope.type.CacheStatistics;
+import github.andriantony.periscope.type.ColumnDefinition;
+import github.andriantony.periscope.type.EntityMetadata;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the column values of rows of {@link Cached} classes keyed by class and primary key.
+ * <p>
+ * Each class has its own region bounded by {@link Cached#size()}. Values are copied in and out, so callers always
+ * receive fresh instances they are free to modify. Every invalidation of a region advances its generation and
+ * records it for the invalidated key; a value read from the database is only stored if neither its key nor the whole
+ * region was invalidated since the read started, so a concurrent write can not be overwritten by the row it replaced
+ * while writes to other rows do not discard it.
+ * </p>
+ *
+ * @author Andriantony
+ */
+public final class EntityCache {
+
+    private final ConcurrentHashMap<Class<?>, Region> regions = new ConcurrentHashMap<>();
+
+    /**
+     * Returns a new instance holding the cached column values of the given primary key.
+     *
+     * @param <T> The mapped class
+     * @param metadata The metadata of a cached class
+     * @param key The primary key value
+     * @return a new instance, or null if the row is not cached or has expired
+     * @throws InstantiationException if the class can not be instantiated
+     * @throws IllegalAccessException if a mapped field can not be accessed
+     */
+    public <T> T get(EntityMetadata metadata, Object key) throws InstantiationException, IllegalAccessException {
+        Object[] values = region(metadata).get(normalize(key));
+
+        if (values == null) {
+            return null;
+        }
+
+        RowMapper<T> mapper = RowMapper.of(metadata.getType(), new String[0]);
+        T entity = mapper.newInstance();
+        int index = 0;
+
+        for (ColumnDefinition column : metadata.getColumns().values()) {
+            column.getField().set(entity, copy(values[index++]));
+        }
+
+        return entity;
+    }
+
+    /**
+     * Returns the current generation of the region of the given class. Take it before reading rows that will be
+     * passed to {@link #put(Object, EntityMetadata, long)}.
+     *
+     * @param metadata The metadata of a cached class
+     * @return the current generation
+     */
+    public long generation(EntityMetadata metadata) {
+        return region(metadata).generation();
+    }
+
+    /**
+     * Stores the column values of the given entity unless its row or the whole region was invalidated since the given
+     * generation.
+     *
+     * @param entity An entity with every column loaded
+     * @param metadata The metadata of a cached class
+     * @param generation The generation taken before the entity was read
+     * @throws IllegalAccessException if a mapped field can not be accessed
+     */
+    public void put(Object entity, EntityMetadata metadata, long generation) throws IllegalAccessException {
+        Object key = metadata.getPrimary().getField().get(entity);
+
+        if (key == null) {
+            return;
+        }
+
+        Collection<ColumnDefinition> columns = metadata.getColumns().values();
+        Object[] values = new Object[columns.size()];
+        int index = 0;
+
+        for (ColumnDefinition column : columns) {
+            values[index++] = copy(column.getField().get(entity));
+        }
+
+        region(metadata).put(normalize(key), values, generation);
+    }
+
+    /**
+     * Drops the cached row of the given primary key.
+     *
+     * @param metadata The metadata of a cached class
+     * @param key The primary key value
+     */
+    public void invalidate(EntityMetadata metadata, Object key) {
+        if (key != null) {
+            region(metadata).invalidate(normalize(key));
+        }
+    }
+
+    /**
+     * Drops every cached row of the given class.
+     *
+     * @param metadata The metadata of a cached class
+     */
+    public void invalidateAll(EntityMetadata metadata) {
+        region(metadata).invalidateAll();
+    }
+
+    /**
+     * Drops every cached row of every class.
+     */
+    public void clear() {
+        for (Region region : regions.values()) {
+            region.invalidateAll();
+        }
+    }
+
+    /**
+     * Returns the counters of the region of the given class.
+     *
+     * @param type The cached class
+     * @return the counters, or null if nothing of the given class was cached yet
+     */
+    public CacheStatistics getStatistics(Class<?> type) {
+        Region region = regions.get(type);
+        return region != null ? region.statistics() : null;
+    }
+
+    /**
+     * Returns the counters of every region added together.
+     *
+     * @return the counters of every region
+     */
+    public CacheStatistics getStatistics() {
+        int size = 0;
+        long hits = 0, misses = 0, evictions = 0;
+
+        for (Region region : regions.values()) {
+            CacheStatistics statistics = region.statistics();
+            size += statistics.getSize();
+            hits += statistics.getHits();
+            misses += statistics.getMisses();
+            evictions += statistics.getEvictions();
+        }
+
+        return new CacheStatistics(size, hits, misses, evictions);
+    }
+
+    private Region region(EntityMetadata metadata) {
+        return regions.computeIfAbsent(metadata.getType(), type -> new Region(metadata.getCached()));
+    }
+
+    /**
+     * Maps integral keys of every width to the same value, like {@link Reflector#getKey(Object)}, so a row cached
+     * under an Integer key is found and invalidated by a Long key of the same value.
+     */
+    private static Object normalize(Object key) {
+        if (key instanceof Integer || key instanceof Long || key instanceof Short || key instanceof Byte) {
+            return ((Number) key).longValue();
+        }
+
+        return key;
+    }
+
+    private static Object copy(Object value) {
+        return value instanceof byte[] ? ((byte[]) value).clone() : value;
+    }
+
+    private static final class Entry {
+
+        private final Object[] values;
+        private final long expiresAt;
+
+        private Entry(Object[] values, long expiresAt) {
+            this.values = values;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * The rows of one class. With {@link Eviction#LRU} every row lives in the main area. With
+     * {@link Eviction#TINY_LFU} new rows enter a window of about one percent of the size, and a row pushed out of
+     * the full window replaces the least recently used row of the main area only if it was requested more often.
+     * The generations of the most recently invalidated keys are kept up to the size of the region; when an older one
+     * is dropped, the floor below which every value is rejected is raised to it instead.
+     */
+    private static final class Region {
+
+        private final int maximumSize;
+        private final int windowSize;
+        private final long ttlNanos;
+        private final FrequencySketch sketch;
+        private final LinkedHashMap<Object, Entry> window = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<Object, Entry> main = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<Object, Long> invalidated = new LinkedHashMap<>();
+        private long generation;
+        private long floor;
+        private long hits;
+        private long misses;
+        private long evictions;
+
+        private Region(Cached cached) {
+            this.maximumSize = Math.max(1, cached.size());
+            this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, cached.ttl()));
+
+            if (cached.eviction() == Eviction.TINY_LFU && maximumSize > 1) {
+                this.windowSize = Math.max(1, maximumSize / 100);
+                this.sketch = new FrequencySketch(maximumSize);
+            } else {
+                this.windowSize = 0;
+                this.sketch = null;
+            }
+        }
+
+        private synchronized Object[] get(Object key) {
+            if (sketch != null) {
+                sketch.increment(key);
+            }
+
+            LinkedHashMap<Object, Entry> area = window;
+            Entry entry = window.get(key);
+
+            if (entry == null) {
+                area = main;
+                entry = main.get(key);
+            }
+
+            if (entry != null && entry.expiresAt != 0 && entry.expiresAt - System.nanoTime() <= 0) {
+                area.remove(key);
+                entry = null;
+            }
+
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+
+            hits++;
+            return entry.values;
+        }
+
+        private synchronized void put(Object key, Object[] values, long stamp) {
+            Long invalidatedAt = invalidated.get(key);
+
+            if (stamp < floor || invalidatedAt != null && invalidatedAt > stamp) {
+                return;
+            }
+
+            Entry entry = new Entry(values, ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0);
+
+            if (sketch == null || main.containsKey(key)) {
+                main.put(key, entry);
+                trim(main, maximumSize - windowSize);
+                return;
+            }
+
+            window.put(key, entry);
+
+            if (window.size() <= windowSize) {
+                return;
+            }
+
+            Iterator<Map.Entry<Object, Entry>> iterator = window.entrySet().iterator();
+            Map.Entry<Object, Entry> candidate = iterator.next();
+            iterator.remove();
+
+            if (main.size() < maximumSize - windowSize) {
+                main.put(candidate.getKey(), candidate.getValue());
+                return;
+            }
+
+            Object victim = main.keySet().iterator().next();
+
+            if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim)) {
+                main.remove(victim);
+                main.put(candidate.getKey(), candidate.getValue());
+            }
+
+            // Either the victim or the candidate was dropped
+            evictions++;
+        }
+
+        private void trim(LinkedHashMap<Object, Entry> area, int size) {
+            Iterator<Object> iterator = area.keySet().iterator();
+
+            while (area.size() > size) {
+                iterator.next();
+                iterator.remove();
+                evictions++;
+            }
+        }
+
+        private synchronized void invalidate(Object key) {
+            generation++;
+            window.remove(key);
+            main.remove(key);
+            invalidated.remove(key);
+            invalidated.put(key, generation);
+
+            if (invalidated.size() > maximumSize) {
+                Iterator<Long> iterator = invalidated.values().iterator();
+                floor = Math.max(floor, iterator.next());
+                iterator.remove();
+            }
+        }
+
+        private synchronized void invalidateAll() {
+            generation++;
+            floor = generation;
+            window.clear();
+            main.clear();
+            invalidated.clear();
+        }
+
+        private synchronized long generation() {
+            return generation;
+        }
+
+        private synchronized CacheStatistics statistics() {
+            return new CacheStatistics(window.size() + main.size(), hits, misses, evictions);
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.util;
+
+import github.andriantony.periscope.annotation.Column;
+import github.andriantony.periscope.annotation.Reference;
+import github.andriantony.periscope.annotation.Table;
+import github.andriantony.periscope.constant.WritePermission;
+import github.andriantony.periscope.exception.NoAnnotationException;
+import github.andriantony.periscope.type.ColumnDefinition;
+import github.andriantony.periscope.type.EntityMetadata;
+import github.andriantony.periscope.type.ReferenceDefinition;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Set;
+
+/**
+ * A registry that scans each mapped class once and shares the resulting {@link EntityMetadata} between all threads.
+ *
+ * @author Andriantony
+ */
+public final class MetadataRegistry {
+
+    private static final ClassValue<EntityMetadata> METADATA = new ClassValue<EntityMetadata>() {
+        @Override
+        protected EntityMetadata computeValue(Class<?> type) {
+            return scan(type);
+        }
+    };
+
+    private MetadataRegistry() {
+    }
+
+    /**
+     * Returns the metadata of the given class, scanning it on first use.
+     *
+     * @param table The mapped class
+     * @return the metadata of the given class
+     */
+    public static EntityMetadata get(Class<?> table) {
+        return METADATA.get(table);
+    }
+
+    private static EntityMetadata scan(Class<?> type) {
+        Table table = type.getAnnotation(Table.class);
+        String tableName = table != null ? table.name() : null;
+        Set<WritePermission> permissions = EnumSet.noneOf(WritePermission.class);
+        LinkedHashMap<String, ColumnDefinition> columns = new LinkedHashMap<>();
+        LinkedHashMap<String, ReferenceDefinition> references = new LinkedHashMap<>();
+
+        if (table != null) {
+            permissions.addAll(Arrays.asList(table.writePermissions()));
+        }
+
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(Column.class)) {
+                try {
+                    columns.put(field.getAnnotation(Column.class).name(), new ColumnDefinition(field));
+                } catch (NoAnnotationException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            if (field.isAnnotationPresent(Reference.class)) {
+                references.put(field.getAnnotation(Reference.class).name(), new ReferenceDefinition(field));
+            }
+        }
+
+        return new EntityMetadata(type, tableName, permissions, columns, references);
+    }
+
+}
@@ -24,20 +24,30 @@
 package github.andriantony.periscope.util;
 
 import github.andriantony.periscope.constant.SqlEngine;
+import github.andriantony.periscope.dialect.Dialect;
+import github.andriantony.periscope.dialect.DialectRegistry;
 import github.andriantony.periscope.constant.Function;
+import github.andriantony.periscope.constant.Arithmetic;
+import github.andriantony.periscope.constant.Operator;
+import github.andriantony.periscope.constant.SortDirection;
 import github.andriantony.periscope.type.Expression;
 import github.andriantony.periscope.type.Sort;
 import java.sql.PreparedStatement;
+import java.sql.SQLFeatureNotSupportedException;
 
 /**
  * A class used to dynamically generate SQL queries.
+ * <p>
+ * Instances hold the query being built and are not thread-safe. Use one
+ * instance per query, or confine an instance to a single thread.
+ * </p>
  *
  * @author Andriantony
  */
 public final class QueryBuilder {
 
     private final StringBuilder query = new StringBuilder();
-    private final SqlEngine connectionEngine;
+    private final Dialect dialect;
 
     /**
      * Creates a new instance with provided connection engine.
@@ -45,7 +55,16 @@ public final class QueryBuilder {
      * @param connectionEngine The type of connection
      */
     public QueryBuilder(SqlEngine connectionEngine) {
-        this.connectionEngine = connectionEngine;
+        this(DialectRegistry.forEngine(connectionEngine));
+    }
+
+    /**
+     * Creates a new instance rendering SQL for the provided dialect.
+     *
+     * @param dialect The dialect of the connection
+     */
+    public QueryBuilder(Dialect dialect) {
+        this.dialect = dialect;
     }
 
     /**
@@ -114,8 +133,90 @@ public final class QueryBuilder {
             this.query.append("WHERE ");
         }
 
+        return expressions(expressions);
+    }
+
+    /**
+     * Appends a WHERE clause combining the provided expressions with a keyset
+     * condition that only matches rows sorted after the seek values. The
+     * condition is expanded into comparisons, so it works with mixed sort
+     * directions on every engine. Will append a plain WHERE clause if the
+     * provided seek array is empty.
+     *
+     * @param expressions The expressions to use in the WHERE clause
+     * @param seek The leading sort directives covered by the seek values
+     * @return this instance for further processing
+     */
+    public QueryBuilder where(Expression[] expressions, Sort[] seek) {
+        if (seek.length == 0) {
+            return where(expressions);
+        }
+
+        this.query.append("WHERE ");
+
+        if (expressions.length > 0) {
+            this.query.append('(');
+            expressions(expressions);
+            this.query.append(") AND ");
+        }
+
+        this.query.append('(');
+
+        for (int i = 0; i < seek.length; i++) {
+            this.query.append('(');
+
+            for (int j = 0; j < i; j++) {
+                this.query.append(wrap(seek[j].getColumn())).append(" = ? AND ");
+            }
+
+            this.query.append(wrap(seek[i].getColumn())).append(seek[i].getDirection() == SortDirection.DESC ? " < ?" : " > ?").append(')');
+            this.query.append(i + 1 < seek.length ? " OR " : "");
+        }
+
+        this.query.append(") ");
+
+        return this;
+    }
+
+    /**
+     * Appends a row limiting clause with one placeholder for the row limit
+     * and one for the number of skipped rows, in the order given by
+     * {@link Dialect#isLimitFirst()}. Must be appended after the ORDER BY
+     * directive.
+     *
+     * @param sorted Whether an ORDER BY directive was appended, which some
+     * dialects require before their OFFSET clause
+     * @return this instance for further processing
+     */
+    public QueryBuilder page(boolean sorted) {
+        this.dialect.appendPage(this.query, sorted);
+
+        return this;
+    }
+
+    private QueryBuilder expressions(Expression[] expressions) {
         for (int i = 0; i < expressions.length; i++) {
-            this.query.append(wrap(expressions[i].getKey())).append(' ').append(expressions[i].getOperator()).append(" ?");
+            String key = wrap(expressions[i].getKey());
+            Operator operator = expressions[i].getOperator();
+            int count = expressions[i].getParameterCount();
+
+            if (operator == Operator.NOT_IN && count == 0) {
+                // Nothing is excluded, so the expression must hold for every row
+                this.query.append('(').append(key).append(" IS NULL OR ").append(key).append(" IS NOT NULL)");
+            } else if (operator == Operator.IN || operator == Operator.NOT_IN) {
+                this.query.append(key).append(' ').append(operator).append(" (");
+
+                for (int j = 0; j < count; j++) {
+                    this.query.append(j + 1 < count ? "?, " : "?");
+                }
+
+                this.query.append(count > 0 ? ")" : "NULL)");
+            } else if (operator == Operator.BETWEEN) {
+                this.query.append(key).append(" BETWEEN ? AND ?");
+            } else {
+                this.query.append(key).append(' ').append(operator).append(" ?");
+            }
+
             this.query.append(i + 1 < expressions.length ? (' ' + expressions[i].getConjunction().toString() + ' ') : ' ');
         }
 
@@ -152,6 +253,20 @@ public final class QueryBuilder {
      * @return this instance for further processing
      */
     public QueryBuilder insert(String tableName, String[] columns) {
+        return insert(tableName, columns, 1);
+    }
+
+    /**
+     * Appends an INSERT statement holding the given number of rows in its
+     * VALUES clause. The placeholders are bound row by row, each row in the
+     * order of the provided columns.
+     *
+     * @param tableName The table name to perform insertion to
+     * @param columns The inserted columns
+     * @param rows The number of rows, at most {@link Dialect#getMaxInsertRows()}
+     * @return this instance for further processing
+     */
+    public QueryBuilder insert(String tableName, String[] columns, int rows) {
         this.query.append("INSERT INTO ").append(tableName).append(" (");
 
         for (int i = 0; i < columns.length; i++) {
@@ -159,14 +274,36 @@ public final class QueryBuilder {
             this.query.append(i + 1 < columns.length ? ", " : "");
         }
 
-        this.query.append(") VALUES (");
+        this.query.append(") VALUES ");
 
-        for (int i = 0; i < columns.length; i++) {
-            this.query.append('?');
-            this.query.append(i + 1 < columns.length ? ", " : "");
+        for (int row = 0; row < rows; row++) {
+            this.query.append('(');
+
+            for (int i = 0; i < columns.length; i++) {
+                this.query.append('?');
+                this.query.append(i + 1 < columns.length ? ", " : "");
+            }
+
+            this.query.append(row + 1 < rows ? "), " : ") ");
         }
 
-        this.query.append(") ");
+        return this;
+    }
+
+    /**
+     * Appends a statement inserting a row, or updating the existing row whose
+     * key columns match, as rendered by the dialect. Every column is bound
+     * once, in the order of the provided columns.
+     *
+     * @param tableName The name of the target table
+     * @param columns The bound columns
+     * @param keys The columns identifying an existing row
+     * @param updates The columns written to an existing row
+     * @param inserts The columns written to a new row
+     * @return this instance for further processing
+     */
+    public QueryBuilder upsert(String tableName, String[] columns, String[] keys, String[] updates, String[] inserts) {
+        this.dialect.appendUpsert(this.query, tableName, columns, keys, updates, inserts);
 
         return this;
     }
@@ -190,6 +327,34 @@ public final class QueryBuilder {
         return this;
     }
 
+    /**
+     * Appends an UPDATE statement to the query where each column is either
+     * assigned a value or, if it has an arithmetic operator, its current value
+     * combined with the bound value.
+     *
+     * @param tableName The table name to perform update to
+     * @param columns The columns to assign
+     * @param arithmetics The operator of each column's relative assignment,
+     * or null for an absolute assignment
+     * @return this instance for further processing
+     */
+    public QueryBuilder update(String tableName, String[] columns, Arithmetic[] arithmetics) {
+        this.query.append("UPDATE ").append(tableName).append(" SET ");
+
+        for (int i = 0; i < columns.length; i++) {
+            this.query.append(wrap(columns[i])).append(" = ");
+
+            if (arithmetics[i] != null) {
+                this.query.append(wrap(columns[i])).append(' ').append(arithmetics[i]).append(' ');
+            }
+
+            this.query.append('?');
+            this.query.append(i + 1 < columns.length ? ", " : " ");
+        }
+
+        return this;
+    }
+
     /**
      * Appends a DELETE statement to the query.
      *
@@ -202,15 +367,27 @@ public final class QueryBuilder {
         return this;
     }
 
+    /**
+     * Appends a DELETE statement removing at most a bound number of the rows
+     * matching the provided expressions, as rendered by the dialect. The row
+     * limit placeholder is bound before the expressions if
+     * {@link Dialect#isDeleteLimitFirst()} holds, and after them otherwise.
+     *
+     * @param tableName The name of the table to perform delete to
+     * @param primaryColumn The primary key column of the table
+     * @param expressions The expressions selecting the rows to delete
+     * @return this instance for further processing
+     * @throws SQLFeatureNotSupportedException if the dialect does not support limited deletes
+     */
+    public QueryBuilder delete(String tableName, String primaryColumn, Expression[] expressions) throws SQLFeatureNotSupportedException {
+        String condition = new QueryBuilder(this.dialect).where(expressions).query.toString();
+        this.dialect.appendLimitedDelete(this.query, tableName, primaryColumn, condition);
+
+        return this;
+    }
+
     private String wrap(String text) {
-        switch (this.connectionEngine) {
-            case SQL_SERVER:
-                return '"' + text + '"';
-            case MYSQL:
-                return '`' + text + '`';
-            default:
-                return text;
-        }
+        return this.dialect.quote(text);
     }
 
     /**
@@ -0,0 +1,504 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.util;
+
+import github.andriantony.periscope.type.CacheStatistics;
+import github.andriantony.periscope.type.ColumnDefinition;
+import github.andriantony.periscope.type.EntityMetadata;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Modifier;
+import github.andriantony.periscope.type.ReferenceDefinition;
+import github.andriantony.periscope.type.Sort;
+import github.andriantony.periscope.type.TableReference;
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of list results keyed by the queried class and every part of the {@link Modifier} that shapes the
+ * query, including the bound values.
+ * <p>
+ * Each result is indexed under the table it was read from and every table reachable from it through a
+ * {@link github.andriantony.periscope.annotation.Reference}, transitively. A write to a table evicts every result
+ * indexed under that table, so a result holding included rows never outlives a write to them. Every table has its
+ * own generation, advanced by each write to it; a result is only stored if none of the tables it depends on was
+ * written since the query started, so writes to unrelated tables do not keep results out of the cache.
+ * </p>
+ * <p>
+ * Results are copied in and out, so callers always receive fresh instances they are free to modify. Results are
+ * spread over up to 16 segments, each guarded by its own lock and dropping its least recently used result when full.
+ * Small caches use a single segment.
+ * </p>
+ *
+ * @author Andriantony
+ */
+public final class QueryCache {
+
+    private static final int MAXIMUM_SEGMENTS = 16;
+    private static final int RESULTS_PER_SEGMENT = 16;
+
+    private final ConcurrentHashMap<String, Set<List<Object>>> index = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final AtomicLong clears = new AtomicLong();
+    private final ClassValue<Set<String>> tables = new ClassValue<Set<String>>() {
+        @Override
+        protected Set<String> computeValue(Class<?> type) {
+            return reachableTables(type);
+        }
+    };
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile Segment[] segments;
+    private volatile int maximumSize;
+    private volatile long defaultTtlNanos;
+
+    /**
+     * Creates a new cache holding at most the given number of results.
+     *
+     * @param maximumSize The maximum number of cached results, or 0 to disable caching
+     */
+    public QueryCache(int maximumSize) {
+        setMaximumSize(maximumSize);
+    }
+
+    /**
+     * Returns the key of a list of the given class with the given modifier. Values are copied, so later changes to
+     * the modifier's expressions do not affect the key.
+     *
+     * @param table The queried class
+     * @param modifier The modifier of the query
+     * @return the key of the query
+     */
+    public List<Object> key(Class<?> table, Modifier modifier) {
+        List<Object> key = new ArrayList<>();
+        key.add(table);
+        describe(key, modifier);
+        return key;
+    }
+
+    /**
+     * Returns a copy of the cached result of the given query.
+     *
+     * @param <T> The queried class
+     * @param key The key of the query
+     * @return a new list of new instances, or null if the result is not cached or has expired
+     * @throws InstantiationException if a cached class can not be instantiated
+     * @throws IllegalAccessException if a mapped field can not be accessed
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(List<Object> key) throws InstantiationException, IllegalAccessException {
+        List<?> results = segment(segments, key).get(key);
+
+        if (results == null) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return (List<T>) copy(results);
+    }
+
+    /**
+     * Returns the current generation of the tables a result of the given class depends on. Take it before running a
+     * query whose result will be passed to {@link #put(List, Class, List, long, long)}.
+     *
+     * @param table The queried class
+     * @return the current generation
+     */
+    public long generation(Class<?> table) {
+        long generation = clears.get();
+
+        for (String dependency : tables.get(table)) {
+            AtomicLong counter = generations.get(dependency);
+
+            if (counter != null) {
+                generation += counter.get();
+            }
+        }
+
+        return generation;
+    }
+
+    /**
+     * Stores a copy of the result of the given query unless a table it depends on was written since the given
+     * generation.
+     *
+     * @param key The key of the query
+     * @param table The queried class
+     * @param results The result
+     * @param ttl The time to keep the result in milliseconds, or 0 to use the default
+     * @param stamp The generation of the queried class taken before the query ran
+     * @throws InstantiationException if a cached class can not be instantiated
+     * @throws IllegalAccessException if a mapped field can not be accessed
+     */
+    public void put(List<Object> key, Class<?> table, List<?> results, long ttl, long stamp) throws InstantiationException, IllegalAccessException {
+        Segment[] current = segments;
+
+        if (maximumSize == 0 || generation(table) != stamp) {
+            return;
+        }
+
+        long ttlNanos = ttl > 0 ? TimeUnit.MILLISECONDS.toNanos(ttl) : defaultTtlNanos;
+        Segment segment = segment(current, key);
+
+        segment.put(key, new Entry(copy(results), ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0));
+
+        // A write that started before the result was indexed may have missed it
+        if (generation(table) != stamp) {
+            segment.remove(key);
+        }
+    }
+
+    /**
+     * Evicts every result that may hold rows of the given class's table. Results of other tables the class
+     * references are kept, since the write did not change them.
+     *
+     * @param table The written class
+     */
+    public void invalidate(Class<?> table) {
+        String tableName = MetadataRegistry.get(table).getTableName();
+
+        if (tableName == null) {
+            return;
+        }
+
+        String name = tableName.toLowerCase(Locale.ROOT);
+        generations.computeIfAbsent(name, dependency -> new AtomicLong()).incrementAndGet();
+
+        Set<List<Object>> keys = index.remove(name);
+
+        if (keys != null) {
+            Segment[] current = segments;
+
+            for (List<Object> key : keys) {
+                segment(current, key).remove(key);
+            }
+        }
+    }
+
+    /**
+     * Evicts every result.
+     */
+    public void clear() {
+        clears.incrementAndGet();
+
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Sets the maximum number of cached results. Every cached result is dropped.
+     *
+     * @param maximumSize The maximum number of cached results, or 0 to disable caching
+     */
+    public synchronized void setMaximumSize(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Maximum size must not be negative");
+        }
+
+        int count = Integer.highestOneBit(Math.max(1, Math.min(MAXIMUM_SEGMENTS, maximumSize / RESULTS_PER_SEGMENT)));
+        Segment[] replacement = new Segment[count];
+
+        for (int i = 0; i < count; i++) {
+            replacement[i] = new Segment(maximumSize / count);
+        }
+
+        Segment[] previous = segments;
+        this.maximumSize = maximumSize;
+        this.segments = replacement;
+        clears.incrementAndGet();
+
+        if (previous != null) {
+            for (Segment segment : previous) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Sets the time a result is kept when the query does not specify one.
+     *
+     * @param defaultTtl The time in milliseconds, or 0 to keep results until they are evicted
+     */
+    public void setDefaultTtl(long defaultTtl) {
+        if (defaultTtl < 0) {
+            throw new IllegalArgumentException("Time to live must not be negative");
+        }
+
+        this.defaultTtlNanos = TimeUnit.MILLISECONDS.toNanos(defaultTtl);
+    }
+
+    public long getDefaultTtl() {
+        return TimeUnit.NANOSECONDS.toMillis(defaultTtlNanos);
+    }
+
+    public CacheStatistics getStatistics() {
+        int size = 0;
+
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+
+        return new CacheStatistics(size, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private static Segment segment(Segment[] segments, List<Object> key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    private void index(List<Object> key) {
+        for (String dependency : tables.get((Class<?>) key.get(0))) {
+            index.computeIfAbsent(dependency, name -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    private void unindex(List<Object> key) {
+        for (String dependency : tables.get((Class<?>) key.get(0))) {
+            Set<List<Object>> keys = index.get(dependency);
+
+            // Emptied sets are kept, since a concurrent put may be adding to them
+            if (keys != null) {
+                keys.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Copies the entities of a result, with their column values and loaded references, into new instances. An
+     * instance reachable several times is copied once.
+     */
+    private static List<Object> copy(List<?> results) throws InstantiationException, IllegalAccessException {
+        Map<Object, Object> copies = new IdentityHashMap<>();
+        List<Object> copied = new ArrayList<>(results.size());
+
+        for (Object entity : results) {
+            copied.add(copy(entity, copies));
+        }
+
+        return copied;
+    }
+
+    private static Object copy(Object entity, Map<Object, Object> copies) throws InstantiationException, IllegalAccessException {
+        if (entity == null) {
+            return null;
+        }
+
+        Object copied = copies.get(entity);
+
+        if (copied != null) {
+            return copied;
+        }
+
+        EntityMetadata metadata = MetadataRegistry.get(entity.getClass());
+        RowMapper<Object> mapper = RowMapper.of(entity.getClass(), new String[0]);
+        copied = mapper.newInstance();
+        copies.put(entity, copied);
+
+        for (ColumnDefinition column : metadata.getColumns().values()) {
+            Object value = column.getField().get(entity);
+            column.getField().set(copied, value instanceof byte[] ? ((byte[]) value).clone() : value);
+        }
+
+        for (ReferenceDefinition reference : metadata.getReferences().values()) {
+            Object value = reference.getField().get(entity);
+
+            if (value instanceof Collection) {
+                List<Object> children = new ArrayList<>(((Collection<?>) value).size());
+
+                for (Object child : (Collection<?>) value) {
+                    children.add(copy(child, copies));
+                }
+
+                reference.getField().set(copied, children);
+            } else {
+                reference.getField().set(copied, copy(value, copies));
+            }
+        }
+
+        return copied;
+    }
+
+    private static void describe(List<Object> key, Modifier modifier) {
+        key.add(Arrays.asList(modifier.getColumns()));
+
+        for (Expression expression : modifier.getExpressions()) {
+            key.add(Arrays.asList(expression.getKey(), expression.getOperator(), expression.getConjunction(), copyValue(expression.getValue())));
+        }
+
+        for (Sort sort : modifier.getSorts()) {
+            key.add(Arrays.asList(sort.getColumn(), sort.getDirection()));
+        }
+
+        key.add(Arrays.asList(modifier.getLimit(), modifier.getOffset(), copyValue(modifier.getSeek())));
+
+        for (TableReference reference : modifier.getReferences()) {
+            List<Object> nested = new ArrayList<>();
+            nested.add(reference.getName());
+            describe(nested, reference.getModifier());
+            key.add(nested);
+        }
+    }
+
+    /**
+     * Copies arrays and collections into lists so the key compares bound values by content.
+     */
+    private static Object copyValue(Object value) {
+        if (value instanceof Collection) {
+            return new ArrayList<>((Collection<?>) value);
+        }
+
+        if (value != null && value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            List<Object> values = new ArrayList<>(length);
+
+            for (int i = 0; i < length; i++) {
+                values.add(copyValue(Array.get(value, i)));
+            }
+
+            return values;
+        }
+
+        return value;
+    }
+
+    private static Set<String> reachableTables(Class<?> type) {
+        Set<String> names = new HashSet<>();
+        Set<Class<?>> visited = new HashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.add(type);
+
+        while (!pending.isEmpty()) {
+            Class<?> current = pending.poll();
+
+            if (!visited.add(current)) {
+                continue;
+            }
+
+            EntityMetadata metadata = MetadataRegistry.get(current);
+
+            if (metadata.getTableName() != null) {
+                names.add(metadata.getTableName().toLowerCase(Locale.ROOT));
+            }
+
+            for (ReferenceDefinition reference : metadata.getReferences().values()) {
+                pending.add(reference.getReference().target());
+            }
+        }
+
+        return Collections.unmodifiableSet(names);
+    }
+
+    private static final class Entry {
+
+        private final List<?> results;
+        private final long expiresAt;
+
+        private Entry(List<?> results, long expiresAt) {
+            this.results = results;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * A share of the results, dropping its least recently used result when full. Keys are indexed under their
+     * tables while the segment's lock is held, so the index never lists a key the segment already dropped.
+     */
+    private final class Segment {
+
+        private final LinkedHashMap<List<Object>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final int maximumSize;
+
+        private Segment(int maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        private synchronized List<?> get(List<Object> key) {
+            Entry entry = entries.get(key);
+
+            if (entry != null && entry.expiresAt != 0 && entry.expiresAt - System.nanoTime() <= 0) {
+                remove(key);
+                entry = null;
+            }
+
+            return entry != null ? entry.results : null;
+        }
+
+        private synchronized void put(List<Object> key, Entry entry) {
+            if (entries.put(key, entry) == null) {
+                index(key);
+            }
+
+            Iterator<List<Object>> iterator = entries.keySet().iterator();
+
+            while (entries.size() > maximumSize) {
+                List<Object> eldest = iterator.next();
+                iterator.remove();
+                unindex(eldest);
+                evictions.increment();
+            }
+        }
+
+        private synchronized void remove(List<Object> key) {
+            if (entries.remove(key) != null) {
+                unindex(key);
+            }
+        }
+
+        private synchronized void clear() {
+            for (List<Object> key : entries.keySet()) {
+                unindex(key);
+            }
+
+            entries.clear();
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+    }
+
+}
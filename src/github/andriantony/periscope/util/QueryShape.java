@@ -0,0 +1,186 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.util;
+
+import github.andriantony.periscope.dialect.Dialect;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Sort;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An immutable description of everything that affects the rendered text of a query, used as the key of {@link SqlCache}.
+ * Bound values are not part of the shape, except for the number of placeholders they expand into; the engine pads IN
+ * lists to powers of two so that lists of similar length map to one shape.
+ *
+ * @author Andriantony
+ */
+public final class QueryShape {
+
+    /**
+     * The kind of statement described by a shape.
+     */
+    public enum Kind {
+        SELECT,
+        FUNCTION,
+        INSERT,
+        UPDATE,
+        DELETE,
+        UPSERT
+    }
+
+    private static final String[] NO_STRINGS = new String[0];
+    private static final Object[] NO_OBJECTS = new Object[0];
+    private static final int[] NO_COUNTS = new int[0];
+
+    private final Kind kind;
+    private final Object variant;
+    private final Dialect dialect;
+    private final String table;
+    private final String[] columns;
+    private final String[] keys;
+    private final Object[] operators;
+    private final int[] parameterCounts;
+    private final Object[] sorts;
+    private final int seek;
+    private final boolean paged;
+    private final int hash;
+
+    /**
+     * Creates a new shape.
+     *
+     * @param kind The kind of statement
+     * @param variant Any additional value that affects the rendered text, such as the aggregate function, or null
+     * @param dialect The dialect the query is rendered for
+     * @param table The name of the target table
+     * @param columns The selected or written columns
+     * @param expressions The expressions of the WHERE clause
+     * @param sorts The ORDER BY directives
+     */
+    public QueryShape(Kind kind, Object variant, Dialect dialect, String table, String[] columns, Expression[] expressions, Sort[] sorts) {
+        this(kind, variant, dialect, table, columns, expressions, sorts, 0, false);
+    }
+
+    /**
+     * Creates a new shape of a paged query.
+     *
+     * @param kind The kind of statement
+     * @param variant Any additional value that affects the rendered text, such as the aggregate function, or null
+     * @param dialect The dialect the query is rendered for
+     * @param table The name of the target table
+     * @param columns The selected or written columns
+     * @param expressions The expressions of the WHERE clause
+     * @param sorts The ORDER BY directives
+     * @param seek The number of leading sort columns covered by a keyset condition
+     * @param paged Whether a row limiting clause is appended
+     */
+    public QueryShape(Kind kind, Object variant, Dialect dialect, String table, String[] columns, Expression[] expressions, Sort[] sorts, int seek, boolean paged) {
+        this.kind = kind;
+        this.seek = seek;
+        this.paged = paged;
+        this.variant = variant;
+        this.dialect = dialect;
+        this.table = table;
+        this.columns = columns.clone();
+        this.keys = expressions.length > 0 ? new String[expressions.length] : NO_STRINGS;
+        this.operators = expressions.length > 0 ? new Object[expressions.length * 2] : NO_OBJECTS;
+        this.parameterCounts = expressions.length > 0 ? new int[expressions.length] : NO_COUNTS;
+        this.sorts = sorts.length > 0 ? new Object[sorts.length * 2] : NO_OBJECTS;
+
+        for (int i = 0; i < expressions.length; i++) {
+            this.keys[i] = expressions[i].getKey();
+            this.operators[i * 2] = expressions[i].getOperator();
+            this.operators[i * 2 + 1] = expressions[i].getConjunction();
+            this.parameterCounts[i] = expressions[i].getParameterCount();
+        }
+
+        for (int i = 0; i < sorts.length; i++) {
+            this.sorts[i * 2] = sorts[i].getColumn();
+            this.sorts[i * 2 + 1] = sorts[i].getDirection();
+        }
+
+        int result = kind.hashCode();
+        result = 31 * result + Objects.hashCode(variant);
+        result = 31 * result + Objects.hashCode(dialect);
+        result = 31 * result + Objects.hashCode(table);
+        result = 31 * result + Arrays.hashCode(this.columns);
+        result = 31 * result + Arrays.hashCode(this.keys);
+        result = 31 * result + Arrays.hashCode(this.operators);
+        result = 31 * result + Arrays.hashCode(this.parameterCounts);
+        result = 31 * result + Arrays.hashCode(this.sorts);
+        result = 31 * result + seek;
+        result = 31 * result + (paged ? 1 : 0);
+        this.hash = result;
+    }
+
+    /**
+     * Returns the kind of statement described by this shape.
+     *
+     * @return the kind of statement
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the name of the target table.
+     *
+     * @return the name of the target table
+     */
+    public String getTable() {
+        return table;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof QueryShape)) {
+            return false;
+        }
+
+        QueryShape other = (QueryShape) obj;
+
+        return hash == other.hash
+                && kind == other.kind
+                && seek == other.seek
+                && paged == other.paged
+                && dialect == other.dialect
+                && Objects.equals(variant, other.variant)
+                && Objects.equals(table, other.table)
+                && Arrays.equals(columns, other.columns)
+                && Arrays.equals(keys, other.keys)
+                && Arrays.equals(operators, other.operators)
+                && Arrays.equals(parameterCounts, other.parameterCounts)
+                && Arrays.equals(sorts, other.sorts);
+    }
+
+}
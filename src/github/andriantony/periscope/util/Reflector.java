@@ -23,27 +23,25 @@
  */
 package github.andriantony.periscope.util;
 
-import github.andriantony.periscope.annotation.Column;
-import github.andriantony.periscope.annotation.Primary;
 import github.andriantony.periscope.annotation.Reference;
-import github.andriantony.periscope.annotation.Table;
 import github.andriantony.periscope.constant.Relation;
 import github.andriantony.periscope.exception.NoAnnotationException;
 import github.andriantony.periscope.exception.NoSuchColumnException;
 import github.andriantony.periscope.type.ColumnDefinition;
+import github.andriantony.periscope.type.EntityMetadata;
 import github.andriantony.periscope.type.Expression;
 import github.andriantony.periscope.type.FieldReference;
+import github.andriantony.periscope.type.ReferenceDefinition;
 import github.andriantony.periscope.type.TableReference;
 import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Supplier;
-import java.util.stream.Stream;
 
 /**
  *
@@ -53,47 +51,61 @@ public final class Reflector {
 
     private final Verificator verificator = new Verificator();
 
+    public EntityMetadata getMetadata(Class<?> table) {
+        return MetadataRegistry.get(table);
+    }
+
     public String getTableName(Class<?> table) throws NoAnnotationException {
         verificator.verifyTableAnnotation(table);
-        return table.getAnnotation(Table.class).name();
+        return MetadataRegistry.get(table).getTableName();
     }
 
     public LinkedHashMap<String, ColumnDefinition> getColumnMap(Class<?> table) throws NoAnnotationException {
-        LinkedHashMap<String, ColumnDefinition> columnMap = new LinkedHashMap<>();
-
-        for (Field field : table.getDeclaredFields()) {
-            if (field.isAnnotationPresent(Column.class)) {
-                field.setAccessible(true);
-                columnMap.put(field.getAnnotation(Column.class).name(), new ColumnDefinition(field));
-            }
-        }
-
-        return columnMap;
+        return new LinkedHashMap<>(getColumns(table));
     }
     
     public LinkedHashMap<String, ColumnDefinition> getColumnMap(Class<?> table, String[] columns) throws NoAnnotationException {
+        return new LinkedHashMap<>(getColumns(table, columns));
+    }
+
+    /**
+     * Returns the cached column definitions of the class by column name, in
+     * declaration order. Unlike {@link #getColumnMap(Class)} the map is shared
+     * and must not be modified.
+     *
+     * @param table The mapped class
+     * @return the read-only column definitions of the class
+     * @throws NoAnnotationException if the class does not have the Table annotation
+     */
+    public Map<String, ColumnDefinition> getColumns(Class<?> table) throws NoAnnotationException {
+        return MetadataRegistry.get(table).getColumns();
+    }
+
+    /**
+     * Returns the definitions of the given columns, or the cached insertable
+     * columns of the class if none are given. Unlike
+     * {@link #getColumnMap(Class, String[])} the map may be shared and must
+     * not be modified.
+     *
+     * @param table The mapped class
+     * @param columns The column names to select, or an empty array for every insertable column
+     * @return the read-only column definitions
+     * @throws NoAnnotationException if the class does not have the Table annotation
+     */
+    public Map<String, ColumnDefinition> getColumns(Class<?> table, String[] columns) throws NoAnnotationException {
+        EntityMetadata metadata = MetadataRegistry.get(table);
+
+        if (columns.length == 0) {
+            return metadata.getInsertableColumns();
+        }
+
         LinkedHashMap<String, ColumnDefinition> columnMap = new LinkedHashMap<>();
-        Supplier<Stream<String>> streamSupplier = () -> Arrays.stream(columns);
 
-        if (columns.length > 0) {
-            for (Field field : table.getDeclaredFields()) {
-                if (field.isAnnotationPresent(Column.class) && streamSupplier.get().filter(col -> col.equals(field.getAnnotation(Column.class).name())).findFirst().isPresent()) {
-                    field.setAccessible(true);
-                    columnMap.put(field.getAnnotation(Column.class).name(), new ColumnDefinition(field));
-                }
-            }
-        } else {
-            for (Field field : table.getDeclaredFields()) {
-                if (field.isAnnotationPresent(Column.class)) {
-                    if (!field.isAnnotationPresent(Primary.class)) {
-                        field.setAccessible(true);
-                        columnMap.put(field.getAnnotation(Column.class).name(), new ColumnDefinition(field));
-                    } else {
-                        if (!field.getAnnotation(Primary.class).auto()) {
-                            field.setAccessible(true);
-                            columnMap.put(field.getAnnotation(Column.class).name(), new ColumnDefinition(field));
-                        }
-                    }
+        for (Map.Entry<String, ColumnDefinition> entry : metadata.getColumns().entrySet()) {
+            for (String column : columns) {
+                if (column.equals(entry.getKey())) {
+                    columnMap.put(entry.getKey(), entry.getValue());
+                    break;
                 }
             }
         }
@@ -101,97 +113,109 @@ public final class Reflector {
         return columnMap;
     }
     
-    public LinkedHashMap<String, ColumnDefinition> getUniqueMap(LinkedHashMap<String, ColumnDefinition> columnMap) {
+    public LinkedHashMap<String, ColumnDefinition> getUniqueMap(Map<String, ColumnDefinition> columnMap) {
         LinkedHashMap<String, ColumnDefinition> uniqueMap = new LinkedHashMap<>();
         
-        for (Map.Entry<String, ColumnDefinition> entry : columnMap.entrySet())
-            if (entry.getValue().getColumn().unique())
+        for (Map.Entry<String, ColumnDefinition> entry : columnMap.entrySet()) {
+            if (entry.getValue().getColumn().unique()) {
                 uniqueMap.put(entry.getKey(), entry.getValue());
+            }
+        }
         
         return uniqueMap;
     }
     
-    public String[] toColumnArray(LinkedHashMap<String, ColumnDefinition> columnMap) {
-        List<String> columnList = new ArrayList<>();
-        
-        for (Map.Entry<String, ColumnDefinition> entry : columnMap.entrySet())
-            columnList.add(entry.getKey());
-        
-        return columnList.toArray(new String[0]);
+    public String[] toColumnArray(Map<String, ColumnDefinition> columnMap) {
+        return columnMap.keySet().toArray(new String[columnMap.size()]);
     }
     
     public Expression getPrimaryExpression(Object entity) throws IllegalAccessException {
-        Expression expression = null;
-
-        for (Field field : entity.getClass().getDeclaredFields()) {
-            field.setAccessible(true);
-
-            if (field.isAnnotationPresent(Column.class) && field.isAnnotationPresent(Primary.class)) {
-                expression = new Expression(field.getAnnotation(Column.class).name(), field.get(entity));
-            }
-        }
+        ColumnDefinition primary = MetadataRegistry.get(entity.getClass()).getPrimary();
 
-        return expression;
+        return primary != null ? new Expression(primary.getColumn().name(), primary.getField().get(entity)) : null;
     }
     
     public Field getPrimaryColumn(Class<?> table) throws NoSuchColumnException {
-        Field column = null;
+        Field primaryField = MetadataRegistry.get(table).getPrimaryField();
 
-        for (Field field : table.getDeclaredFields()) {
-            if (field.isAnnotationPresent(Primary.class)) {
-                column = field;
-                column.setAccessible(true);
-            }
-        }
-
-        if (column != null) {
-            return column;
+        if (primaryField != null) {
+            return primaryField;
         } else {
             throw new NoSuchColumnException("This model does not have a primary key column");
         }
     }
     
-    @SuppressWarnings("unchecked")
-    public <T> T parse(Class<?> table, LinkedHashMap<String, ColumnDefinition> columnMap, String[] columns, ResultSet rs) throws ClassNotFoundException, SQLException, IllegalAccessException, InstantiationException {
-        Object result = Class.forName(table.getTypeName()).newInstance();
-        
-        if (columns.length > 0) {
-            for (String column : columns) {
-                columnMap.get(column).getField().set(result, rs.getObject(column));
-            }
-        } else {
-            for (Map.Entry<String, ColumnDefinition> columnDefEntry : columnMap.entrySet()) {
-                columnDefEntry.getValue().getField().set(result, rs.getObject(columnDefEntry.getKey()));
+    public void setPrimaryValue(Object entity, Object value) throws IllegalAccessException {
+        ColumnDefinition primary = MetadataRegistry.get(entity.getClass()).getPrimary();
+
+        if (primary == null || value == null) {
+            return;
+        }
+
+        Field field = primary.getField();
+        Class<?> type = field.getType();
+
+        if (value instanceof Number) {
+            Number number = (Number) value;
+
+            if (type == Integer.class || type == int.class) {
+                value = number.intValue();
+            } else if (type == Long.class || type == long.class) {
+                value = number.longValue();
+            } else if (type == Short.class || type == short.class) {
+                value = number.shortValue();
+            } else if (type == BigInteger.class) {
+                value = BigInteger.valueOf(number.longValue());
+            } else if (type == BigDecimal.class) {
+                value = new BigDecimal(number.toString());
+            } else if (type == String.class) {
+                value = number.toString();
             }
         }
+
+        field.set(entity, value);
+    }
+    
+    public Object getKey(Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
         
-        return (T) result;
+        return value;
     }
     
-    public FieldReference[] getReferences(Class<?> table, TableReference[] tableReferences, LinkedHashMap<String, ColumnDefinition> columnMap) {
+    public <T> RowMapper<T> getRowMapper(Class<?> table, String[] columns) throws InstantiationException, IllegalAccessException {
+        return RowMapper.of(table, columns);
+    }
+    
+    public <T> T parse(Class<?> table, Map<String, ColumnDefinition> columnMap, String[] columns, ResultSet rs) throws ClassNotFoundException, SQLException, IllegalAccessException, InstantiationException {
+        RowMapper<T> mapper = RowMapper.of(table, columns);
+        
+        return mapper.map(rs, mapper.resolve(rs));
+    }
+    
+    public FieldReference[] getReferences(Class<?> table, TableReference[] tableReferences, Map<String, ColumnDefinition> columnMap) {
         List<FieldReference> fieldReferences = new ArrayList<>();
         
-        for (Field field : table.getDeclaredFields()) {
-            if (field.isAnnotationPresent(Reference.class)) {
-                Reference reference = field.getAnnotation(Reference.class);
-                String referenceName = reference.name();
-                
-                TableReference tableReference = Arrays.stream(tableReferences).filter(tblRef -> tblRef.getName().equals(referenceName)).findFirst().orElse(null);
-                
-                if (tableReference != null) {
-                    Field sourceField = columnMap.get(reference.source()).getField();
-                    Class<?> targetClass = reference.target();
-                    Relation relation = reference.relation();
-                    
-                    Expression[] baseExpression = new Expression[] {new Expression(reference.refer(), null)};
-                    Expression[] finalExpression = Stream.of(baseExpression, tableReference.getModifier().getExpressions()).flatMap(Stream::of).toArray(Expression[]::new);
-                    
-                    tableReference.getModifier().express(finalExpression);
-                    field.setAccessible(true);
-                    
-                    fieldReferences.add(new FieldReference(targetClass, sourceField, field, tableReference.getModifier(), relation));
+        for (ReferenceDefinition definition : MetadataRegistry.get(table).getReferences().values()) {
+            Reference reference = definition.getReference();
+            String referenceName = reference.name();
+            TableReference tableReference = null;
+
+            for (TableReference tblRef : tableReferences) {
+                if (tblRef.getName().equals(referenceName)) {
+                    tableReference = tblRef;
+                    break;
                 }
             }
+            
+            if (tableReference != null) {
+                Field sourceField = columnMap.get(reference.source()).getField();
+                Class<?> targetClass = reference.target();
+                Relation relation = reference.relation();
+                
+                fieldReferences.add(new FieldReference(targetClass, sourceField, definition.getField(), reference.refer(), tableReference.getModifier(), relation));
+            }
         }
         
         return fieldReferences.toArray(new FieldReference[0]);
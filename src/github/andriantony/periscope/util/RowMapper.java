@@ -0,0 +1,419 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.util;
+
+import github.andriantony.periscope.type.ColumnDefinition;
+import github.andriantony.periscope.type.EntityMetadata;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A compiled mapper that converts {@link ResultSet} rows into instances of a mapped class.
+ * <p>
+ * A mapper is compiled once per class and column projection. It uses a cached no-arg constructor handle,
+ * index based column access and type specific getters, so primitive fields are assigned without boxing.
+ * </p>
+ *
+ * @author Andriantony
+ * @param <T> the mapped class
+ */
+public final class RowMapper<T> {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final ClassValue<ConcurrentMap<List<String>, RowMapper<?>>> MAPPERS = new ClassValue<ConcurrentMap<List<String>, RowMapper<?>>>() {
+        @Override
+        protected ConcurrentMap<List<String>, RowMapper<?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final MethodHandle constructor;
+    private final String[] columns;
+    private final Writer[] writers;
+    private final boolean positional;
+
+    private RowMapper(Class<?> table, String[] columns) throws InstantiationException, IllegalAccessException {
+        EntityMetadata metadata = MetadataRegistry.get(table);
+
+        try {
+            Constructor<?> noArgConstructor = table.getDeclaredConstructor();
+            noArgConstructor.setAccessible(true);
+            this.constructor = LOOKUP.unreflectConstructor(noArgConstructor).asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException e) {
+            InstantiationException exception = new InstantiationException("Class " + table.getSimpleName() + " does not have a no-arg constructor");
+            exception.initCause(e);
+            throw exception;
+        }
+
+        this.positional = columns.length > 0;
+        this.columns = positional ? columns.clone() : metadata.getColumnNames();
+        this.writers = new Writer[this.columns.length];
+
+        Map<String, ColumnDefinition> columnMap = metadata.getColumns();
+
+        for (int i = 0; i < this.columns.length; i++) {
+            ColumnDefinition column = columnMap.get(this.columns[i]);
+
+            if (column != null) {
+                this.writers[i] = Writer.of(column.getField());
+            }
+        }
+    }
+
+    /**
+     * Returns the mapper for the given class and column projection, compiling it on first use.
+     *
+     * @param <T> the mapped class
+     * @param table The mapped class
+     * @param columns The selected columns in select order, or an empty array if all columns were selected
+     * @return the mapper for the given class and column projection
+     * @throws InstantiationException if the class does not have a no-arg constructor
+     * @throws IllegalAccessException if a constructor or column field can not be accessed
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> of(Class<?> table, String[] columns) throws InstantiationException, IllegalAccessException {
+        ConcurrentMap<List<String>, RowMapper<?>> mappers = MAPPERS.get(table);
+        RowMapper<?> mapper = mappers.get(Arrays.asList(columns));
+
+        if (mapper == null) {
+            mapper = new RowMapper<>(table, columns);
+            RowMapper<?> existing = mappers.putIfAbsent(Arrays.asList(columns.clone()), mapper);
+            mapper = existing != null ? existing : mapper;
+        }
+
+        return (RowMapper<T>) mapper;
+    }
+
+    /**
+     * Resolves the column indexes of the given result set. This only needs to be done once per result set.
+     *
+     * @param rs The result set to map
+     * @return the column indexes to pass to {@link #map(ResultSet, int[])}
+     * @throws SQLException if a mapped column is missing from the result set
+     */
+    public int[] resolve(ResultSet rs) throws SQLException {
+        int[] indexes = new int[columns.length];
+
+        for (int i = 0; i < columns.length; i++) {
+            indexes[i] = positional ? i + 1 : rs.findColumn(columns[i]);
+        }
+
+        return indexes;
+    }
+
+    /**
+     * Maps the current row of the given result set into a new instance.
+     *
+     * @param rs The result set positioned on the row to map
+     * @param indexes The column indexes returned by {@link #resolve(ResultSet)}
+     * @return a new instance holding the row values
+     * @throws SQLException if a column value can not be read
+     * @throws InstantiationException if the instance can not be created
+     */
+    public T map(ResultSet rs, int[] indexes) throws SQLException, InstantiationException {
+        T result = newInstance();
+
+        try {
+            for (int i = 0; i < writers.length; i++) {
+                if (writers[i] != null) {
+                    writers[i].write(result, rs, indexes[i]);
+                }
+            }
+        } catch (SQLException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a new instance of the mapped class using its cached no-arg constructor.
+     *
+     * @return a new instance of the mapped class
+     * @throws InstantiationException if the constructor fails
+     */
+    @SuppressWarnings("unchecked")
+    public T newInstance() throws InstantiationException {
+        try {
+            return (T) (Object) constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            InstantiationException exception = new InstantiationException(t.getMessage());
+            exception.initCause(t);
+            throw exception;
+        }
+    }
+
+    private abstract static class Writer {
+
+        protected final MethodHandle setter;
+
+        private Writer(MethodHandle setter) {
+            this.setter = setter;
+        }
+
+        abstract void write(Object target, ResultSet rs, int index) throws Throwable;
+
+        static Writer of(Field field) throws IllegalAccessException {
+            Class<?> type = field.getType();
+            MethodHandle setter = LOOKUP.unreflectSetter(field);
+
+            if (type == int.class) {
+                return new IntWriter(setter.asType(MethodType.methodType(void.class, Object.class, int.class)));
+            } else if (type == long.class) {
+                return new LongWriter(setter.asType(MethodType.methodType(void.class, Object.class, long.class)));
+            } else if (type == double.class) {
+                return new DoubleWriter(setter.asType(MethodType.methodType(void.class, Object.class, double.class)));
+            } else if (type == float.class) {
+                return new FloatWriter(setter.asType(MethodType.methodType(void.class, Object.class, float.class)));
+            } else if (type == short.class) {
+                return new ShortWriter(setter.asType(MethodType.methodType(void.class, Object.class, short.class)));
+            } else if (type == byte.class) {
+                return new ByteWriter(setter.asType(MethodType.methodType(void.class, Object.class, byte.class)));
+            } else if (type == boolean.class) {
+                return new BooleanWriter(setter.asType(MethodType.methodType(void.class, Object.class, boolean.class)));
+            }
+
+            setter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+
+            if (type == String.class) {
+                return new StringWriter(setter);
+            } else if (type == Integer.class) {
+                return new BoxedIntWriter(setter);
+            } else if (type == Long.class) {
+                return new BoxedLongWriter(setter);
+            } else if (type == Double.class) {
+                return new BoxedDoubleWriter(setter);
+            } else if (type == Boolean.class) {
+                return new BoxedBooleanWriter(setter);
+            } else if (type == BigDecimal.class) {
+                return new BigDecimalWriter(setter);
+            } else {
+                return new ObjectWriter(setter);
+            }
+        }
+
+    }
+
+    private static final class IntWriter extends Writer {
+
+        IntWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, ResultSet rs, int index) throws Throwable {
+            setter.invokeExact(target, rs.getInt(index));
+        }
+
+    }
+
+    private static final class LongWriter extends Writer {
+
+        LongWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, ResultSet rs, int index) throws Throwable {
+            setter.invokeExact(target, rs.getLong(index));
+        }
+
+    }
+
+    private static final class DoubleWriter extends Writer {
+
+        DoubleWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, ResultSet rs, int index) throws Throwable {
+            setter.invokeExact(target, rs.getDouble(index));
+        }
+
+    }
+
+    private static final class FloatWriter extends Writer {
+
+        FloatWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, ResultSet rs, int index) throws Throwable {
+            setter.invokeExact(target, rs.getFloat(index));
+        }
+
+    }
+
+    private static final class ShortWriter extends Writer {
+
+        ShortWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, ResultSet rs, int index) throws Throwable {
+            setter.invokeExact(target, rs.getShort(index));
+        }
+
+    }
+
+    private static final class ByteWriter extends Writer {
+
+        ByteWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, ResultSet rs, int index) throws Throwable {
+            setter.invokeExact(target, rs.getByte(index));
+        }
+
+    }
+
+    private static final class BooleanWriter extends Writer {
+
+        BooleanWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, ResultSet rs, int index) throws Throwable {
+            setter.invokeExact(target, rs.getBoolean(index));
+        }
+
+    }
+
+    private static final class StringWriter extends Writer {
+
+        StringWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, ResultSet rs, int index) throws Throwable {
+            setter.invokeExact(target, (Object) rs.getString(index));
+        }
+
+    }
+
+    private static final class BoxedIntWriter extends Writer {
+
+        BoxedIntWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, ResultSet rs, int index) throws Throwable {
+            int value = rs.getInt(index);
+            setter.invokeExact(target, rs.wasNull() ? null : (Object) Integer.valueOf(value));
+        }
+
+    }
+
+    private static final class BoxedLongWriter extends Writer {
+
+        BoxedLongWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, ResultSet rs, int index) throws Throwable {
+            long value = rs.getLong(index);
+            setter.invokeExact(target, rs.wasNull() ? null : (Object) Long.valueOf(value));
+        }
+
+    }
+
+    private static final class BoxedDoubleWriter extends Writer {
+
+        BoxedDoubleWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, ResultSet rs, int index) throws Throwable {
+            double value = rs.getDouble(index);
+            setter.invokeExact(target, rs.wasNull() ? null : (Object) Double.valueOf(value));
+        }
+
+    }
+
+    private static final class BoxedBooleanWriter extends Writer {
+
+        BoxedBooleanWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, ResultSet rs, int index) throws Throwable {
+            boolean value = rs.getBoolean(index);
+            setter.invokeExact(target, rs.wasNull() ? null : (Object) Boolean.valueOf(value));
+        }
+
+    }
+
+    private static final class BigDecimalWriter extends Writer {
+
+        BigDecimalWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, ResultSet rs, int index) throws Throwable {
+            setter.invokeExact(target, (Object) rs.getBigDecimal(index));
+        }
+
+    }
+
+    private static final class ObjectWriter extends Writer {
+
+        ObjectWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, ResultSet rs, int index) throws Throwable {
+            setter.invokeExact(target, rs.getObject(index));
+        }
+
+    }
+
+}
@@ -0,0 +1,187 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.util;
+
+import github.andriantony.periscope.type.ColumnDefinition;
+import github.andriantony.periscope.type.EntityMetadata;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the column values of loaded entities so that an update can be limited to the columns that changed.
+ * <p>
+ * Snapshots are keyed by entity identity and held weakly, so an entity that is no longer referenced elsewhere is
+ * forgotten with its snapshot. A snapshot holds the value of every column as it was right after the entity was
+ * loaded or written, including the default values of columns that were not selected, so a column left untouched
+ * is never written back. Values are compared with {@link Objects#deepEquals(Object, Object)}; mutable values other
+ * than byte arrays must be replaced rather than modified in place for a change to be seen.
+ * </p>
+ *
+ * @author Andriantony
+ */
+public final class SnapshotStore {
+
+    private final ConcurrentHashMap<IdentityKey, Object[]> snapshots = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+    /**
+     * Records the current column values of the given entity, replacing any previous snapshot.
+     *
+     * @param entity The loaded or written entity
+     * @param metadata The metadata of the entity's class
+     * @throws IllegalAccessException if a mapped field can not be accessed
+     */
+    public void record(Object entity, EntityMetadata metadata) throws IllegalAccessException {
+        expunge();
+
+        Collection<ColumnDefinition> columns = metadata.getColumns().values();
+        Object[] values = new Object[columns.size()];
+        int index = 0;
+
+        for (ColumnDefinition column : columns) {
+            values[index++] = copy(column.getField().get(entity));
+        }
+
+        snapshots.put(new IdentityKey(entity, queue), values);
+    }
+
+    /**
+     * Updates the snapshot of the given entity for the written columns only, so other columns that changed stay
+     * dirty. Does nothing if the entity has no snapshot.
+     *
+     * @param entity The written entity
+     * @param metadata The metadata of the entity's class
+     * @param written The columns that were written
+     * @throws IllegalAccessException if a mapped field can not be accessed
+     */
+    public void refresh(Object entity, EntityMetadata metadata, Map<String, ColumnDefinition> written) throws IllegalAccessException {
+        Object[] values = snapshots.get(new IdentityKey(entity, null));
+
+        if (values == null) {
+            return;
+        }
+
+        int index = 0;
+
+        for (Map.Entry<String, ColumnDefinition> entry : metadata.getColumns().entrySet()) {
+            if (written.containsKey(entry.getKey())) {
+                values[index] = copy(entry.getValue().getField().get(entity));
+            }
+
+            index++;
+        }
+    }
+
+    /**
+     * Returns the candidate columns whose value differs from the snapshot of the given entity.
+     *
+     * @param entity The entity about to be written
+     * @param metadata The metadata of the entity's class
+     * @param candidates The columns that may be written
+     * @return the changed columns in the order of the candidates, or null if the entity has no snapshot
+     * @throws IllegalAccessException if a mapped field can not be accessed
+     */
+    public Map<String, ColumnDefinition> changed(Object entity, EntityMetadata metadata, Map<String, ColumnDefinition> candidates) throws IllegalAccessException {
+        Object[] values = snapshots.get(new IdentityKey(entity, null));
+
+        if (values == null) {
+            return null;
+        }
+
+        Map<String, ColumnDefinition> changed = new LinkedHashMap<>();
+        int index = 0;
+
+        for (Map.Entry<String, ColumnDefinition> entry : metadata.getColumns().entrySet()) {
+            Object previous = values[index++];
+
+            if (candidates.containsKey(entry.getKey()) && !Objects.deepEquals(previous, entry.getValue().getField().get(entity))) {
+                changed.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return changed;
+    }
+
+    /**
+     * Forgets the snapshot of the given entity.
+     *
+     * @param entity The deleted entity
+     */
+    public void forget(Object entity) {
+        snapshots.remove(new IdentityKey(entity, null));
+        expunge();
+    }
+
+    public int size() {
+        expunge();
+        return snapshots.size();
+    }
+
+    private void expunge() {
+        Object stale;
+
+        while ((stale = queue.poll()) != null) {
+            snapshots.remove((IdentityKey) stale);
+        }
+    }
+
+    private static Object copy(Object value) {
+        return value instanceof byte[] ? ((byte[]) value).clone() : value;
+    }
+
+    private static final class IdentityKey extends WeakReference<Object> {
+
+        private final int hash;
+
+        private IdentityKey(Object referent, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof IdentityKey)) {
+                return false;
+            }
+
+            Object referent = get();
+            return referent != null && referent == ((IdentityKey) obj).get();
+        }
+    }
+
+}
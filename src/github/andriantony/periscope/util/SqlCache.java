@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.util;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A bounded, concurrent cache of rendered SQL text keyed by {@link QueryShape}.
+ * When the cache is full, an arbitrary portion of its entries is dropped to make room.
+ *
+ * @author Andriantony
+ */
+public final class SqlCache {
+
+    private final ConcurrentHashMap<QueryShape, String> cache;
+    private final int maximumSize;
+
+    /**
+     * Creates a new cache holding at most the given number of queries.
+     *
+     * @param maximumSize The maximum number of cached queries, or 0 to disable caching
+     */
+    public SqlCache(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Maximum size must not be negative");
+        }
+
+        this.maximumSize = maximumSize;
+        this.cache = new ConcurrentHashMap<>(Math.min(maximumSize, 256));
+    }
+
+    /**
+     * Returns the cached query text of the given shape, rendering and caching it on a miss.
+     *
+     * @param shape The shape of the query
+     * @param renderer Renders the query text on a miss
+     * @return the query text
+     */
+    public String get(QueryShape shape, Supplier<String> renderer) {
+        String sql = cache.get(shape);
+
+        if (sql == null) {
+            sql = renderer.get();
+            put(shape, sql);
+        }
+
+        return sql;
+    }
+
+    /**
+     * Returns the cached query text of the given shape, for renderers that may throw checked exceptions.
+     *
+     * @param shape The shape of the query
+     * @return the query text, or null if it is not cached
+     */
+    public String get(QueryShape shape) {
+        return cache.get(shape);
+    }
+
+    /**
+     * Caches the query text of the given shape, unless a text is already cached for it.
+     *
+     * @param shape The shape of the query
+     * @param sql The rendered query text
+     */
+    public void put(QueryShape shape, String sql) {
+        if (maximumSize > 0) {
+            if (cache.size() >= maximumSize) {
+                evict();
+            }
+
+            cache.putIfAbsent(shape, sql);
+        }
+    }
+
+    /**
+     * Returns the number of cached queries.
+     *
+     * @return the number of cached queries
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Removes every cached query.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    private void evict() {
+        int excess = cache.size() - maximumSize + Math.max(1, maximumSize / 8);
+        Iterator<QueryShape> iterator = cache.keySet().iterator();
+
+        while (excess-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+}
@@ -0,0 +1,285 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.util;
+
+import github.andriantony.periscope.type.CacheStatistics;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of prepared statements, kept separately for every connection
+ * and evicting the least recently used statement when full.
+ * <p>
+ * A statement is checked out of the cache by {@link #prepare(Connection, String, int)}
+ * and returned when its {@link Lease} is closed, so threads sharing one
+ * connection never use the same statement at the same time. A connection that
+ * is closed by its pool must be passed to {@link #discard(Connection)} so its
+ * statements are released.
+ * </p>
+ *
+ * @author Andriantony
+ */
+public final class StatementCache {
+
+    private final ConcurrentHashMap<Connection, Statements> connections = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile int maximumSize;
+
+    /**
+     * Creates a new cache holding at most the given number of statements per connection.
+     *
+     * @param maximumSize The maximum number of statements per connection, or 0 to disable caching
+     */
+    public StatementCache(int maximumSize) {
+        setMaximumSize(maximumSize);
+    }
+
+    /**
+     * Checks out a statement for the given query, preparing it on a miss.
+     *
+     * @param connection The connection to prepare the statement on
+     * @param sql The query text
+     * @param autoGeneratedKeys Whether generated keys should be returned, as accepted by
+     * {@link Connection#prepareStatement(String, int)}
+     * @return a lease that returns the statement to the cache when closed
+     * @throws SQLException if the statement can not be prepared
+     */
+    public Lease prepare(Connection connection, String sql, int autoGeneratedKeys) throws SQLException {
+        if (maximumSize == 0) {
+            return new Lease(null, null, connection.prepareStatement(sql, autoGeneratedKeys));
+        }
+
+        Key key = new Key(sql, autoGeneratedKeys);
+        Statements statements = connections.computeIfAbsent(connection, c -> new Statements());
+        PreparedStatement statement = statements.take(key);
+
+        if (statement != null) {
+            hits.increment();
+            return new Lease(statements, key, statement);
+        }
+
+        misses.increment();
+        return new Lease(statements, key, connection.prepareStatement(sql, autoGeneratedKeys));
+    }
+
+    /**
+     * Closes and forgets every statement cached for the given connection.
+     *
+     * @param connection The connection being closed
+     */
+    public void discard(Connection connection) {
+        Statements statements = connections.remove(connection);
+
+        if (statements != null) {
+            statements.clear();
+        }
+    }
+
+    /**
+     * Closes and forgets every cached statement.
+     */
+    public void clear() {
+        for (Connection connection : connections.keySet()) {
+            discard(connection);
+        }
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Sets the maximum number of statements cached per connection. Extra statements are closed as they are
+     * returned.
+     *
+     * @param maximumSize The maximum number of statements per connection, or 0 to disable caching
+     */
+    public void setMaximumSize(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Maximum size must not be negative");
+        }
+
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Returns a snapshot of the cache's counters. The size is the number of idle statements over all connections.
+     *
+     * @return a snapshot of the cache's counters
+     */
+    public CacheStatistics getStatistics() {
+        int size = 0;
+
+        for (Statements statements : connections.values()) {
+            size += statements.size();
+        }
+
+        return new CacheStatistics(size, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private static void close(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // The statement is being dropped either way
+        }
+    }
+
+    /**
+     * A statement checked out of the cache.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final Statements statements;
+        private final Key key;
+        private final PreparedStatement statement;
+
+        private Lease(Statements statements, Key key, PreparedStatement statement) {
+            this.statements = statements;
+            this.key = key;
+            this.statement = statement;
+        }
+
+        public PreparedStatement getStatement() {
+            return statement;
+        }
+
+        /**
+         * Returns the statement to the cache with its parameters and batch cleared, or closes it if caching is
+         * disabled or the statement can not be reset.
+         */
+        @Override
+        public void close() {
+            if (statements == null || maximumSize == 0) {
+                StatementCache.close(statement);
+                return;
+            }
+
+            try {
+                if (statement.isClosed()) {
+                    return;
+                }
+
+                statement.clearParameters();
+                statement.clearBatch();
+            } catch (SQLException e) {
+                StatementCache.close(statement);
+                return;
+            }
+
+            statements.put(key, statement);
+        }
+    }
+
+    private final class Statements {
+
+        private final LinkedHashMap<Key, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+        private synchronized PreparedStatement take(Key key) {
+            return statements.remove(key);
+        }
+
+        private void put(Key key, PreparedStatement statement) {
+            List<PreparedStatement> dropped = new ArrayList<>(1);
+
+            synchronized (this) {
+                PreparedStatement previous = statements.put(key, statement);
+
+                if (previous != null) {
+                    dropped.add(previous);
+                }
+
+                Iterator<PreparedStatement> eldest = statements.values().iterator();
+
+                while (statements.size() > maximumSize && eldest.hasNext()) {
+                    dropped.add(eldest.next());
+                    eldest.remove();
+                    evictions.increment();
+                }
+            }
+
+            for (PreparedStatement stale : dropped) {
+                StatementCache.close(stale);
+            }
+        }
+
+        private synchronized int size() {
+            return statements.size();
+        }
+
+        private void clear() {
+            List<PreparedStatement> dropped;
+
+            synchronized (this) {
+                dropped = new ArrayList<>(statements.values());
+                statements.clear();
+            }
+
+            for (PreparedStatement statement : dropped) {
+                StatementCache.close(statement);
+            }
+        }
+    }
+
+    private static final class Key {
+
+        private final String sql;
+        private final int autoGeneratedKeys;
+
+        private Key(String sql, int autoGeneratedKeys) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sql.hashCode() + autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return autoGeneratedKeys == other.autoGeneratedKeys && Objects.equals(sql, other.sql);
+        }
+    }
+
+}
@@ -23,17 +23,17 @@
  */
 package github.andriantony.periscope.util;
 
-import github.andriantony.periscope.annotation.Table;
 import github.andriantony.periscope.constant.WritePermission;
 import github.andriantony.periscope.exception.IllegalOperationException;
 import github.andriantony.periscope.exception.NoAnnotationException;
+import github.andriantony.periscope.exception.NoSuchColumnException;
 import github.andriantony.periscope.exception.NotNullableException;
 import github.andriantony.periscope.exception.OverLimitException;
 import github.andriantony.periscope.exception.UniqueFieldViolationException;
+import github.andriantony.periscope.type.Assignment;
 import github.andriantony.periscope.type.ColumnDefinition;
 import java.lang.reflect.Field;
-import java.util.Arrays;
-import java.util.LinkedHashMap;
+import java.sql.SQLException;
 import java.util.Map;
 
 /**
@@ -43,7 +43,7 @@ import java.util.Map;
 public final class Verificator {
     
     public void verifyTableAnnotation(Class<?> table) throws NoAnnotationException {
-        if (!table.isAnnotationPresent(Table.class)) {
+        if (MetadataRegistry.get(table).getTableName() == null) {
             throw new NoAnnotationException("Class " + table.getSimpleName() + " does not have the Table annotation");
         }
     }
@@ -51,13 +51,12 @@ public final class Verificator {
     public void verifyPermission(Class<?> table, WritePermission permission) throws NoAnnotationException, IllegalOperationException {
         verifyTableAnnotation(table);
         
-        WritePermission[] permissions = table.getAnnotation(Table.class).writePermissions();
-        if (!Arrays.asList(permissions).contains(permission)) {
+        if (!MetadataRegistry.get(table).getWritePermissions().contains(permission)) {
             throw new IllegalOperationException("Table " + table.getSimpleName() + " does not have the " + permission + " permission");
         }
     }
     
-    public void verifyNonNullableInsertion(LinkedHashMap<String, ColumnDefinition> columnMap, LinkedHashMap<String, ColumnDefinition> allColumns) throws NotNullableException {
+    public void verifyNonNullableInsertion(Map<String, ColumnDefinition> columnMap, Map<String, ColumnDefinition> allColumns) throws NotNullableException {
         for (Map.Entry<String, ColumnDefinition> entry : allColumns.entrySet()) {
             if (!columnMap.containsKey(entry.getKey())) {
                 ColumnDefinition column = entry.getValue();
@@ -75,7 +74,7 @@ public final class Verificator {
         }
     }
     
-    public void verifyNullability(Object entity, LinkedHashMap<String, ColumnDefinition> columnMap) throws NotNullableException, IllegalAccessException {
+    public void verifyNullability(Object entity, Map<String, ColumnDefinition> columnMap) throws NotNullableException, IllegalAccessException {
         for (Map.Entry<String, ColumnDefinition> entry : columnMap.entrySet()) {
             ColumnDefinition column = entry.getValue();
 
@@ -91,7 +90,7 @@ public final class Verificator {
         }
     }
     
-    public void verifyLength(Object entity, LinkedHashMap<String, ColumnDefinition> columnMap) throws OverLimitException, IllegalAccessException {
+    public void verifyLength(Object entity, Map<String, ColumnDefinition> columnMap) throws OverLimitException, IllegalAccessException {
         for (Map.Entry<String, ColumnDefinition> entry : columnMap.entrySet()) {
             ColumnDefinition column = entry.getValue();
             int maxLength = column.getColumn().length();
@@ -107,6 +106,29 @@ public final class Verificator {
         }
     }
     
+    public void verifyAssignments(Map<String, Object> assignments, Map<String, ColumnDefinition> columnMap) throws NotNullableException, OverLimitException, NoSuchColumnException {
+        for (Map.Entry<String, Object> entry : assignments.entrySet()) {
+            ColumnDefinition column = columnMap.get(entry.getKey());
+
+            if (column == null) {
+                throw new NoSuchColumnException("Column " + entry.getKey() + " does not exist");
+            }
+
+            Object val = entry.getValue() instanceof Assignment ? ((Assignment) entry.getValue()).getValue() : entry.getValue();
+
+            if (!column.getColumn().nullable() && val == null) {
+                throw new NotNullableException("Field " + column.getField().getName() + " contains null value");
+            }
+
+            int maxLength = column.getColumn().length();
+            int length = val != null && !(entry.getValue() instanceof Assignment) ? val.toString().length() : 0;
+
+            if (maxLength > -1 && length > maxLength) {
+                throw new OverLimitException("The value length of field " + column.getField().getName() + " is " + length + ", which is larger than its configured limit of " + maxLength);
+            }
+        }
+    }
+    
     public void verifyUniqueness(Object sourceEntity, Object uniqueRow, Field primaryField, Field uniqueField) throws IllegalAccessException, UniqueFieldViolationException {
         if (uniqueRow != null) {
             if (!primaryField.get(sourceEntity).equals(primaryField.get(uniqueRow))) {
@@ -115,4 +137,21 @@ public final class Verificator {
         }
     }
     
+    public boolean isUniqueViolation(SQLException exception) {
+        for (SQLException current = exception; current != null; current = current.getNextException()) {
+            String state = current.getSQLState();
+            int code = current.getErrorCode();
+
+            if ("23505".equals(state) || (state != null && state.startsWith("23") && (code == 1062 || code == 2601 || code == 2627 || code == 2067))) {
+                return true;
+            }
+
+            if (current.getNextException() == current) {
+                break;
+            }
+        }
+
+        return false;
+    }
+    
 }
@@ -0,0 +1,149 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.exception.UniqueFieldViolationException;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Modifier;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class AsyncEngineTest extends EngineFixture {
+
+    @Override
+    protected DatabaseEngine createEngine() throws SQLException {
+        return new DatabaseEngine(dataSource, 3);
+    }
+
+    @Test
+    public void operationsCompleteTheirFutures() throws Exception {
+        seed(3, 0);
+
+        try (AsyncDatabaseEngine async = new AsyncDatabaseEngine(engine)) {
+            CompletableFuture<List<Author>> authors = async.list(Author.class);
+            CompletableFuture<Author> author = async.get(Author.class, new Modifier().express(new Expression("id", 2)));
+
+            assertEquals(3, authors.get(5, TimeUnit.SECONDS).size());
+            assertEquals("author2", author.get(5, TimeUnit.SECONDS).name);
+
+            // Started after the list completed, which could otherwise already see the new row
+            CompletableFuture<Integer> key = async.insert(new Author("added", 40));
+            assertEquals(Integer.valueOf(4), key.get(5, TimeUnit.SECONDS));
+
+            Author loaded = author.get();
+            loaded.age = 60;
+            async.update(loaded).get(5, TimeUnit.SECONDS);
+            assertEquals(Integer.valueOf(60), async.<Author>get(Author.class, new Modifier().express(new Expression("id", 2))).get(5, TimeUnit.SECONDS).age);
+        }
+
+        assertEquals(4, TestDatabase.count(dataSource, "author"));
+    }
+
+    @Test
+    public void failuresCompleteTheirFuturesExceptionally() throws Exception {
+        seed(1, 0);
+
+        try (AsyncDatabaseEngine async = new AsyncDatabaseEngine(engine)) {
+            CompletableFuture<Integer> duplicate = async.insert(new Author("author1", 40));
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> duplicate.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof UniqueFieldViolationException);
+        }
+    }
+
+    @Test
+    public void operationsRunUpToTheConcurrencyBound() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try (AsyncDatabaseEngine async = new AsyncDatabaseEngine(engine, executor, 2)) {
+            assertEquals(2, maximumConcurrency(async));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void defaultBoundIsThePoolSize() throws Exception {
+        try (AsyncDatabaseEngine async = new AsyncDatabaseEngine(engine)) {
+            assertEquals(3, maximumConcurrency(async));
+        }
+    }
+
+    @Test
+    public void closingShutsDownOnlyTheDefaultExecutor() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            new AsyncDatabaseEngine(engine, executor).close();
+            assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdown();
+        }
+
+        AsyncDatabaseEngine async = new AsyncDatabaseEngine(engine);
+        async.close();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> async.list(Author.class).get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof RejectedExecutionException);
+    }
+
+    @Test
+    public void concurrencyBoundMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new AsyncDatabaseEngine(engine, null, 0));
+    }
+
+    private static int maximumConcurrency(AsyncDatabaseEngine async) throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maximum = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 12; i++) {
+            futures.add(async.submit(() -> {
+                maximum.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                running.decrementAndGet();
+                return null;
+            }));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+        return maximum.get();
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class ConcurrencyTest extends EngineFixture {
+
+    private static final int THREADS = 8;
+    private static final int ROWS_PER_THREAD = 25;
+
+    @Test
+    public void pooledEngineCanBeSharedBetweenThreads() throws Exception {
+        try (DatabaseEngine pooled = new DatabaseEngine(dataSource, 4)) {
+            exercise(pooled);
+        }
+    }
+
+    @Test
+    public void singleConnectionEngineCanBeSharedBetweenThreads() throws Exception {
+        exercise(engine);
+    }
+
+    private void exercise(DatabaseEngine shared) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+
+                futures.add(executor.submit((Callable<List<Integer>>) () -> {
+                    start.await();
+                    List<Integer> ids = new ArrayList<>();
+
+                    for (int i = 0; i < ROWS_PER_THREAD; i++) {
+                        Author author = new Author("t" + thread + "-" + i, i);
+                        Integer id = shared.insert(author);
+
+                        Author read = shared.get(Author.class, new Modifier().express(new Expression("name", author.name)));
+                        assertEquals(id, read.id);
+                        ids.add(read.id);
+                    }
+
+                    return ids;
+                }));
+            }
+
+            start.countDown();
+            Set<Integer> ids = new HashSet<>();
+
+            for (Future<List<Integer>> future : futures) {
+                ids.addAll(future.get(60, TimeUnit.SECONDS));
+            }
+
+            assertEquals(THREADS * ROWS_PER_THREAD, ids.size());
+            assertEquals(THREADS * ROWS_PER_THREAD, TestDatabase.count(dataSource, "author"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
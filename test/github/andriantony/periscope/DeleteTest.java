@@ -0,0 +1,132 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.constant.Operator;
+import github.andriantony.periscope.dialect.GenericDialect;
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.entity.Book;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class DeleteTest extends EngineFixture {
+
+    @Test
+    public void deleteAllRemovesTheGivenKeys() throws Exception {
+        seed(5, 0);
+
+        assertEquals(2, engine.deleteAll(Author.class, Arrays.asList(2, 4, 4, null, 9)));
+        assertEquals(1, statements());
+        assertEquals(3, TestDatabase.count(dataSource, "author"));
+        assertNull(engine.get(Author.class, new Modifier().express(new Expression("id", 2))));
+    }
+
+    @Test
+    public void deleteAllWithoutKeysDoesNothing() throws Exception {
+        seed(1, 0);
+
+        assertEquals(0, engine.deleteAll(Author.class, Collections.singletonList(null)));
+        assertEquals(0, statements());
+    }
+
+    @Test
+    public void deleteAllSplitsKeysAtTheParameterLimit() throws Exception {
+        seed(10, 0);
+
+        try (DatabaseEngine limited = new DatabaseEngine(connection, new LimitedH2Dialect(3))) {
+            List<Integer> keys = new ArrayList<>();
+
+            for (int id = 1; id <= 8; id++) {
+                keys.add(id);
+            }
+
+            assertEquals(8, limited.deleteAll(Author.class, keys));
+            assertEquals(3, limited.getStatementCacheStatistics().getHits() + limited.getStatementCacheStatistics().getMisses());
+        }
+
+        assertEquals(2, TestDatabase.count(dataSource, "author"));
+    }
+
+    @Test
+    public void deleteInChunksStopsAtAShortChunk() throws Exception {
+        seed(2, 5);
+
+        int deleted = engine.deleteInChunks(Book.class, new Modifier().express(new Expression("pages", 200, Operator.MORE)), 2);
+
+        assertEquals(6, deleted);
+        assertEquals("2, 2, 2 and an empty chunk", 4, statements());
+        assertEquals(4, TestDatabase.count(dataSource, "book"));
+    }
+
+    @Test
+    public void deleteInChunksWithoutExpressionsEmptiesTheTable() throws Exception {
+        seed(1, 7);
+
+        assertEquals(7, engine.deleteInChunks(Book.class, new Modifier(), 3));
+        assertEquals(3, statements());
+        assertEquals(0, TestDatabase.count(dataSource, "book"));
+    }
+
+    @Test
+    public void dialectsWithoutLimitedDeletesDeleteSelectedKeys() throws Exception {
+        seed(2, 5);
+
+        try (DatabaseEngine generic = new DatabaseEngine(connection, new GenericDialect())) {
+            int deleted = generic.deleteInChunks(Book.class, new Modifier().express(new Expression("author_id", 1)), 2);
+
+            assertEquals(5, deleted);
+            assertEquals("three selects and three deletes", 6, generic.getStatementCacheStatistics().getHits() + generic.getStatementCacheStatistics().getMisses());
+        }
+
+        assertEquals(5, TestDatabase.count(dataSource, "book"));
+        assertTrue(engine.list(Book.class, new Modifier().express(new Expression("author_id", 1))).isEmpty());
+    }
+
+    @Test
+    public void chunkSizeMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> engine.deleteInChunks(Book.class, new Modifier(), 0));
+    }
+
+    @Test
+    public void deleteByCriteriaSplitsOversizedInLists() throws Exception {
+        seed(10, 0);
+
+        try (DatabaseEngine limited = new DatabaseEngine(connection, new LimitedH2Dialect(4))) {
+            limited.delete(Author.class, new Modifier().express(new Expression("id", Arrays.asList(1, 2, 3, 4, 5, 6, 7), Operator.IN)));
+        }
+
+        assertEquals(3, TestDatabase.count(dataSource, "author"));
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Modifier;
+import github.andriantony.periscope.type.Sort;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class DirtyTrackingTest extends EngineFixture {
+
+    @Override
+    protected DatabaseEngine createEngine() throws SQLException {
+        DatabaseEngine engine = new DatabaseEngine(connection);
+        engine.setDirtyTracking(true);
+        return engine;
+    }
+
+    @Test
+    public void onlyChangedColumnsAreWritten() throws Exception {
+        seed(1, 0);
+
+        Author author = engine.get(Author.class, new Modifier().express(new Expression("id", 1)));
+        TestDatabase.execute(dataSource, "UPDATE author SET name = 'renamed' WHERE id = 1");
+
+        author.age = 40;
+        engine.update(author);
+
+        Author stored = reload(1);
+        assertEquals("renamed", stored.name);
+        assertEquals(Integer.valueOf(40), stored.age);
+    }
+
+    @Test
+    public void unchangedEntitiesDoNotReachTheDatabase() throws Exception {
+        seed(1, 0);
+
+        Author author = engine.get(Author.class, new Modifier().express(new Expression("id", 1)));
+        long before = statements();
+
+        engine.update(author);
+
+        assertEquals(before, statements());
+    }
+
+    @Test
+    public void snapshotsFollowEveryUpdate() throws Exception {
+        seed(1, 0);
+
+        Author author = engine.get(Author.class, new Modifier().express(new Expression("id", 1)));
+        author.age = 40;
+        engine.update(author);
+        long before = statements();
+
+        engine.update(author);
+        assertEquals(before, statements());
+
+        author.age = 41;
+        engine.update(author);
+        assertEquals(before + 1, statements());
+        assertEquals(Integer.valueOf(41), reload(1).age);
+    }
+
+    @Test
+    public void insertedEntitiesAreTracked() throws Exception {
+        List<Author> authors = Arrays.asList(new Author("alice", 30), new Author("bob", 31));
+        engine.insertAll(authors);
+        long before = statements();
+
+        engine.update(authors.get(0));
+        assertEquals(before, statements());
+
+        authors.get(1).age = 50;
+        engine.update(authors.get(1));
+        assertEquals(Integer.valueOf(50), reload(authors.get(1).id).age);
+    }
+
+    @Test
+    public void untrackedEntitiesWriteEveryColumn() throws Exception {
+        seed(1, 0);
+
+        Author author = new Author("author1", 99);
+        author.id = 1;
+        TestDatabase.execute(dataSource, "UPDATE author SET name = 'renamed' WHERE id = 1");
+
+        engine.update(author);
+
+        assertEquals("author1", reload(1).name);
+    }
+
+    @Test
+    public void markedColumnsBypassTracking() throws Exception {
+        seed(1, 0);
+
+        Author author = engine.get(Author.class, new Modifier().express(new Expression("id", 1)));
+        TestDatabase.execute(dataSource, "UPDATE author SET age = 70 WHERE id = 1");
+
+        engine.update(author, new Modifier().mark("age"));
+
+        assertEquals(Integer.valueOf(21), reload(1).age);
+    }
+
+    @Test
+    public void updateAllSkipsUnchangedEntities() throws Exception {
+        seed(3, 0);
+
+        List<Author> authors = engine.list(Author.class, new Modifier().sort(new Sort("id")));
+        TestDatabase.execute(dataSource, "UPDATE author SET name = CONCAT(name, '!')");
+        authors.get(1).age = 60;
+
+        int[] counts = engine.updateAll(authors);
+
+        assertArrayEquals(new int[] { 0, 1, 0 }, counts);
+        assertEquals("author2!", reload(2).name);
+        assertEquals(Integer.valueOf(60), reload(2).age);
+    }
+
+    @Test
+    public void disabledTrackingWritesEveryColumn() throws Exception {
+        engine.setDirtyTracking(false);
+        seed(1, 0);
+
+        Author author = engine.get(Author.class, new Modifier().express(new Expression("id", 1)));
+        TestDatabase.execute(dataSource, "UPDATE author SET name = 'renamed' WHERE id = 1");
+
+        engine.update(author);
+
+        assertEquals("author1", reload(1).name);
+    }
+
+    private Author reload(int id) throws Exception {
+        return engine.get(Author.class, new Modifier().express(new Expression("id", id)));
+    }
+
+}
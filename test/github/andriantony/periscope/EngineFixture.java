@@ -0,0 +1,104 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.type.CacheStatistics;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.After;
+import org.junit.Before;
+
+/**
+ * Opens a {@link DatabaseEngine} on a fresh in-memory database before each test and drops the database after it.
+ *
+ * @author Andriantony
+ */
+public abstract class EngineFixture {
+
+    protected DataSource dataSource;
+    protected Connection connection;
+    protected DatabaseEngine engine;
+
+    @Before
+    public void openEngine() throws SQLException {
+        dataSource = TestDatabase.create();
+        connection = dataSource.getConnection();
+        engine = createEngine();
+    }
+
+    @After
+    public void closeEngine() throws SQLException {
+        engine.close();
+        connection.close();
+        TestDatabase.drop(dataSource);
+    }
+
+    /**
+     * Creates the engine under test. Runs the engine on {@link #connection} with the dialect detected for H2 unless
+     * overridden.
+     *
+     * @return the engine under test
+     * @throws SQLException if the engine can not be created
+     */
+    protected DatabaseEngine createEngine() throws SQLException {
+        return new DatabaseEngine(connection);
+    }
+
+    /**
+     * Returns how many statements the engine has prepared or taken from its statement cache so far.
+     *
+     * @return the number of statements the engine has run
+     */
+    protected long statements() {
+        CacheStatistics statistics = engine.getStatementCacheStatistics();
+        return statistics.getHits() + statistics.getMisses();
+    }
+
+    /**
+     * Inserts authors named author1, author2, ... aged 21, 22, ... with the given number of books each. The books of
+     * author n are titled n-1, n-2, ... and have 100, 200, ... pages.
+     *
+     * @param authors The number of authors to insert
+     * @param booksPerAuthor The number of books of each author
+     * @throws SQLException if a row can not be inserted
+     */
+    protected void seed(int authors, int booksPerAuthor) throws SQLException {
+        List<String> sql = new ArrayList<>();
+
+        for (int a = 1; a <= authors; a++) {
+            sql.add("INSERT INTO author (id, name, age) VALUES (" + a + ", 'author" + a + "', " + (20 + a) + ")");
+
+            for (int b = 1; b <= booksPerAuthor; b++) {
+                sql.add("INSERT INTO book (author_id, title, pages) VALUES (" + a + ", '" + a + "-" + b + "', " + b * 100 + ")");
+            }
+        }
+
+        sql.add("ALTER TABLE author ALTER COLUMN id RESTART WITH " + (authors + 1));
+        TestDatabase.execute(dataSource, sql.toArray(new String[0]));
+    }
+
+}
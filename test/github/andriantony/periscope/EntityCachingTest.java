@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.entity.CachedAuthor;
+import github.andriantony.periscope.type.CacheStatistics;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class EntityCachingTest extends EngineFixture {
+
+    @Test
+    public void getByPrimaryKeyIsServedFromTheCache() throws Exception {
+        seed(2, 0);
+
+        CachedAuthor first = find(1);
+        TestDatabase.execute(dataSource, "UPDATE author SET age = 99 WHERE id = 1");
+        CachedAuthor second = find(1);
+
+        assertNotSame(first, second);
+        assertEquals(Integer.valueOf(21), second.age);
+        assertEquals(1, statements());
+
+        CacheStatistics statistics = engine.getEntityCacheStatistics(CachedAuthor.class);
+        assertEquals(1, statistics.getHits());
+        assertEquals(1, statistics.getSize());
+    }
+
+    @Test
+    public void listedRowsAreCached() throws Exception {
+        seed(3, 0);
+
+        engine.list(CachedAuthor.class);
+        find(2);
+        find(3);
+
+        assertEquals(1, statements());
+        assertEquals(3, engine.getEntityCacheStatistics(CachedAuthor.class).getSize());
+    }
+
+    @Test
+    public void projectionsAndOtherCriteriaBypassTheCache() throws Exception {
+        seed(1, 0);
+        find(1);
+
+        engine.get(CachedAuthor.class, new Modifier().mark("id", "name").express(new Expression("id", 1)));
+        engine.get(CachedAuthor.class, new Modifier().express(new Expression("name", "author1")));
+
+        assertEquals(3, statements());
+    }
+
+    @Test
+    public void updatesEvictTheirRow() throws Exception {
+        seed(2, 0);
+        CachedAuthor author = find(1);
+        find(2);
+
+        author.age = 50;
+        engine.update(author);
+
+        assertEquals(Integer.valueOf(50), find(1).age);
+        long before = statements();
+        find(2);
+        assertEquals("the other row stays cached", before, statements());
+    }
+
+    @Test
+    public void updatesByCriteriaAndDeletesEvictTheTable() throws Exception {
+        seed(2, 0);
+        find(1);
+        find(2);
+
+        engine.update(CachedAuthor.class, Collections.singletonMap("age", 70), new Modifier().express(new Expression("id", 2)));
+        assertEquals(Integer.valueOf(70), find(2).age);
+        assertEquals(Integer.valueOf(21), find(1).age);
+
+        engine.delete(CachedAuthor.class, 1);
+        assertNull(find(1));
+    }
+
+    @Test
+    public void getAllOnlyQueriesMissingKeys() throws Exception {
+        seed(4, 0);
+        find(1);
+        find(3);
+        long before = statements();
+
+        Map<Object, CachedAuthor> authors = engine.getAll(CachedAuthor.class, Arrays.asList(1, 2, 3, 4));
+
+        assertEquals(4, authors.size());
+        assertEquals(before + 1, statements());
+        assertEquals(4, engine.getEntityCacheStatistics(CachedAuthor.class).getSize());
+    }
+
+    @Test
+    public void clearingTheCacheForcesAReload() throws Exception {
+        seed(1, 0);
+        find(1);
+        TestDatabase.execute(dataSource, "UPDATE author SET age = 99 WHERE id = 1");
+
+        engine.clearEntityCache();
+
+        assertEquals(Integer.valueOf(99), find(1).age);
+        assertEquals(2, statements());
+    }
+
+    @Test
+    public void uncachedClassesHaveNoStatistics() throws Exception {
+        seed(1, 0);
+        engine.get(Author.class, new Modifier().express(new Expression("id", 1)));
+
+        assertNull(engine.getEntityCacheStatistics(Author.class));
+    }
+
+    private CachedAuthor find(int id) throws Exception {
+        return engine.get(CachedAuthor.class, new Modifier().express(new Expression("id", id)));
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.constant.Conjunction;
+import github.andriantony.periscope.constant.Operator;
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.entity.Book;
+import github.andriantony.periscope.type.CacheStatistics;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Modifier;
+import github.andriantony.periscope.type.Sort;
+import github.andriantony.periscope.type.TableReference;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class ExpressionTest extends EngineFixture {
+
+    @Override
+    protected DatabaseEngine createEngine() throws SQLException {
+        return new DatabaseEngine(connection, new LimitedH2Dialect(10));
+    }
+
+    @Test
+    public void inMatchesCollectionsAndArrays() throws Exception {
+        seed(5, 0);
+
+        assertEquals(Arrays.asList(2, 4), ids(engine.list(Author.class, new Modifier().express(new Expression("id", Arrays.asList(4, 2), Operator.IN)).sort(new Sort("id")))));
+        assertEquals(Arrays.asList(1, 5), ids(engine.list(Author.class, new Modifier().express(new Expression("id", new int[] { 1, 5 }, Operator.IN)).sort(new Sort("id")))));
+        assertTrue(engine.list(Author.class, new Modifier().express(new Expression("id", Collections.emptyList(), Operator.IN))).isEmpty());
+    }
+
+    @Test
+    public void notInExcludesValues() throws Exception {
+        seed(4, 0);
+
+        assertEquals(Arrays.asList(1, 3), ids(engine.list(Author.class, new Modifier().express(new Expression("id", Arrays.asList(2, 4), Operator.NOT_IN)).sort(new Sort("id")))));
+        assertEquals(4, engine.list(Author.class, new Modifier().express(new Expression("id", Collections.emptyList(), Operator.NOT_IN))).size());
+    }
+
+    @Test
+    public void betweenIncludesBothBounds() throws Exception {
+        seed(6, 0);
+
+        assertEquals(Arrays.asList(2, 3, 4), ids(engine.list(Author.class, new Modifier().express(new Expression("age", Arrays.asList(22, 24), Operator.BETWEEN)).sort(new Sort("id")))));
+        assertThrows(IllegalArgumentException.class, () -> engine.list(Author.class, new Modifier().express(new Expression("age", Arrays.asList(22), Operator.BETWEEN))));
+    }
+
+    @Test
+    public void inListsOfSimilarLengthShareOneStatement() throws Exception {
+        seed(8, 0);
+
+        assertEquals(Arrays.asList(1, 2, 3), ids(engine.list(Author.class, new Modifier().express(new Expression("id", Arrays.asList(1, 2, 3), Operator.IN)).sort(new Sort("id")))));
+        assertEquals(Arrays.asList(4, 5, 6, 7), ids(engine.list(Author.class, new Modifier().express(new Expression("id", Arrays.asList(4, 5, 6, 7), Operator.IN)).sort(new Sort("id")))));
+        assertEquals(Arrays.asList(4, 8), ids(engine.list(Author.class, new Modifier().express(new Expression("id", Arrays.asList(1, 2, 3, 5, 6, 7), Operator.NOT_IN)).sort(new Sort("id")))));
+
+        CacheStatistics statistics = engine.getStatementCacheStatistics();
+
+        assertEquals("Three and four values are padded to the same bucket", 1, statistics.getHits());
+        assertEquals(2, statistics.getMisses());
+    }
+
+    @Test
+    public void oversizedInListIsSplitOverSeveralStatements() throws Exception {
+        seed(30, 0);
+
+        List<Author> authors = engine.list(Author.class, new Modifier().express(new Expression("age", 25, Operator.MORE), new Expression("id", range(1, 40), Operator.IN)));
+
+        assertEquals(25, authors.size());
+        assertEquals(25, authors.stream().map(author -> author.id).distinct().count());
+        assertEquals(5, statements());
+    }
+
+    @Test
+    public void oversizedPagedInListIsSlicedAfterSplitting() throws Exception {
+        seed(30, 0);
+
+        List<Author> page = engine.list(Author.class, new Modifier().express(new Expression("id", range(1, 30), Operator.IN)).offset(12).limit(5));
+
+        assertEquals(5, page.size());
+        assertEquals(5, page.stream().map(author -> author.id).distinct().count());
+        // Chunks of eight values are read until the seventeen rows up to the end of the page are found
+        assertEquals(3, statements());
+    }
+
+    @Test
+    public void oversizedInListFindsASingleRow() throws Exception {
+        seed(30, 0);
+
+        Author author = engine.get(Author.class, new Modifier().express(new Expression("name", "author27"), new Expression("id", range(1, 30), Operator.IN)));
+
+        assertEquals(Integer.valueOf(27), author.id);
+        assertNull(engine.get(Author.class, new Modifier().express(new Expression("id", range(31, 60), Operator.IN))));
+    }
+
+    @Test
+    public void oversizedInListLoadsReferencesOnce() throws Exception {
+        seed(12, 1);
+
+        List<Author> authors = engine.list(Author.class, new Modifier().express(new Expression("id", range(1, 12), Operator.IN)).include(new TableReference("books")));
+
+        assertEquals(12, authors.size());
+
+        for (Author author : authors) {
+            assertEquals(1, author.books.size());
+            assertEquals(author.id, author.books.get(0).authorId);
+        }
+    }
+
+    @Test
+    public void statementsThatCanNotBeSplitAreRejected() throws Exception {
+        seed(1, 0);
+
+        assertThrows(SQLFeatureNotSupportedException.class, () -> engine.list(Author.class, new Modifier().express(new Expression("id", range(1, 20), Operator.IN)).sort(new Sort("id"))));
+        assertThrows(SQLFeatureNotSupportedException.class, () -> engine.list(Author.class, new Modifier().express(new Expression("id", range(1, 20), Operator.NOT_IN))));
+        assertThrows(SQLFeatureNotSupportedException.class, () -> engine.list(Book.class, new Modifier().express(new Expression("id", 1, Operator.EQUAL, Conjunction.OR), new Expression("author_id", range(1, 20), Operator.IN))));
+        assertThrows(SQLFeatureNotSupportedException.class, () -> engine.cursor(Author.class, new Modifier().express(new Expression("id", range(1, 20), Operator.IN))));
+    }
+
+    private static List<Integer> range(int from, int to) {
+        List<Integer> values = new ArrayList<>();
+
+        for (int i = from; i <= to; i++) {
+            values.add(i);
+        }
+
+        return values;
+    }
+
+    private static List<Integer> ids(List<Author> authors) {
+        return authors.stream().map(author -> author.id).collect(Collectors.toList());
+    }
+
+}
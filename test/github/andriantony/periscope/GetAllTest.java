@@ -0,0 +1,133 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.constant.Operator;
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.entity.Book;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Modifier;
+import github.andriantony.periscope.type.TableReference;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class GetAllTest extends EngineFixture {
+
+    @Override
+    protected DatabaseEngine createEngine() throws SQLException {
+        return new DatabaseEngine(connection, new LimitedH2Dialect(4));
+    }
+
+    @Test
+    public void rowsAreReturnedInKeyOrder() throws Exception {
+        seed(5, 0);
+
+        Map<Object, Author> authors = engine.getAll(Author.class, Arrays.asList(4, 1, 3));
+
+        assertEquals(Arrays.asList(4, 1, 3), new ArrayList<>(authors.keySet()));
+        assertEquals("author4", authors.get(4).name);
+        assertEquals("author1", authors.get(1).name);
+        assertEquals(1, statements());
+    }
+
+    @Test
+    public void missingDuplicateAndNullKeysAreLeftOut() throws Exception {
+        seed(3, 0);
+
+        Map<Object, Author> authors = engine.getAll(Author.class, Arrays.asList(2, 9, 2, null, 1));
+
+        assertEquals(Arrays.asList(2, 1), new ArrayList<>(authors.keySet()));
+        assertTrue(engine.getAll(Author.class, Collections.emptyList()).isEmpty());
+        assertEquals(1, statements());
+    }
+
+    @Test
+    public void keysOfAnotherNumericTypeMatch() throws Exception {
+        seed(2, 2);
+
+        Map<Object, Book> books = engine.getAll(Book.class, Arrays.asList(3, 1));
+
+        assertEquals("2-1", books.get(3).title);
+        assertEquals("1-1", books.get(1).title);
+    }
+
+    @Test
+    public void keysAreReadInChunksThatFitTheParameterLimit() throws Exception {
+        seed(10, 0);
+
+        List<Integer> keys = new ArrayList<>();
+
+        for (int id = 10; id >= 1; id--) {
+            keys.add(id);
+        }
+
+        Map<Object, Author> authors = engine.getAll(Author.class, keys);
+
+        assertEquals(keys, new ArrayList<>(authors.keySet()));
+        assertEquals(3, statements());
+    }
+
+    @Test
+    public void expressionsNarrowTheRowsAndShrinkTheChunks() throws Exception {
+        seed(6, 0);
+
+        Map<Object, Author> authors = engine.getAll(Author.class, Arrays.asList(1, 2, 3, 4, 5, 6), new Modifier().express(new Expression("age", 23, Operator.MORE)));
+
+        assertEquals(Arrays.asList(4, 5, 6), new ArrayList<>(authors.keySet()));
+        assertEquals(2, statements());
+    }
+
+    @Test
+    public void projectionKeepsThePrimaryKey() throws Exception {
+        seed(2, 0);
+
+        Map<Object, Author> authors = engine.getAll(Author.class, Arrays.asList(1, 2), new Modifier().mark("name"));
+
+        assertEquals(Integer.valueOf(1), authors.get(1).id);
+        assertEquals("author1", authors.get(1).name);
+        assertNull(authors.get(1).age);
+    }
+
+    @Test
+    public void referencesAreLoadedForEveryRow() throws Exception {
+        seed(3, 2);
+
+        Map<Object, Author> authors = engine.getAll(Author.class, Arrays.asList(3, 1), new Modifier().include(new TableReference("books")));
+
+        assertEquals(2, authors.get(3).books.size());
+        assertEquals(2, authors.get(1).books.size());
+        assertEquals(2, statements());
+    }
+
+}
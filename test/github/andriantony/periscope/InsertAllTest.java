@@ -0,0 +1,145 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.dialect.H2Dialect;
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.entity.Book;
+import github.andriantony.periscope.exception.NotNullableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class InsertAllTest extends EngineFixture {
+
+    @Test
+    public void generatedKeysAreReturnedAndAssignedInOrder() throws Exception {
+        List<Author> authors = authors(5);
+        List<Integer> keys = engine.insertAll(authors);
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), keys);
+
+        for (int i = 0; i < authors.size(); i++) {
+            assertEquals(keys.get(i), authors.get(i).id);
+        }
+
+        assertEquals(5, TestDatabase.count(dataSource, "author"));
+    }
+
+    @Test
+    public void singleInsertAssignsTheGeneratedKeyLikeABatch() throws Exception {
+        Book book = new Book(1, "single", 100);
+
+        assertEquals(Integer.valueOf(1), engine.insert(book));
+        assertEquals(Long.valueOf(1), book.id);
+    }
+
+    @Test
+    public void rowsAreSplitIntoBatchesOfTheConfiguredSize() throws Exception {
+        engine.setBatchSize(2);
+
+        List<Author> authors = authors(5);
+        engine.insertAll(authors);
+
+        assertEquals(Integer.valueOf(5), authors.get(4).id);
+        assertEquals(5, TestDatabase.count(dataSource, "author"));
+    }
+
+    @Test
+    public void keysAreAssignedWhenBatchesCanNotReturnThem() throws Exception {
+        H2Dialect dialect = new H2Dialect() {
+            @Override
+            public boolean supportsBatchGeneratedKeys() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsMultiRowGeneratedKeys() {
+                return false;
+            }
+        };
+
+        for (boolean multiRowInsert : new boolean[] { false, true }) {
+            TestDatabase.execute(dataSource, "DELETE FROM author");
+
+            try (DatabaseEngine fallback = new DatabaseEngine(connection, dialect)) {
+                fallback.setMultiRowInsert(multiRowInsert);
+
+                List<Author> authors = authors(4);
+                List<Integer> keys = fallback.insertAll(authors);
+
+                for (int i = 0; i < authors.size(); i++) {
+                    assertNotNull(authors.get(i).id);
+                    assertEquals(keys.get(i), authors.get(i).id);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void entitiesOfSeveralClassesKeepTheirPositions() throws Exception {
+        Author author = new Author("author1", 30);
+        Book first = new Book(null, "first", 100);
+        Book second = new Book(null, "second", 200);
+
+        List<Integer> keys = engine.insertAll(Arrays.asList(first, author, second));
+
+        assertEquals(Arrays.asList(1, 1, 2), keys);
+        assertEquals(Long.valueOf(1), first.id);
+        assertEquals(Integer.valueOf(1), author.id);
+        assertEquals(Long.valueOf(2), second.id);
+    }
+
+    @Test
+    public void emptyCollectionInsertsNothing() throws Exception {
+        assertTrue(engine.insertAll(Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void invalidRowRejectsTheWholeCall() throws Exception {
+        List<Author> authors = authors(3);
+        authors.get(2).name = null;
+
+        assertThrows(NotNullableException.class, () -> engine.insertAll(authors));
+        assertEquals(0, TestDatabase.count(dataSource, "author"));
+    }
+
+    private static List<Author> authors(int count) {
+        List<Author> authors = new ArrayList<>();
+
+        for (int i = 1; i <= count; i++) {
+            authors.add(new Author("author" + i, 20 + i));
+        }
+
+        return authors;
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.dialect.GenericDialect;
+import github.andriantony.periscope.dialect.H2Dialect;
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.entity.Book;
+import github.andriantony.periscope.exception.UniqueFieldViolationException;
+import github.andriantony.periscope.type.Modifier;
+import github.andriantony.periscope.type.Sort;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class MultiRowInsertTest extends EngineFixture {
+
+    @Override
+    protected DatabaseEngine createEngine() throws SQLException {
+        DatabaseEngine engine = new DatabaseEngine(connection, new LimitedH2Dialect(8));
+        engine.setMultiRowInsert(true);
+        return engine;
+    }
+
+    @Test
+    public void rowsArePackedUpToTheParameterLimit() throws Exception {
+        List<Book> books = books(5);
+        List<Integer> keys = engine.insertAll(books);
+
+        assertEquals("three columns fit two rows per statement", 3, statements());
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), keys);
+
+        for (int i = 0; i < books.size(); i++) {
+            assertEquals(Long.valueOf(i + 1), books.get(i).id);
+        }
+
+        List<Book> stored = engine.list(Book.class, new Modifier().sort(new Sort("id")));
+        assertEquals("title5", stored.get(4).title);
+        assertEquals(Integer.valueOf(500), stored.get(4).pages);
+    }
+
+    @Test
+    public void markedColumnsLeaveRoomForMoreRows() throws Exception {
+        try (DatabaseEngine limited = new DatabaseEngine(connection, new LimitedH2Dialect(12))) {
+            limited.setMultiRowInsert(true);
+
+            limited.insertAll(books(12));
+            assertEquals("three columns fit four rows per statement", 3, limited.getStatementCacheStatistics().getHits() + limited.getStatementCacheStatistics().getMisses());
+
+            limited.insertAll(books(12), new Modifier().mark("title", "pages"));
+            assertEquals("two columns fit six rows per statement", 5, limited.getStatementCacheStatistics().getHits() + limited.getStatementCacheStatistics().getMisses());
+        }
+
+        assertEquals(24, TestDatabase.count(dataSource, "book"));
+    }
+
+    @Test
+    public void rowsArePackedUpToTheRowLimit() throws Exception {
+        H2Dialect dialect = new H2Dialect() {
+            @Override
+            public int getMaxInsertRows() {
+                return 3;
+            }
+        };
+
+        try (DatabaseEngine limited = new DatabaseEngine(connection, dialect)) {
+            limited.setMultiRowInsert(true);
+            limited.insertAll(books(7));
+
+            assertEquals(3, limited.getStatementCacheStatistics().getHits() + limited.getStatementCacheStatistics().getMisses());
+            assertEquals("a full chunk and a remainder", 2, limited.getStatementCacheStatistics().getMisses());
+        }
+
+        assertEquals(7, TestDatabase.count(dataSource, "book"));
+    }
+
+    @Test
+    public void singleRowDialectsFallBackToBatches() throws Exception {
+        try (DatabaseEngine generic = new DatabaseEngine(connection, new GenericDialect())) {
+            generic.setMultiRowInsert(true);
+            List<Book> books = books(4);
+            generic.insertAll(books);
+
+            assertEquals(1, generic.getStatementCacheStatistics().getMisses());
+            assertEquals(Long.valueOf(4), books.get(3).id);
+        }
+    }
+
+    @Test
+    public void uniqueValuesAreStillProbed() throws Exception {
+        seed(1, 0);
+
+        List<Author> authors = Arrays.asList(new Author("author2", 1), new Author("author1", 2));
+
+        assertThrows(UniqueFieldViolationException.class, () -> engine.insertAll(authors));
+        assertEquals(1, TestDatabase.count(dataSource, "author"));
+    }
+
+    @Test
+    public void disabledByDefault() throws Exception {
+        try (DatabaseEngine plain = new DatabaseEngine(connection)) {
+            assertFalse(plain.isMultiRowInsert());
+        }
+    }
+
+    private static List<Book> books(int count) {
+        List<Book> books = new ArrayList<>();
+
+        for (int i = 1; i <= count; i++) {
+            books.add(new Book(1, "title" + i, i * 100));
+        }
+
+        return books;
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.constant.SortDirection;
+import github.andriantony.periscope.dialect.GenericDialect;
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.entity.Book;
+import github.andriantony.periscope.type.Modifier;
+import github.andriantony.periscope.type.Sort;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class PagingTest extends EngineFixture {
+
+    @Test
+    public void limitAndOffsetSelectAPage() throws Exception {
+        seed(10, 0);
+
+        List<Author> page = engine.list(Author.class, new Modifier().sort(new Sort("id")).offset(3).limit(4));
+
+        assertEquals(4, page.size());
+        assertEquals(Integer.valueOf(4), page.get(0).id);
+        assertEquals(Integer.valueOf(7), page.get(3).id);
+    }
+
+    @Test
+    public void offsetBeyondTheLastRowSelectsNothing() throws Exception {
+        seed(3, 0);
+
+        assertTrue(engine.list(Author.class, new Modifier().sort(new Sort("id")).offset(3)).isEmpty());
+    }
+
+    @Test
+    public void getHonoursOffset() throws Exception {
+        seed(5, 0);
+
+        Author author = engine.get(Author.class, new Modifier().sort(new Sort("id", SortDirection.DESC)).offset(1));
+
+        assertEquals("author4", author.name);
+    }
+
+    @Test
+    public void seekingPageByPageReadsEveryRowOnce() throws Exception {
+        seed(4, 5);
+
+        assertEquals(titles(engine.list(Book.class, new Modifier().sort(new Sort("id")))), titles(seekAll(engine, new Sort("id"))));
+    }
+
+    @Test
+    public void seekFollowsMixedSortDirections() throws Exception {
+        seed(4, 5);
+
+        Sort[] sorts = { new Sort("pages", SortDirection.DESC), new Sort("id") };
+        List<Book> expected = engine.list(Book.class, new Modifier().sort(sorts));
+
+        assertEquals(titles(expected), titles(seekAll(engine, sorts)));
+    }
+
+    @Test
+    public void seekStartsAfterTheGivenValues() throws Exception {
+        seed(6, 0);
+
+        List<Author> page = engine.list(Author.class, new Modifier().sort(new Sort("age", SortDirection.DESC)).seek(24).limit(2));
+
+        assertEquals(2, page.size());
+        assertEquals(Integer.valueOf(23), page.get(0).age);
+        assertEquals(Integer.valueOf(22), page.get(1).age);
+    }
+
+    @Test
+    public void seekRequiresASortPerValue() {
+        assertThrows(IllegalArgumentException.class, () -> engine.list(Author.class, new Modifier().seek(1)));
+        assertThrows(IllegalArgumentException.class, () -> engine.list(Author.class, new Modifier().sort(new Sort("id")).seek(1, "author1")));
+    }
+
+    @Test
+    public void negativeBoundsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new Modifier().limit(-1));
+        assertThrows(IllegalArgumentException.class, () -> new Modifier().offset(-1));
+    }
+
+    @Test
+    public void genericDialectPagesWithOffsetFetch() throws Exception {
+        seed(10, 0);
+
+        try (DatabaseEngine generic = new DatabaseEngine(connection, new GenericDialect())) {
+            List<Author> page = generic.list(Author.class, new Modifier().sort(new Sort("id")).offset(8).limit(5));
+
+            assertEquals(2, page.size());
+            assertEquals("author9", page.get(0).name);
+            assertEquals("author10", page.get(1).name);
+        }
+    }
+
+    @Test
+    public void genericDialectReadsASingleRowWithoutPaging() throws Exception {
+        seed(5, 0);
+
+        GenericDialect withoutPaging = new GenericDialect() {
+            @Override
+            public void appendPage(StringBuilder query, boolean sorted) {
+                throw new AssertionError("Paged although the caller did not ask for it");
+            }
+        };
+
+        try (DatabaseEngine generic = new DatabaseEngine(connection, withoutPaging)) {
+            Author author = generic.get(Author.class, new Modifier().sort(new Sort("id", SortDirection.DESC)));
+
+            assertEquals("author5", author.name);
+        }
+
+        try (DatabaseEngine generic = new DatabaseEngine(connection, new GenericDialect())) {
+            assertEquals("author4", generic.<Author>get(Author.class, new Modifier().sort(new Sort("id", SortDirection.DESC)).offset(1)).name);
+        }
+    }
+
+    private static List<Book> seekAll(DatabaseEngine engine, Sort... sorts) throws Exception {
+        List<Book> books = new ArrayList<>();
+        List<Book> page = engine.list(Book.class, new Modifier().sort(sorts).limit(3));
+
+        while (!page.isEmpty()) {
+            books.addAll(page);
+            Book last = page.get(page.size() - 1);
+            Object[] seek = sorts.length == 1 ? new Object[] { last.id } : new Object[] { last.pages, last.id };
+            page = engine.list(Book.class, new Modifier().sort(sorts).seek(seek).limit(3));
+        }
+
+        return books;
+    }
+
+    private static List<String> titles(List<Book> books) {
+        return books.stream().map(book -> book.title).collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.entity.Award;
+import github.andriantony.periscope.entity.Book;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Modifier;
+import github.andriantony.periscope.type.Sort;
+import github.andriantony.periscope.type.TableReference;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class ParallelReferencesTest extends EngineFixture {
+
+    @Override
+    protected DatabaseEngine createEngine() throws SQLException {
+        return new DatabaseEngine(dataSource, 4);
+    }
+
+    @Override
+    protected void seed(int authors, int booksPerAuthor) throws SQLException {
+        super.seed(authors, booksPerAuthor);
+        List<String> sql = new ArrayList<>();
+
+        for (int a = 1; a <= authors; a += 2) {
+            sql.add("INSERT INTO award (author_id, title) VALUES (" + a + ", 'award" + a + "')");
+        }
+
+        TestDatabase.execute(dataSource, sql.toArray(new String[0]));
+    }
+
+    @Test
+    public void parallelLoadingMatchesSequentialLoading() throws Exception {
+        seed(20, 3);
+
+        for (int run = 0; run < 10; run++) {
+            List<Author> sequential = engine.list(Author.class, everything().include(references()));
+            List<Author> parallel = engine.list(Author.class, everything().include(references()).parallel(3));
+
+            assertEquals(describe(sequential), describe(parallel));
+        }
+    }
+
+    @Test
+    public void nestedReferencesAreLoadedInParallel() throws Exception {
+        seed(5, 2);
+
+        Modifier books = new Modifier().sort(new Sort("id")).include(new TableReference("author"));
+        List<Author> authors = engine.list(Author.class, everything().include(new TableReference("books", books), new TableReference("awards")).parallel(4));
+
+        for (Author author : authors) {
+            assertEquals(2, author.books.size());
+            assertEquals(author.name, author.books.get(0).author.name);
+            assertEquals(author.id % 2 == 1 ? 1 : 0, author.awards.size());
+        }
+    }
+
+    @Test
+    public void getAndGetAllLoadReferencesInParallel() throws Exception {
+        seed(4, 2);
+
+        Author author = engine.get(Author.class, new Modifier().express(new Expression("id", 3)).include(references()).parallel(2));
+        Map<Object, Author> authors = engine.getAll(Author.class, Arrays.asList(1, 2), new Modifier().include(references()).parallel(2));
+
+        assertEquals(2, author.books.size());
+        assertEquals("award3", author.awards.get(0).title);
+        assertEquals(1, authors.get(1).awards.size());
+        assertTrue(authors.get(2).awards.isEmpty());
+    }
+
+    @Test
+    public void failuresOfAnyReferenceAreThrown() throws Exception {
+        seed(3, 1);
+
+        Modifier broken = new Modifier().express(new Expression("missing", 1));
+
+        assertThrows(SQLException.class, () -> engine.list(Author.class, new Modifier().include(new TableReference("books"), new TableReference("awards", broken)).parallel(2)));
+        assertEquals(3, engine.list(Author.class, new Modifier().include(references()).parallel(2)).size());
+    }
+
+    @Test
+    public void singleConnectionEnginesLoadSequentially() throws Exception {
+        seed(3, 1);
+
+        try (DatabaseEngine single = new DatabaseEngine(connection)) {
+            List<Author> authors = single.list(Author.class, everything().include(references()).parallel(4));
+
+            assertEquals(describe(engine.list(Author.class, everything().include(references()))), describe(authors));
+        }
+    }
+
+    @Test
+    public void parallelismMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new Modifier().parallel(0));
+    }
+
+    private static Modifier everything() {
+        return new Modifier().sort(new Sort("id"));
+    }
+
+    private static TableReference[] references() {
+        return new TableReference[] { new TableReference("books", new Modifier().sort(new Sort("id"))), new TableReference("awards") };
+    }
+
+    private static List<String> describe(List<Author> authors) {
+        List<String> rows = new ArrayList<>();
+
+        for (Author author : authors) {
+            StringBuilder row = new StringBuilder(author.name);
+
+            for (Book book : author.books) {
+                row.append(' ').append(book.title);
+            }
+
+            for (Award award : author.awards) {
+                row.append(' ').append(award.title);
+            }
+
+            rows.add(row.toString());
+        }
+
+        return rows;
+    }
+
+}
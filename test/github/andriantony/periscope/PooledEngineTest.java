@@ -0,0 +1,134 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.type.PoolStatistics;
+import github.andriantony.periscope.util.ConnectionPool;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import javax.sql.DataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class PooledEngineTest {
+
+    private DataSource dataSource;
+
+    @Before
+    public void setUp() throws SQLException {
+        dataSource = TestDatabase.create();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        TestDatabase.drop(dataSource);
+    }
+
+    @Test
+    public void operationsReturnTheirConnection() throws Exception {
+        try (DatabaseEngine engine = new DatabaseEngine(dataSource, 2)) {
+            engine.insert(new Author("author1", 30));
+            engine.list(Author.class);
+
+            PoolStatistics statistics = engine.getPoolStatistics();
+            assertEquals(0, statistics.getActive());
+            assertEquals(1, statistics.getIdle());
+            assertEquals(1, statistics.getCreated());
+        }
+    }
+
+    @Test
+    public void closingTheEngineClosesItsOwnPool() throws Exception {
+        DatabaseEngine engine = new DatabaseEngine(dataSource, 2);
+        engine.list(Author.class);
+        engine.close();
+
+        assertThrows(SQLException.class, () -> engine.list(Author.class));
+    }
+
+    @Test
+    public void closingTheEngineKeepsASharedPoolOpen() throws Exception {
+        try (ConnectionPool pool = new ConnectionPool(dataSource, 2)) {
+            DatabaseEngine engine = new DatabaseEngine(pool);
+            engine.list(Author.class);
+            engine.close();
+
+            Connection connection = pool.acquire();
+            assertFalse(connection.isClosed());
+            pool.release(connection);
+        }
+    }
+
+    @Test
+    public void writesAreCommittedWithoutAutoCommit() throws Exception {
+        try (DatabaseEngine engine = new DatabaseEngine(withoutAutoCommit(dataSource), 1)) {
+            engine.insert(new Author("author1", 30));
+
+            assertEquals(1, TestDatabase.count(dataSource, "author"));
+        }
+    }
+
+    @Test
+    public void failedWritesLeaveNothingBehindWithoutAutoCommit() throws Exception {
+        TestDatabase.execute(dataSource, "ALTER TABLE author ADD CONSTRAINT adult CHECK (age >= 18)");
+
+        try (DatabaseEngine engine = new DatabaseEngine(withoutAutoCommit(dataSource), 1)) {
+            assertThrows(SQLException.class, () -> engine.insertAll(Arrays.asList(new Author("author1", 30), new Author("author2", 10))));
+
+            // The next write on the same connection must not commit what the failed one left
+            engine.insert(new Author("author3", 40));
+
+            assertEquals(1, TestDatabase.count(dataSource, "author"));
+        }
+    }
+
+    private static DataSource withoutAutoCommit(DataSource dataSource) {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[] { DataSource.class }, (proxy, method, args) -> {
+            Object result;
+
+            try {
+                result = method.invoke(dataSource, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            if (result instanceof Connection) {
+                ((Connection) result).setAutoCommit(false);
+            }
+
+            return result;
+        });
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.entity.Book;
+import github.andriantony.periscope.entity.CachedAuthor;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Modifier;
+import github.andriantony.periscope.type.TableReference;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class QueryCachingTest extends EngineFixture {
+
+    @Test
+    public void cachedListsAreReusedUntilAWrite() throws Exception {
+        seed(2, 0);
+
+        List<Author> first = engine.list(Author.class, new Modifier().express(new Expression("age", 21)).cache());
+        List<Author> second = engine.list(Author.class, new Modifier().express(new Expression("age", 21)).cache());
+
+        assertNotSame(first, second);
+        assertNotSame(first.get(0), second.get(0));
+        assertEquals("author1", second.get(0).name);
+        assertEquals(1, statements());
+        assertEquals(1, engine.getQueryCacheStatistics().getHits());
+    }
+
+    @Test
+    public void callersCanNotChangeTheCachedResult() throws Exception {
+        seed(1, 2);
+        Modifier withBooks = new Modifier().include(new TableReference("books")).cache();
+
+        List<Author> first = engine.list(Author.class, withBooks);
+        first.get(0).name = "changed";
+        first.get(0).books.clear();
+        first.add(new Author());
+
+        List<Author> second = engine.list(Author.class, withBooks);
+        second.get(0).books.get(0).title = "changed";
+
+        List<Author> third = engine.list(Author.class, withBooks);
+
+        assertEquals(1, third.size());
+        assertEquals("author1", third.get(0).name);
+        assertEquals(2, third.get(0).books.size());
+        assertNotEquals("changed", third.get(0).books.get(0).title);
+        assertEquals("the authors and their books were read once", 2, statements());
+    }
+
+    @Test
+    public void boundValuesArePartOfTheKey() throws Exception {
+        seed(2, 0);
+
+        assertEquals("author1", engine.<Author>list(Author.class, new Modifier().express(new Expression("age", 21)).cache()).get(0).name);
+        assertEquals("author2", engine.<Author>list(Author.class, new Modifier().express(new Expression("age", 22)).cache()).get(0).name);
+        assertEquals(2, statements());
+    }
+
+    @Test
+    public void listsWithoutOptInAreNotCached() throws Exception {
+        seed(1, 0);
+
+        engine.list(Author.class);
+        engine.list(Author.class);
+
+        assertEquals(2, statements());
+        assertEquals(0, engine.getQueryCacheStatistics().getSize());
+    }
+
+    @Test
+    public void writesToTheQueriedTableEvictTheResult() throws Exception {
+        seed(1, 0);
+        engine.list(Author.class, new Modifier().cache());
+
+        engine.insert(new Author("added", 30));
+
+        assertEquals(2, engine.list(Author.class, new Modifier().cache()).size());
+    }
+
+    @Test
+    public void writesToAReferencedTableEvictTheResult() throws Exception {
+        seed(1, 1);
+        Modifier withBooks = new Modifier().include(new TableReference("books")).cache();
+        engine.list(Author.class, withBooks);
+        engine.list(CachedAuthor.class, new Modifier().cache());
+
+        engine.insert(new Book(1, "1-2", 200));
+
+        assertEquals(2, engine.<Author>list(Author.class, withBooks).get(0).books.size());
+        long before = statements();
+        engine.list(CachedAuthor.class, new Modifier().cache());
+        assertEquals("a class without references keeps its result", before, statements());
+    }
+
+    @Test
+    public void writesNotThroughTheEngineRequireAClear() throws Exception {
+        seed(1, 0);
+        engine.list(Author.class, new Modifier().cache());
+        TestDatabase.execute(dataSource, "DELETE FROM author");
+
+        assertEquals(1, engine.list(Author.class, new Modifier().cache()).size());
+
+        engine.clearQueryCache();
+        assertTrue(engine.list(Author.class, new Modifier().cache()).isEmpty());
+    }
+
+    @Test
+    public void updatesByCriteriaAndDeletesEvictTheResult() throws Exception {
+        seed(2, 0);
+        Modifier everyone = new Modifier().cache();
+        engine.list(Author.class, everyone);
+
+        engine.update(Author.class, Collections.singletonMap("age", 40), new Modifier().express(new Expression("id", 1)));
+        assertEquals(Integer.valueOf(40), engine.<Author>list(Author.class, everyone).get(0).age);
+
+        engine.deleteAll(Author.class, Collections.singletonList(2));
+        assertEquals(1, engine.list(Author.class, everyone).size());
+    }
+
+    @Test
+    public void resultsExpireAfterTheirTimeToLive() throws Exception {
+        seed(1, 0);
+        engine.list(Author.class, new Modifier().cache(50));
+        Thread.sleep(100);
+
+        engine.list(Author.class, new Modifier().cache(50));
+
+        assertEquals(2, statements());
+    }
+
+    @Test
+    public void zeroSizeDisablesTheCache() throws Exception {
+        seed(1, 0);
+        engine.setQueryCacheSize(0);
+
+        engine.list(Author.class, new Modifier().cache());
+        engine.list(Author.class, new Modifier().cache());
+
+        assertEquals(2, statements());
+    }
+
+    @Test
+    public void leastRecentlyUsedResultIsDropped() throws Exception {
+        seed(3, 0);
+        engine.setQueryCacheSize(2);
+
+        for (int age = 21; age <= 23; age++) {
+            engine.list(Author.class, new Modifier().express(new Expression("age", age)).cache());
+        }
+
+        assertEquals(2, engine.getQueryCacheStatistics().getSize());
+        assertEquals(1, engine.getQueryCacheStatistics().getEvictions());
+    }
+
+    @Test
+    public void negativeTimeToLiveIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new Modifier().cache(-1));
+    }
+
+}
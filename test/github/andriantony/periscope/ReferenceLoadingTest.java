@@ -0,0 +1,124 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.constant.Operator;
+import github.andriantony.periscope.constant.SortDirection;
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.entity.Book;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Modifier;
+import github.andriantony.periscope.type.Sort;
+import github.andriantony.periscope.type.TableReference;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class ReferenceLoadingTest extends EngineFixture {
+
+    @Test
+    public void toManyReferencesAreGroupedByParent() throws Exception {
+        seed(3, 2);
+        TestDatabase.execute(dataSource, "DELETE FROM book WHERE author_id = 2");
+
+        List<Author> authors = engine.list(Author.class, new Modifier().sort(new Sort("id")).include(new TableReference("books")));
+
+        assertEquals(3, authors.size());
+        assertEquals(2, authors.get(0).books.size());
+        assertTrue(authors.get(1).books.isEmpty());
+        assertEquals(2, authors.get(2).books.size());
+
+        for (Author author : authors) {
+            for (Book book : author.books) {
+                assertEquals(author.id, book.authorId);
+            }
+        }
+    }
+
+    @Test
+    public void toOneReferencesAreAssigned() throws Exception {
+        seed(2, 1);
+        TestDatabase.execute(dataSource, "INSERT INTO book (author_id, title) VALUES (NULL, 'orphan')");
+
+        List<Book> books = engine.list(Book.class, new Modifier().sort(new Sort("id")).include(new TableReference("author")));
+
+        assertEquals("author1", books.get(0).author.name);
+        assertEquals("author2", books.get(1).author.name);
+        assertNull(books.get(2).author);
+    }
+
+    @Test
+    public void eachReferenceIsLoadedWithOneQuery() throws Exception {
+        seed(20, 3);
+
+        long before = statements();
+        List<Author> authors = engine.list(Author.class, new Modifier().include(new TableReference("books")));
+
+        assertEquals(20, authors.size());
+        assertEquals(2, statements() - before);
+    }
+
+    @Test
+    public void referenceModifierIsAppliedPerParent() throws Exception {
+        seed(3, 4);
+
+        Modifier books = new Modifier().express(new Expression("pages", 100, Operator.MORE)).sort(new Sort("pages", SortDirection.DESC)).limit(2);
+        List<Author> authors = engine.list(Author.class, new Modifier().sort(new Sort("id")).include(new TableReference("books", books)));
+
+        for (Author author : authors) {
+            assertEquals(2, author.books.size());
+            assertEquals(Integer.valueOf(400), author.books.get(0).pages);
+            assertEquals(Integer.valueOf(300), author.books.get(1).pages);
+        }
+    }
+
+    @Test
+    public void referencesAreLoadedForASingleRow() throws Exception {
+        seed(2, 3);
+
+        Author author = engine.get(Author.class, new Modifier().express(new Expression("id", 2)).include(new TableReference("books")));
+
+        assertEquals(3, author.books.size());
+    }
+
+    @Test
+    public void keysBeyondTheParameterLimitAreChunked() throws Exception {
+        seed(12, 2);
+
+        try (DatabaseEngine limited = new DatabaseEngine(connection, new LimitedH2Dialect(5))) {
+            List<Author> authors = limited.list(Author.class, new Modifier().sort(new Sort("id")).include(new TableReference("books")));
+
+            assertEquals(12, authors.size());
+
+            for (Author author : authors) {
+                assertEquals(2, author.books.size());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.constant.Operator;
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.entity.Book;
+import github.andriantony.periscope.type.Cursor;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Modifier;
+import github.andriantony.periscope.type.Sort;
+import github.andriantony.periscope.type.TableReference;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class StreamingTest extends EngineFixture {
+
+    @Test
+    public void streamMapsEveryMatchingRowInOrder() throws Exception {
+        seed(3, 10);
+
+        try (Stream<Book> books = engine.stream(Book.class, new Modifier().express(new Expression("author_id", 2)).sort(new Sort("id")), 4)) {
+            List<String> titles = books.map(book -> book.title).collect(Collectors.toList());
+
+            assertEquals(10, titles.size());
+            assertEquals("2-1", titles.get(0));
+            assertEquals("2-10", titles.get(9));
+        }
+    }
+
+    @Test
+    public void streamHonoursProjectionAndPaging() throws Exception {
+        seed(1, 10);
+
+        try (Stream<Book> books = engine.stream(Book.class, new Modifier().mark("id", "pages").express(new Expression("pages", 300, Operator.MORE)).sort(new Sort("pages")).limit(2))) {
+            List<Book> page = books.collect(Collectors.toList());
+
+            assertEquals(2, page.size());
+            assertEquals(Integer.valueOf(400), page.get(0).pages);
+            assertNull(page.get(0).title);
+        }
+    }
+
+    @Test
+    public void closingAStreamReleasesItsPooledConnection() throws Exception {
+        seed(1, 5);
+
+        try (DatabaseEngine pooled = new DatabaseEngine(dataSource, 2)) {
+            Stream<Book> books = pooled.stream(Book.class);
+            assertEquals(1, pooled.getPoolStatistics().getActive());
+
+            assertTrue(books.findFirst().isPresent());
+            books.close();
+            assertEquals(0, pooled.getPoolStatistics().getActive());
+        }
+    }
+
+    @Test
+    public void exhaustedCursorClosesItself() throws Exception {
+        seed(1, 2);
+
+        try (DatabaseEngine pooled = new DatabaseEngine(dataSource, 2)) {
+            Cursor<Book> cursor = pooled.cursor(Book.class, new Modifier());
+
+            assertNotNull(cursor.next());
+            assertNotNull(cursor.next());
+            assertFalse(cursor.hasNext());
+            assertEquals(0, pooled.getPoolStatistics().getActive());
+            assertThrows(NoSuchElementException.class, cursor::next);
+
+            cursor.close();
+            assertEquals(0, pooled.getPoolStatistics().getActive());
+        }
+    }
+
+    @Test
+    public void referencesCanNotBeStreamed() {
+        assertThrows(IllegalArgumentException.class, () -> engine.stream(Author.class, new Modifier().include(new TableReference("books"))));
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+
+/**
+ * Creates in-memory H2 databases holding the tables of the test entities.
+ *
+ * @author Andriantony
+ */
+public final class TestDatabase {
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private TestDatabase() {
+    }
+
+    /**
+     * Creates a new database that lives until {@link #drop(DataSource)} is called.
+     *
+     * @return a source of connections to the new database
+     * @throws SQLException if the tables can not be created
+     */
+    public static DataSource create() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:periscope" + COUNTER.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+
+        execute(dataSource,
+                "CREATE TABLE author (id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, name VARCHAR(50) NOT NULL UNIQUE, age INT)",
+                "CREATE TABLE book (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, author_id INT, title VARCHAR(100), pages INT NOT NULL DEFAULT 0)",
+                "CREATE TABLE award (id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, author_id INT, title VARCHAR(100))");
+
+        return dataSource;
+    }
+
+    /**
+     * Runs the given statements on a connection of its own.
+     *
+     * @param dataSource The database to run the statements on
+     * @param sql The statements to run
+     * @throws SQLException if a statement fails
+     */
+    public static void execute(DataSource dataSource, String... sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (String query : sql) {
+                statement.execute(query);
+            }
+        }
+    }
+
+    /**
+     * Counts the rows of a table on a connection of its own.
+     *
+     * @param dataSource The database holding the table
+     * @param tableName The table to count
+     * @return the number of rows in the table
+     * @throws SQLException if the query fails
+     */
+    public static int count(DataSource dataSource, String tableName) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + tableName)) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Closes the database and discards its content.
+     *
+     * @param dataSource The database to drop
+     * @throws SQLException if the database can not be shut down
+     */
+    public static void drop(DataSource dataSource) throws SQLException {
+        execute(dataSource, "SHUTDOWN");
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.exception.UniqueFieldViolationException;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class UniquenessTest extends EngineFixture {
+
+    @Test
+    public void insertRejectsAnExistingValue() throws Exception {
+        seed(1, 0);
+
+        assertThrows(UniqueFieldViolationException.class, () -> engine.insert(new Author("author1", 40)));
+        assertEquals(1, TestDatabase.count(dataSource, "author"));
+    }
+
+    @Test
+    public void insertAllRejectsValuesDuplicatedWithinTheCall() throws Exception {
+        List<Author> authors = Arrays.asList(new Author("same", 30), new Author("other", 31), new Author("same", 32));
+
+        assertThrows(UniqueFieldViolationException.class, () -> engine.insertAll(authors));
+        assertEquals(0, TestDatabase.count(dataSource, "author"));
+    }
+
+    @Test
+    public void insertAllRejectsAnExistingValue() throws Exception {
+        seed(3, 0);
+        List<Author> authors = Arrays.asList(new Author("author4", 30), new Author("author2", 31));
+
+        assertThrows(UniqueFieldViolationException.class, () -> engine.insertAll(authors));
+        assertEquals(3, TestDatabase.count(dataSource, "author"));
+    }
+
+    @Test
+    public void updateMayKeepItsOwnValue() throws Exception {
+        seed(2, 0);
+        Author author = engine.get(Author.class, new Modifier().express(new Expression("id", 1)));
+        author.age = 99;
+
+        engine.update(author);
+
+        assertEquals(Integer.valueOf(99), engine.<Author>get(Author.class, new Modifier().express(new Expression("id", 1))).age);
+    }
+
+    @Test
+    public void updateRejectsTheValueOfAnotherRow() throws Exception {
+        seed(2, 0);
+        Author author = engine.get(Author.class, new Modifier().express(new Expression("id", 1)));
+        author.name = "author2";
+
+        assertThrows(UniqueFieldViolationException.class, () -> engine.update(author));
+    }
+
+    @Test
+    public void valuesEqualOnlyUnderTheCollationAreLeftToTheConstraint() throws Exception {
+        seed(2, 0);
+        TestDatabase.execute(dataSource, "ALTER TABLE author ALTER COLUMN name SET DATA TYPE VARCHAR_IGNORECASE(50)");
+        Author author = engine.get(Author.class, new Modifier().express(new Expression("id", 2)));
+        author.name = "AUTHOR1";
+
+        assertThrows(UniqueFieldViolationException.class, () -> engine.update(author));
+        assertEquals("author2", engine.<Author>get(Author.class, new Modifier().express(new Expression("id", 2))).name);
+    }
+
+    @Test
+    public void allValuesOfACallAreProbedWithOneQuery() throws Exception {
+        seed(5, 0);
+        List<Author> authors = new ArrayList<>();
+
+        for (int i = 6; i <= 25; i++) {
+            authors.add(new Author("author" + i, i));
+        }
+
+        long before = statements();
+        engine.insertAll(authors);
+
+        assertEquals("one probe and one batch", 2, statements() - before);
+    }
+
+    @Test
+    public void probesAreSplitAtTheParameterLimit() throws Exception {
+        seed(12, 0);
+
+        try (DatabaseEngine limited = new DatabaseEngine(connection, new LimitedH2Dialect(5))) {
+            List<Author> authors = new ArrayList<>();
+
+            for (int i = 13; i <= 24; i++) {
+                authors.add(new Author("author" + i, i));
+            }
+
+            authors.add(new Author("author11", 0));
+
+            assertThrows(UniqueFieldViolationException.class, () -> limited.insertAll(authors));
+        }
+    }
+
+    @Test
+    public void violationsAreTranslatedWithoutTheProbe() throws Exception {
+        seed(1, 0);
+        engine.setUniquenessProbe(false);
+
+        assertThrows(UniqueFieldViolationException.class, () -> engine.insert(new Author("author1", 40)));
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.entity.Book;
+import github.andriantony.periscope.exception.NotNullableException;
+import github.andriantony.periscope.exception.UniqueFieldViolationException;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Modifier;
+import github.andriantony.periscope.type.Sort;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class UpdateAllTest extends EngineFixture {
+
+    @Test
+    public void everyEntityIsWrittenByPrimaryKey() throws Exception {
+        seed(10, 0);
+        engine.setBatchSize(4);
+
+        List<Author> authors = engine.list(Author.class, new Modifier().sort(new Sort("id")));
+
+        for (Author author : authors) {
+            author.age += 100;
+        }
+
+        int[] counts = engine.updateAll(authors);
+
+        int[] expected = new int[10];
+        Arrays.fill(expected, 1);
+        assertArrayEquals(expected, counts);
+
+        for (Author author : engine.<Author>list(Author.class)) {
+            assertEquals(Integer.valueOf(120 + author.id), author.age);
+        }
+    }
+
+    @Test
+    public void markedColumnsAreWrittenInOneBatch() throws Exception {
+        seed(3, 0);
+
+        List<Author> authors = engine.list(Author.class, new Modifier().sort(new Sort("id")));
+        TestDatabase.execute(dataSource, "UPDATE author SET name = CONCAT(name, '!')");
+
+        for (Author author : authors) {
+            author.age = 0;
+        }
+
+        long before = statements();
+        engine.updateAll(authors, new Modifier().mark("age"));
+
+        assertEquals("no uniqueness probe for unmarked columns", 1, statements() - before);
+
+        for (Author author : engine.<Author>list(Author.class)) {
+            assertEquals(Integer.valueOf(0), author.age);
+            assertTrue(author.name.endsWith("!"));
+        }
+    }
+
+    @Test
+    public void entitiesOfSeveralClassesAreGroupedByClass() throws Exception {
+        seed(2, 1);
+
+        Author author = engine.get(Author.class, new Modifier().express(new Expression("id", 2)));
+        Book book = engine.get(Book.class, new Modifier().express(new Expression("id", 1L)));
+        author.age = 77;
+        book.title = "retitled";
+
+        int[] counts = engine.updateAll(Arrays.asList(book, author));
+
+        assertArrayEquals(new int[] { 1, 1 }, counts);
+        assertEquals(Integer.valueOf(77), engine.<Author>get(Author.class, new Modifier().express(new Expression("id", 2))).age);
+        assertEquals("retitled", engine.<Book>get(Book.class, new Modifier().express(new Expression("id", 1L))).title);
+    }
+
+    @Test
+    public void missingRowsReportZero() throws Exception {
+        seed(1, 0);
+
+        Author ghost = new Author("ghost", 1);
+        ghost.id = 42;
+        Author author = engine.get(Author.class, new Modifier().express(new Expression("id", 1)));
+
+        assertArrayEquals(new int[] { 0, 1 }, engine.updateAll(Arrays.asList(ghost, author)));
+    }
+
+    @Test
+    public void repeatedUniqueValuesAreRejected() throws Exception {
+        seed(3, 0);
+
+        List<Author> authors = engine.list(Author.class, new Modifier().sort(new Sort("id")));
+        authors.get(0).name = "author3";
+
+        assertThrows(UniqueFieldViolationException.class, () -> engine.updateAll(authors.subList(0, 1)));
+
+        authors.get(1).name = "author3";
+        assertThrows(UniqueFieldViolationException.class, () -> engine.updateAll(Arrays.asList(authors.get(0), authors.get(1))));
+        assertEquals("author1", engine.<Author>get(Author.class, new Modifier().express(new Expression("id", 1))).name);
+    }
+
+    @Test
+    public void invalidEntitiesAreRejectedBeforeWriting() throws Exception {
+        seed(2, 0);
+
+        List<Author> authors = engine.list(Author.class, new Modifier().sort(new Sort("id")));
+        authors.get(0).age = 1;
+        authors.get(1).name = null;
+
+        assertThrows(NotNullableException.class, () -> engine.updateAll(authors));
+        assertEquals(Integer.valueOf(21), engine.<Author>get(Author.class, new Modifier().express(new Expression("id", 1))).age);
+    }
+
+    @Test
+    public void expressionsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> engine.updateAll(new ArrayList<>(), new Modifier().express(new Expression("id", 1))));
+    }
+
+    @Test
+    public void emptyCollectionsWriteNothing() throws Exception {
+        assertEquals(0, engine.updateAll(Collections.emptyList()).length);
+        assertEquals(0, statements());
+    }
+
+}
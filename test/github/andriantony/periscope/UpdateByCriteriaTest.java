@@ -0,0 +1,134 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.constant.Arithmetic;
+import github.andriantony.periscope.constant.Operator;
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.entity.Book;
+import github.andriantony.periscope.exception.NoSuchColumnException;
+import github.andriantony.periscope.exception.NotNullableException;
+import github.andriantony.periscope.exception.OverLimitException;
+import github.andriantony.periscope.exception.UniqueFieldViolationException;
+import github.andriantony.periscope.type.Assignment;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Modifier;
+import github.andriantony.periscope.type.Sort;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class UpdateByCriteriaTest extends EngineFixture {
+
+    @Test
+    public void matchingRowsAreUpdatedWithoutLoadingThem() throws Exception {
+        seed(2, 3);
+
+        int count = engine.update(Book.class, Collections.singletonMap("title", "draft"), new Modifier().express(new Expression("author_id", 2)));
+
+        assertEquals(3, count);
+        assertEquals(1, statements());
+
+        for (Book book : engine.<Book>list(Book.class)) {
+            assertEquals(book.authorId == 2 ? "draft" : book.authorId + "-" + (book.pages / 100), book.title);
+        }
+    }
+
+    @Test
+    public void assignmentsAreRelativeToTheCurrentValue() throws Exception {
+        seed(1, 3);
+
+        Map<String, Object> assignments = new LinkedHashMap<>();
+        assignments.put("pages", new Assignment(Arithmetic.ADD, 5));
+        engine.update(Book.class, assignments, new Modifier().express(new Expression("pages", 100, Operator.MORE)));
+
+        assignments.put("pages", new Assignment(Arithmetic.MULTIPLY, 2));
+        engine.update(Book.class, assignments, new Modifier());
+
+        List<Integer> pages = new ArrayList<>();
+
+        for (Book book : engine.<Book>list(Book.class, new Modifier().sort(new Sort("id")))) {
+            pages.add(book.pages);
+        }
+
+        assertEquals(Arrays.asList(200, 410, 610), pages);
+    }
+
+    @Test
+    public void severalColumnsAreAssignedAtOnce() throws Exception {
+        seed(3, 0);
+
+        Map<String, Object> assignments = new LinkedHashMap<>();
+        assignments.put("age", new Assignment(Arithmetic.SUBTRACT, 1));
+        assignments.put("name", "anonymous");
+
+        assertEquals(1, engine.update(Author.class, assignments, new Modifier().express(new Expression("id", 2))));
+
+        Author author = engine.get(Author.class, new Modifier().express(new Expression("id", 2)));
+        assertEquals("anonymous", author.name);
+        assertEquals(Integer.valueOf(21), author.age);
+    }
+
+    @Test
+    public void oversizedInListsAreSplit() throws Exception {
+        seed(20, 0);
+
+        try (DatabaseEngine limited = new DatabaseEngine(connection, new LimitedH2Dialect(6))) {
+            List<Integer> ids = new ArrayList<>();
+
+            for (int id = 1; id <= 20; id++) {
+                ids.add(id);
+            }
+
+            int count = limited.update(Author.class, Collections.singletonMap("age", new Assignment(Arithmetic.ADD, 1)), new Modifier().express(new Expression("id", ids, Operator.IN)));
+
+            assertEquals(20, count);
+        }
+
+        assertEquals(Integer.valueOf(22), engine.<Author>get(Author.class, new Modifier().express(new Expression("id", 1))).age);
+    }
+
+    @Test
+    public void invalidAssignmentsAreRejected() throws Exception {
+        seed(2, 0);
+        Modifier criteria = new Modifier().express(new Expression("id", 1));
+        String longName = String.join("", Collections.nCopies(51, "x"));
+
+        assertThrows(IllegalArgumentException.class, () -> engine.update(Author.class, Collections.emptyMap(), criteria));
+        assertThrows(NoSuchColumnException.class, () -> engine.update(Author.class, Collections.singletonMap("missing", 1), criteria));
+        assertThrows(NotNullableException.class, () -> engine.update(Author.class, Collections.singletonMap("name", null), criteria));
+        assertThrows(OverLimitException.class, () -> engine.update(Author.class, Collections.singletonMap("name", longName), criteria));
+        assertThrows(UniqueFieldViolationException.class, () -> engine.update(Author.class, Collections.singletonMap("name", "author2"), criteria));
+    }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope;
+
+import github.andriantony.periscope.annotation.Column;
+import github.andriantony.periscope.annotation.Table;
+import github.andriantony.periscope.dialect.PostgreSqlDialect;
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.entity.Book;
+import github.andriantony.periscope.exception.NoSuchColumnException;
+import github.andriantony.periscope.exception.NotNullableException;
+import github.andriantony.periscope.exception.UniqueFieldViolationException;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Modifier;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Arrays;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class UpsertTest extends EngineFixture {
+
+    @Test
+    public void upsertByPrimaryKeyInsertsOrUpdates() throws Exception {
+        seed(1, 0);
+
+        Author existing = new Author("renamed", 50);
+        existing.id = 1;
+        Author added = new Author("added", 60);
+        added.id = 7;
+
+        assertEquals(1, engine.upsert(existing));
+        assertEquals(1, engine.upsert(added));
+
+        assertEquals("renamed", find(1).name);
+        assertEquals(Integer.valueOf(50), find(1).age);
+        assertEquals("added", find(7).name);
+        assertEquals(2, TestDatabase.count(dataSource, "author"));
+    }
+
+    @Test
+    public void upsertWithoutPrimaryKeyMatchesUniqueColumns() throws Exception {
+        seed(2, 0);
+
+        engine.upsertAll(Arrays.asList(new Author("author2", 99), new Author("author3", 30)));
+
+        Author updated = engine.get(Author.class, new Modifier().express(new Expression("name", "author2")));
+        assertEquals(Integer.valueOf(2), updated.id);
+        assertEquals(Integer.valueOf(99), updated.age);
+        assertNotNull(engine.get(Author.class, new Modifier().express(new Expression("name", "author3"))));
+        assertEquals(3, TestDatabase.count(dataSource, "author"));
+    }
+
+    @Test
+    public void upsertAllGroupsEntitiesByClassAndKey() throws Exception {
+        seed(1, 1);
+        engine.setBatchSize(2);
+
+        Book book = new Book(1, "rewritten", 10);
+        book.id = 1L;
+        Author byKey = new Author("author1", 70);
+        byKey.id = 1;
+
+        int[] counts = engine.upsertAll(Arrays.asList(new Author("author5", 25), book, byKey, new Author("author6", 26), new Author("author7", 27)));
+
+        assertEquals(5, counts.length);
+
+        for (int count : counts) {
+            assertEquals(1, count);
+        }
+
+        assertEquals("one statement per class and key", 3, statements());
+        assertEquals("rewritten", engine.<Book>get(Book.class, new Modifier().express(new Expression("id", 1L))).title);
+        assertEquals(Integer.valueOf(70), find(1).age);
+        assertEquals(4, TestDatabase.count(dataSource, "author"));
+    }
+
+    @Test
+    public void repeatedUpsertsAreIdempotent() throws Exception {
+        Author author = new Author("stable", 40);
+        author.id = 3;
+
+        engine.upsert(author);
+        engine.upsert(author);
+
+        assertEquals(1, TestDatabase.count(dataSource, "author"));
+        assertEquals("stable", find(3).name);
+    }
+
+    @Test
+    public void otherUniqueColumnsAreStillEnforced() throws Exception {
+        seed(2, 0);
+
+        Author author = new Author("author2", 1);
+        author.id = 1;
+
+        assertThrows(UniqueFieldViolationException.class, () -> engine.upsert(author));
+        assertEquals("author1", find(1).name);
+    }
+
+    @Test
+    public void entitiesWithoutAnyKeyAreRejected() {
+        assertThrows(NoSuchColumnException.class, () -> engine.upsert(new Book(1, "keyless", 1)));
+        assertThrows(NotNullableException.class, () -> engine.upsert(new Author(null, 1)));
+    }
+
+    @Test
+    public void everyEntityIsVerifiedBeforeAnyWrite() throws Exception {
+        seed(1, 0);
+
+        Book book = new Book(1, "first", 10);
+        book.id = 1L;
+
+        assertThrows(NotNullableException.class, () -> engine.upsertAll(Arrays.asList(book, new Author(null, 1))));
+        assertEquals(0, TestDatabase.count(dataSource, "book"));
+    }
+
+    @Test
+    public void severalUniqueKeysAreRejectedBeforeAnyWrite() throws Exception {
+        try (DatabaseEngine postgreSql = new DatabaseEngine(connection, new PostgreSqlDialect())) {
+            Author author = new Author("author1", 30);
+            author.id = 1;
+
+            assertThrows(SQLFeatureNotSupportedException.class, () -> postgreSql.upsertAll(Arrays.asList(author, new Edition("isbn", "code"))));
+        }
+
+        assertEquals(0, TestDatabase.count(dataSource, "author"));
+    }
+
+    private Author find(int id) throws Exception {
+        return engine.get(Author.class, new Modifier().express(new Expression("id", id)));
+    }
+
+    @Table(name = "edition")
+    public static class Edition {
+
+        @Column(name = "isbn", unique = true)
+        private String isbn;
+
+        @Column(name = "code", unique = true)
+        private String code;
+
+        public Edition() {
+        }
+
+        public Edition(String isbn, String code) {
+            this.isbn = isbn;
+            this.code = code;
+        }
+
+    }
+
+}
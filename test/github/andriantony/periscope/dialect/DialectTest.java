@@ -0,0 +1,204 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.dialect;
+
+import github.andriantony.periscope.DatabaseEngine;
+import github.andriantony.periscope.TestDatabase;
+import github.andriantony.periscope.constant.SqlEngine;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import javax.sql.DataSource;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class DialectTest {
+
+    private static final String[] COLUMNS = { "id", "name", "age" };
+    private static final String[] UPDATES = { "name", "age" };
+    private static final String[] NONE = {};
+
+    @Test
+    public void standardProductsPageWithOffsetFetch() {
+        for (Dialect dialect : new Dialect[] { new GenericDialect(), new H2Dialect() }) {
+            assertEquals("OFFSET ? ROWS FETCH NEXT ? ROWS ONLY ", page(dialect, true));
+            assertEquals("OFFSET ? ROWS FETCH NEXT ? ROWS ONLY ", page(dialect, false));
+            assertFalse(dialect.isLimitFirst());
+        }
+    }
+
+    @Test
+    public void limitProductsPageWithLimitOffset() {
+        for (Dialect dialect : new Dialect[] { new MySqlDialect(), new PostgreSqlDialect(), new SqliteDialect() }) {
+            assertEquals("LIMIT ? OFFSET ? ", page(dialect, true));
+            assertTrue(dialect.isLimitFirst());
+        }
+    }
+
+    @Test
+    public void sqlServerOrdersUnsortedPages() {
+        Dialect dialect = new SqlServerDialect();
+
+        assertEquals("OFFSET ? ROWS FETCH NEXT ? ROWS ONLY ", page(dialect, true));
+        assertEquals("ORDER BY (SELECT NULL) OFFSET ? ROWS FETCH NEXT ? ROWS ONLY ", page(dialect, false));
+        assertFalse(dialect.isLimitFirst());
+    }
+
+    @Test
+    public void standardProductsUpsertWithMerge() {
+        assertEquals("MERGE INTO author dst USING (VALUES (?, ?, ?)) src (id, name, age) ON dst.id = src.id "
+                + "WHEN MATCHED THEN UPDATE SET name = src.name, age = src.age "
+                + "WHEN NOT MATCHED THEN INSERT (id, name, age) VALUES (src.id, src.name, src.age) ", upsert(new H2Dialect(), UPDATES));
+        assertEquals("MERGE INTO author dst USING (VALUES (?, ?, ?)) src (id, name, age) ON dst.id = src.id "
+                + "WHEN NOT MATCHED THEN INSERT (id, name, age) VALUES (src.id, src.name, src.age) ", upsert(new GenericDialect(), NONE));
+    }
+
+    @Test
+    public void sqlServerLocksAndTerminatesMerge() {
+        String sql = upsert(new SqlServerDialect(), UPDATES);
+
+        assertTrue(sql.startsWith("MERGE INTO author WITH (HOLDLOCK) dst USING (VALUES (?, ?, ?)) src (\"id\", \"name\", \"age\") ON dst.\"id\" = src.\"id\" "));
+        assertTrue(sql.endsWith("VALUES (src.\"id\", src.\"name\", src.\"age\");"));
+    }
+
+    @Test
+    public void mySqlUpsertsOnDuplicateKey() {
+        assertEquals("INSERT INTO author (`id`, `name`, `age`) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE `name` = VALUES(`name`), `age` = VALUES(`age`) ", upsert(new MySqlDialect(), UPDATES));
+        assertEquals("INSERT INTO author (`id`, `name`, `age`) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE `id` = VALUES(`id`) ", upsert(new MySqlDialect(), NONE));
+    }
+
+    @Test
+    public void postgreSqlUpsertsOnConflict() {
+        assertEquals("INSERT INTO author (id, name, age) VALUES (?, ?, ?) ON CONFLICT (id) DO UPDATE SET name = excluded.name, age = excluded.age ", upsert(new PostgreSqlDialect(), UPDATES));
+        assertEquals("INSERT INTO author (id, name, age) VALUES (?, ?, ?) ON CONFLICT (id) DO NOTHING ", upsert(new PostgreSqlDialect(), NONE));
+    }
+
+    @Test
+    public void onlyPostgreSqlRejectsSeveralUpsertKeys() {
+        assertFalse(new PostgreSqlDialect().supportsMultipleUpsertKeys());
+        assertTrue(new SqliteDialect().supportsMultipleUpsertKeys());
+        assertTrue(new MySqlDialect().supportsMultipleUpsertKeys());
+        assertTrue(new H2Dialect().supportsMultipleUpsertKeys());
+    }
+
+    @Test
+    public void sqliteUpsertsOnEveryKey() {
+        StringBuilder query = new StringBuilder();
+        new SqliteDialect().appendUpsert(query, "author", COLUMNS, new String[] { "id", "name" }, new String[] { "age" }, COLUMNS);
+
+        assertEquals("INSERT INTO author (\"id\", \"name\", \"age\") VALUES (?, ?, ?) "
+                + "ON CONFLICT (\"id\") DO UPDATE SET \"age\" = excluded.\"age\" "
+                + "ON CONFLICT (\"name\") DO UPDATE SET \"age\" = excluded.\"age\" ", query.toString());
+    }
+
+    @Test
+    public void limitedDeletesAreRenderedPerProduct() throws SQLFeatureNotSupportedException {
+        assertEquals("DELETE FROM author WHERE age > ? LIMIT ? ", limitedDelete(new MySqlDialect()));
+        assertEquals("DELETE TOP (?) FROM author WHERE age > ? ", limitedDelete(new SqlServerDialect()));
+        assertEquals("DELETE FROM author WHERE id IN (SELECT id FROM author WHERE age > ? LIMIT ?) ", limitedDelete(new PostgreSqlDialect()));
+        assertEquals("DELETE FROM author WHERE id IN (SELECT id FROM author WHERE age > ? LIMIT ?) ", limitedDelete(new H2Dialect()));
+        assertEquals("DELETE FROM author WHERE \"id\" IN (SELECT \"id\" FROM author WHERE age > ? LIMIT ?) ", limitedDelete(new SqliteDialect()));
+
+        for (Dialect dialect : new Dialect[] { new MySqlDialect(), new SqlServerDialect(), new PostgreSqlDialect(), new H2Dialect(), new SqliteDialect() }) {
+            assertTrue(dialect.getName(), dialect.supportsLimitedDelete());
+            assertEquals(dialect.getName(), dialect instanceof SqlServerDialect, dialect.isDeleteLimitFirst());
+        }
+    }
+
+    @Test
+    public void genericDialectHasNoLimitedDelete() {
+        Dialect dialect = new GenericDialect();
+
+        assertFalse(dialect.supportsLimitedDelete());
+        assertThrows(SQLFeatureNotSupportedException.class, () -> limitedDelete(dialect));
+    }
+
+    @Test
+    public void productNamesResolveToTheirDialect() {
+        assertTrue(DialectRegistry.forProductName("Microsoft SQL Server") instanceof SqlServerDialect);
+        assertTrue(DialectRegistry.forProductName("MySQL") instanceof MySqlDialect);
+        assertTrue(DialectRegistry.forProductName("MariaDB") instanceof MySqlDialect);
+        assertTrue(DialectRegistry.forProductName("PostgreSQL") instanceof PostgreSqlDialect);
+        assertTrue(DialectRegistry.forProductName("H2") instanceof H2Dialect);
+        assertTrue(DialectRegistry.forProductName("SQLite") instanceof SqliteDialect);
+        assertTrue(DialectRegistry.forProductName("Firebird") instanceof GenericDialect);
+        assertTrue(DialectRegistry.forProductName(null) instanceof GenericDialect);
+    }
+
+    @Test
+    public void registeredDialectsTakePrecedence() {
+        Dialect custom = new GenericDialect() {
+            @Override
+            public boolean accepts(String productName) {
+                return productName.equals("dialecttest");
+            }
+        };
+
+        DialectRegistry.register(custom);
+
+        assertSame(custom, DialectRegistry.forProductName("DialectTest"));
+        assertTrue(DialectRegistry.forProductName("H2") instanceof H2Dialect);
+    }
+
+    @Test
+    public void enginesResolveToTheirDialect() {
+        assertTrue(DialectRegistry.forEngine(SqlEngine.SQL_SERVER) instanceof SqlServerDialect);
+        assertTrue(DialectRegistry.forEngine(SqlEngine.MYSQL) instanceof MySqlDialect);
+        assertTrue(DialectRegistry.forEngine(SqlEngine.UNKNOWN) instanceof GenericDialect);
+    }
+
+    @Test
+    public void engineUsesTheDialectOfItsConnection() throws SQLException {
+        DataSource dataSource = TestDatabase.create();
+
+        try (Connection connection = dataSource.getConnection(); DatabaseEngine engine = new DatabaseEngine(connection)) {
+            assertTrue(engine.getDialect() instanceof H2Dialect);
+        } finally {
+            TestDatabase.drop(dataSource);
+        }
+    }
+
+    private static String page(Dialect dialect, boolean sorted) {
+        StringBuilder query = new StringBuilder();
+        dialect.appendPage(query, sorted);
+        return query.toString();
+    }
+
+    private static String upsert(Dialect dialect, String[] updates) {
+        StringBuilder query = new StringBuilder();
+        dialect.appendUpsert(query, "author", COLUMNS, new String[] { "id" }, updates, COLUMNS);
+        return query.toString();
+    }
+
+    private static String limitedDelete(Dialect dialect) throws SQLFeatureNotSupportedException {
+        StringBuilder query = new StringBuilder();
+        dialect.appendLimitedDelete(query, "author", "id", "WHERE age > ? ");
+        return query.toString();
+    }
+
+}
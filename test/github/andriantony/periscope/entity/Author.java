@@ -0,0 +1,64 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.entity;
+
+import github.andriantony.periscope.annotation.Column;
+import github.andriantony.periscope.annotation.Primary;
+import github.andriantony.periscope.annotation.Reference;
+import github.andriantony.periscope.annotation.Table;
+import github.andriantony.periscope.constant.Relation;
+import java.util.List;
+
+/**
+ *
+ * @author Andriantony
+ */
+@Table(name = "author")
+public class Author {
+
+    @Primary
+    @Column(name = "id")
+    public Integer id;
+
+    @Column(name = "name", nullable = false, unique = true, length = 50)
+    public String name;
+
+    @Column(name = "age")
+    public Integer age;
+
+    @Reference(name = "books", target = Book.class, source = "id", refer = "author_id", relation = Relation.TO_MANY)
+    public List<Book> books;
+
+    @Reference(name = "awards", target = Award.class, source = "id", refer = "author_id", relation = Relation.TO_MANY)
+    public List<Award> awards;
+
+    public Author() {
+    }
+
+    public Author(String name, Integer age) {
+        this.name = name;
+        this.age = age;
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.entity;
+
+import github.andriantony.periscope.annotation.Column;
+import github.andriantony.periscope.annotation.Primary;
+import github.andriantony.periscope.annotation.Table;
+
+/**
+ *
+ * @author Andriantony
+ */
+@Table(name = "award")
+public class Award {
+
+    @Primary
+    @Column(name = "id")
+    public Integer id;
+
+    @Column(name = "author_id")
+    public Integer authorId;
+
+    @Column(name = "title", length = 100)
+    public String title;
+
+    public Award() {
+    }
+
+    public Award(Integer authorId, String title) {
+        this.authorId = authorId;
+        this.title = title;
+    }
+
+}
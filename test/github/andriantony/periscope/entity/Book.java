@@ -0,0 +1,64 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.entity;
+
+import github.andriantony.periscope.annotation.Column;
+import github.andriantony.periscope.annotation.Primary;
+import github.andriantony.periscope.annotation.Reference;
+import github.andriantony.periscope.annotation.Table;
+import github.andriantony.periscope.constant.Relation;
+
+/**
+ *
+ * @author Andriantony
+ */
+@Table(name = "book")
+public class Book {
+
+    @Primary
+    @Column(name = "id")
+    public Long id;
+
+    @Column(name = "author_id")
+    public Integer authorId;
+
+    @Column(name = "title", length = 100)
+    public String title;
+
+    @Column(name = "pages", nullable = false)
+    public Integer pages = 0;
+
+    @Reference(name = "author", target = Author.class, source = "author_id", refer = "id", relation = Relation.TO_ONE)
+    public Author author;
+
+    public Book() {
+    }
+
+    public Book(Integer authorId, String title, int pages) {
+        this.authorId = authorId;
+        this.title = title;
+        this.pages = pages;
+    }
+
+}
@@ -0,0 +1,191 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.util;
+
+import github.andriantony.periscope.TestDatabase;
+import github.andriantony.periscope.type.PoolStatistics;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class ConnectionPoolTest {
+
+    private DataSource dataSource;
+
+    @Before
+    public void setUp() throws SQLException {
+        dataSource = TestDatabase.create();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        TestDatabase.drop(dataSource);
+    }
+
+    @Test
+    public void releasedConnectionsAreReused() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool(dataSource, 2)) {
+            Connection first = pool.acquire();
+            pool.release(first);
+            Connection second = pool.acquire();
+
+            assertSame(first, second);
+
+            PoolStatistics statistics = pool.getStatistics();
+            assertEquals(1, statistics.getCreated());
+            assertEquals(2, statistics.getBorrowed());
+            assertEquals(1, statistics.getActive());
+            assertEquals(0, statistics.getIdle());
+
+            pool.release(second);
+            assertEquals(1, pool.getStatistics().getIdle());
+        }
+    }
+
+    @Test
+    public void acquireTimesOutWhenEveryConnectionIsInUse() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool(dataSource, 1, 50, 60000)) {
+            Connection connection = pool.acquire();
+
+            assertThrows(SQLTimeoutException.class, pool::acquire);
+            assertNull(pool.tryAcquire());
+            assertEquals(1, pool.getStatistics().getTimeouts());
+
+            pool.release(connection);
+            Connection next = pool.tryAcquire();
+
+            assertSame(connection, next);
+            pool.release(next);
+        }
+    }
+
+    @Test
+    public void closedConnectionsAreDropped() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool(dataSource, 1)) {
+            Connection first = pool.acquire();
+            first.close();
+            pool.release(first);
+
+            Connection second = pool.acquire();
+
+            assertNotSame(first, second);
+            assertFalse(second.isClosed());
+            assertEquals(2, pool.getStatistics().getCreated());
+            pool.release(second);
+        }
+    }
+
+    @Test
+    public void releasedConnectionsAreReset() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool(dataSource, 1)) {
+            Connection connection = pool.acquire();
+            int isolation = connection.getTransactionIsolation();
+
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("INSERT INTO author (name) VALUES ('committed')");
+            }
+
+            connection.commit();
+            pool.release(connection);
+            Connection next = pool.acquire();
+
+            assertSame(connection, next);
+            assertTrue(next.getAutoCommit());
+            assertEquals(isolation, next.getTransactionIsolation());
+
+            try (Statement statement = next.createStatement(); ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM author")) {
+                rs.next();
+                assertEquals(1, rs.getInt(1));
+            }
+
+            pool.release(next);
+        }
+    }
+
+    @Test
+    public void idleConnectionsAreEvicted() throws Exception {
+        try (ConnectionPool pool = new ConnectionPool(dataSource, 1, 1000, 1)) {
+            Connection first = pool.acquire();
+            pool.release(first);
+            Thread.sleep(20);
+
+            Connection second = pool.acquire();
+
+            assertNotSame(first, second);
+            assertTrue(first.isClosed());
+            assertTrue(pool.getStatistics().getEvicted() >= 1);
+            pool.release(second);
+        }
+    }
+
+    @Test
+    public void closeDiscardsIdleConnectionsAndRejectsBorrowers() throws SQLException {
+        List<Connection> discarded = new ArrayList<>();
+        List<Connection> ignored = new ArrayList<>();
+        Consumer<Connection> removed = ignored::add;
+        ConnectionPool pool = new ConnectionPool(dataSource, 2);
+
+        pool.addDiscardListener(discarded::add);
+        pool.addDiscardListener(removed);
+        pool.removeDiscardListener(removed);
+
+        Connection idle = pool.acquire();
+        Connection borrowed = pool.acquire();
+        pool.release(idle);
+        pool.close();
+
+        assertTrue(idle.isClosed());
+        assertFalse(borrowed.isClosed());
+        assertThrows(SQLException.class, pool::acquire);
+
+        pool.release(borrowed);
+
+        assertTrue(borrowed.isClosed());
+        assertEquals(2, discarded.size());
+        assertTrue(ignored.isEmpty());
+    }
+
+    @Test
+    public void sizeMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new ConnectionPool(dataSource, 0));
+    }
+
+}
@@ -0,0 +1,200 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.util;
+
+import github.andriantony.periscope.annotation.Cached;
+import github.andriantony.periscope.annotation.Column;
+import github.andriantony.periscope.annotation.Primary;
+import github.andriantony.periscope.annotation.Table;
+import github.andriantony.periscope.constant.Eviction;
+import github.andriantony.periscope.type.EntityMetadata;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class EntityCacheTest {
+
+    private final EntityCache cache = new EntityCache();
+    private final EntityMetadata recent = MetadataRegistry.get(RecentRow.class);
+    private final EntityMetadata frequent = MetadataRegistry.get(FrequentRow.class);
+
+    @Test
+    public void cachedRowsAreReturnedAsCopies() throws Exception {
+        RecentRow row = row(1, "first");
+        cache.put(row, recent, cache.generation(recent));
+
+        RecentRow cached = cache.get(recent, 1L);
+
+        assertNotSame(row, cached);
+        assertEquals(Integer.valueOf(1), cached.id);
+        assertEquals("first", cached.label);
+        assertNull(cache.get(recent, 2));
+        assertEquals(1, cache.getStatistics(RecentRow.class).getHits());
+        assertEquals(1, cache.getStatistics(RecentRow.class).getMisses());
+    }
+
+    @Test
+    public void rowsReadBeforeTheirInvalidationAreRejected() throws Exception {
+        long generation = cache.generation(recent);
+        cache.invalidate(recent, 1);
+
+        cache.put(row(1, "stale"), recent, generation);
+        assertNull(cache.get(recent, 1));
+
+        cache.put(row(1, "fresh"), recent, cache.generation(recent));
+        assertEquals("fresh", cache.<RecentRow>get(recent, 1).label);
+    }
+
+    @Test
+    public void invalidatingOneRowKeepsOthersCacheable() throws Exception {
+        long generation = cache.generation(recent);
+        cache.invalidate(recent, 2);
+
+        cache.put(row(1, "first"), recent, generation);
+
+        assertNotNull(cache.get(recent, 1));
+    }
+
+    @Test
+    public void forgottenInvalidationsRaiseTheFloor() throws Exception {
+        long generation = cache.generation(recent);
+
+        for (int key = 1; key <= 4; key++) {
+            cache.invalidate(recent, key);
+        }
+
+        cache.put(row(9, "untouched but older than a forgotten invalidation"), recent, generation);
+        assertNull(cache.get(recent, 9));
+
+        cache.put(row(9, "current"), recent, cache.generation(recent));
+        assertNotNull(cache.get(recent, 9));
+    }
+
+    @Test
+    public void invalidateAllRejectsEveryEarlierRead() throws Exception {
+        cache.put(row(1, "first"), recent, cache.generation(recent));
+        long generation = cache.generation(recent);
+
+        cache.invalidateAll(recent);
+        cache.put(row(2, "second"), recent, generation);
+
+        assertNull(cache.get(recent, 1));
+        assertNull(cache.get(recent, 2));
+        assertEquals(0, cache.getStatistics(RecentRow.class).getSize());
+    }
+
+    @Test
+    public void leastRecentlyUsedRowIsEvicted() throws Exception {
+        long generation = cache.generation(recent);
+
+        for (int key = 1; key <= 3; key++) {
+            cache.put(row(key, "row" + key), recent, generation);
+        }
+
+        assertNotNull(cache.get(recent, 1));
+        cache.put(row(4, "row4"), recent, generation);
+
+        assertNotNull(cache.get(recent, 1));
+        assertNull(cache.get(recent, 2));
+        assertEquals(3, cache.getStatistics(RecentRow.class).getSize());
+        assertEquals(1, cache.getStatistics(RecentRow.class).getEvictions());
+    }
+
+    @Test
+    public void frequentRowsSurviveAScan() throws Exception {
+        long generation = cache.generation(frequent);
+
+        for (int key = 1; key <= 100; key++) {
+            cache.put(frequentRow(key), frequent, generation);
+        }
+
+        for (int read = 0; read < 3; read++) {
+            for (int key = 1; key <= 99; key++) {
+                assertNotNull(cache.get(frequent, key));
+            }
+        }
+
+        for (int key = 1001; key <= 1050; key++) {
+            cache.put(frequentRow(key), frequent, generation);
+        }
+
+        for (int key = 1; key <= 99; key++) {
+            assertNotNull(cache.get(frequent, key));
+        }
+
+        assertEquals(50, cache.getStatistics(FrequentRow.class).getEvictions());
+        assertEquals(100, cache.getStatistics(FrequentRow.class).getSize());
+    }
+
+    @Test
+    public void clearEmptiesEveryRegion() throws Exception {
+        cache.put(row(1, "first"), recent, cache.generation(recent));
+        cache.put(frequentRow(1), frequent, cache.generation(frequent));
+
+        cache.clear();
+
+        assertEquals(0, cache.getStatistics().getSize());
+        assertNull(cache.getStatistics(String.class));
+    }
+
+    private static RecentRow row(int id, String label) {
+        RecentRow row = new RecentRow();
+        row.id = id;
+        row.label = label;
+        return row;
+    }
+
+    private static FrequentRow frequentRow(int id) {
+        FrequentRow row = new FrequentRow();
+        row.id = id;
+        return row;
+    }
+
+    @Table(name = "recent")
+    @Cached(size = 3)
+    public static class RecentRow {
+
+        @Primary
+        @Column(name = "id")
+        public Integer id;
+
+        @Column(name = "label")
+        public String label;
+
+    }
+
+    @Table(name = "frequent")
+    @Cached(size = 100, eviction = Eviction.TINY_LFU)
+    public static class FrequentRow {
+
+        @Primary
+        @Column(name = "id")
+        public Integer id;
+
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.util;
+
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.entity.Award;
+import github.andriantony.periscope.entity.Book;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class QueryCacheTest {
+
+    private final QueryCache cache = new QueryCache(1000);
+
+    @Test
+    public void resultsReadBeforeAWriteToTheirTablesAreRejected() throws Exception {
+        List<Object> key = cache.key(Author.class, new Modifier());
+        long generation = cache.generation(Author.class);
+        cache.invalidate(Book.class);
+
+        cache.put(key, Author.class, Collections.singletonList(new Author("stale", 1)), 0, generation);
+        assertNull(cache.get(key));
+
+        cache.put(key, Author.class, Collections.singletonList(new Author("fresh", 1)), 0, cache.generation(Author.class));
+        assertEquals("fresh", cache.<Author>get(key).get(0).name);
+    }
+
+    @Test
+    public void writesToUnrelatedTablesKeepResultsCacheable() throws Exception {
+        List<Object> key = cache.key(Award.class, new Modifier());
+        long generation = cache.generation(Award.class);
+        cache.invalidate(Book.class);
+
+        cache.put(key, Award.class, Arrays.asList(new Award(1, "first"), new Award(1, "second")), 0, generation);
+
+        assertEquals(2, cache.get(key).size());
+    }
+
+    @Test
+    public void sizeIsNeverExceeded() throws Exception {
+        for (int i = 0; i < 1500; i++) {
+            List<Object> key = cache.key(Award.class, new Modifier().express(new Expression("id", i)));
+            cache.put(key, Award.class, Collections.singletonList(new Award(i, "award" + i)), 0, cache.generation(Award.class));
+        }
+
+        assertTrue(cache.getStatistics().getSize() <= 1000);
+        assertEquals(1500 - cache.getStatistics().getSize(), cache.getStatistics().getEvictions());
+    }
+
+}
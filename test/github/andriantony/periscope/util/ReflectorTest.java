@@ -0,0 +1,127 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.util;
+
+import github.andriantony.periscope.annotation.Column;
+import github.andriantony.periscope.annotation.Primary;
+import github.andriantony.periscope.annotation.Table;
+import github.andriantony.periscope.entity.Author;
+import github.andriantony.periscope.entity.Book;
+import github.andriantony.periscope.exception.NoAnnotationException;
+import github.andriantony.periscope.exception.NoSuchColumnException;
+import github.andriantony.periscope.type.ColumnDefinition;
+import github.andriantony.periscope.type.EntityMetadata;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class ReflectorTest {
+
+    private final Reflector reflector = new Reflector();
+
+    @Test
+    public void metadataIsScannedOncePerClass() {
+        assertSame(reflector.getMetadata(Author.class), new Reflector().getMetadata(Author.class));
+        assertNotSame(reflector.getMetadata(Author.class), reflector.getMetadata(Book.class));
+    }
+
+    @Test
+    public void metadataKeepsDeclarationOrder() throws NoAnnotationException {
+        EntityMetadata metadata = reflector.getMetadata(Book.class);
+
+        assertEquals("book", reflector.getTableName(Book.class));
+        assertArrayEquals(new String[] { "id", "author_id", "title", "pages" }, metadata.getColumnNames());
+        assertEquals("id", metadata.getPrimary().getColumn().name());
+        assertEquals(Arrays.asList("author"), new ArrayList<>(metadata.getReferences().keySet()));
+    }
+
+    @Test
+    public void insertableColumnsLeaveOutGeneratedKeys() throws NoAnnotationException {
+        assertEquals(Arrays.asList("name", "age"), new ArrayList<>(reflector.getColumns(Author.class, new String[0]).keySet()));
+        assertEquals(Arrays.asList("id", "age"), new ArrayList<>(reflector.getColumns(Author.class, new String[] { "age", "id" }).keySet()));
+    }
+
+    @Test
+    public void columnMapIsAModifiableCopy() throws NoAnnotationException {
+        LinkedHashMap<String, ColumnDefinition> columnMap = reflector.getColumnMap(Author.class);
+        columnMap.remove("age");
+
+        assertEquals(2, columnMap.size());
+        assertEquals(3, reflector.getColumnMap(Author.class).size());
+        assertEquals(3, reflector.getColumns(Author.class).size());
+    }
+
+    @Test
+    public void sharedColumnsCanNotBeModified() throws NoAnnotationException {
+        Map<String, ColumnDefinition> columns = reflector.getColumns(Author.class);
+
+        assertThrows(UnsupportedOperationException.class, () -> columns.remove("age"));
+    }
+
+    @Test
+    public void uniqueMapHoldsUniqueColumnsOnly() throws NoAnnotationException {
+        assertEquals(Arrays.asList("name"), new ArrayList<>(reflector.getUniqueMap(reflector.getColumns(Author.class)).keySet()));
+        assertTrue(reflector.getUniqueMap(reflector.getColumns(Book.class)).isEmpty());
+    }
+
+    @Test
+    public void primaryValueIsConvertedToTheFieldType() throws IllegalAccessException {
+        Book book = new Book();
+        reflector.setPrimaryValue(book, 7);
+
+        assertEquals(Long.valueOf(7), book.id);
+    }
+
+    @Test
+    public void tableNameRequiresTheTableAnnotation() {
+        assertThrows(NoAnnotationException.class, () -> reflector.getTableName(String.class));
+    }
+
+    @Test
+    public void primaryKeyIsFoundWithoutTheColumnAnnotation() throws NoSuchColumnException {
+        assertEquals("id", reflector.getPrimaryColumn(Book.class).getName());
+        assertEquals("key", reflector.getPrimaryColumn(UnmappedKey.class).getName());
+        assertNull(reflector.getMetadata(UnmappedKey.class).getPrimary());
+        assertThrows(NoSuchColumnException.class, () -> reflector.getPrimaryColumn(String.class));
+    }
+
+    @Table(name = "unmapped_key")
+    public static class UnmappedKey {
+
+        @Primary
+        private Integer key;
+
+        @Column(name = "label")
+        private String label;
+
+    }
+
+}
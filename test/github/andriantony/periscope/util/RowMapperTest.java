@@ -0,0 +1,181 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.util;
+
+import github.andriantony.periscope.TestDatabase;
+import github.andriantony.periscope.annotation.Column;
+import github.andriantony.periscope.annotation.Primary;
+import github.andriantony.periscope.annotation.Table;
+import github.andriantony.periscope.entity.Book;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class RowMapperTest {
+
+    private DataSource dataSource;
+    private Connection connection;
+    private Statement statement;
+
+    @Before
+    public void setUp() throws SQLException {
+        dataSource = TestDatabase.create();
+        TestDatabase.execute(dataSource,
+                "CREATE TABLE measurement (id INT PRIMARY KEY, total BIGINT, ratio DOUBLE, active BOOLEAN, label VARCHAR(20))",
+                "INSERT INTO measurement VALUES (1, 9000000000, 0.5, TRUE, 'first'), (2, NULL, NULL, NULL, NULL)",
+                "INSERT INTO book (id, author_id, title, pages) VALUES (1, 4, 'Dune', 412), (2, NULL, 'Emma', 0)");
+        connection = dataSource.getConnection();
+        statement = connection.createStatement();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        statement.close();
+        connection.close();
+        TestDatabase.drop(dataSource);
+    }
+
+    @Test
+    public void mapsEveryColumnByName() throws Exception {
+        RowMapper<Book> mapper = RowMapper.of(Book.class, new String[0]);
+
+        try (ResultSet rs = statement.executeQuery("SELECT pages, title, author_id, id FROM book ORDER BY id")) {
+            int[] indexes = mapper.resolve(rs);
+
+            assertTrue(rs.next());
+            Book book = mapper.map(rs, indexes);
+            assertEquals(Long.valueOf(1), book.id);
+            assertEquals(Integer.valueOf(4), book.authorId);
+            assertEquals("Dune", book.title);
+            assertEquals(Integer.valueOf(412), book.pages);
+
+            assertTrue(rs.next());
+            assertNull(mapper.map(rs, indexes).authorId);
+        }
+    }
+
+    @Test
+    public void mapsProjectedColumnsByPosition() throws Exception {
+        RowMapper<Book> mapper = RowMapper.of(Book.class, new String[] { "title", "id" });
+
+        try (ResultSet rs = statement.executeQuery("SELECT title, id FROM book WHERE id = 1")) {
+            assertTrue(rs.next());
+            Book book = mapper.map(rs, mapper.resolve(rs));
+
+            assertEquals("Dune", book.title);
+            assertEquals(Long.valueOf(1), book.id);
+            assertNull(book.authorId);
+            assertEquals(Integer.valueOf(0), book.pages);
+        }
+    }
+
+    @Test
+    public void mapsPrimitiveFieldsAndNulls() throws Exception {
+        RowMapper<Measurement> mapper = RowMapper.of(Measurement.class, new String[0]);
+
+        try (ResultSet rs = statement.executeQuery("SELECT * FROM measurement ORDER BY id")) {
+            int[] indexes = mapper.resolve(rs);
+
+            assertTrue(rs.next());
+            Measurement first = mapper.map(rs, indexes);
+            assertEquals(1, first.id);
+            assertEquals(9000000000L, first.total);
+            assertEquals(0.5, first.ratio, 0);
+            assertTrue(first.active);
+            assertEquals("first", first.label);
+
+            assertTrue(rs.next());
+            Measurement second = mapper.map(rs, indexes);
+            assertEquals(0, second.total);
+            assertEquals(0, second.ratio, 0);
+            assertFalse(second.active);
+            assertNull(second.label);
+        }
+    }
+
+    @Test
+    public void mapperIsCompiledOncePerProjection() throws Exception {
+        assertSame(RowMapper.of(Book.class, new String[0]), RowMapper.of(Book.class, new String[0]));
+        assertSame(RowMapper.of(Book.class, new String[] { "id" }), RowMapper.of(Book.class, new String[] { "id" }));
+        assertNotSame(RowMapper.of(Book.class, new String[0]), RowMapper.of(Book.class, new String[] { "id" }));
+    }
+
+    @Test
+    public void resolveFailsForAMissingColumn() throws Exception {
+        RowMapper<Book> mapper = RowMapper.of(Book.class, new String[0]);
+
+        try (ResultSet rs = statement.executeQuery("SELECT id FROM book")) {
+            assertThrows(SQLException.class, () -> mapper.resolve(rs));
+        }
+    }
+
+    @Test
+    public void classWithoutNoArgConstructorIsRejected() {
+        assertThrows(InstantiationException.class, () -> RowMapper.of(Unconstructible.class, new String[0]));
+    }
+
+    @Table(name = "measurement")
+    public static class Measurement {
+
+        @Primary(auto = false)
+        @Column(name = "id")
+        public int id;
+
+        @Column(name = "total")
+        public long total;
+
+        @Column(name = "ratio")
+        public double ratio;
+
+        @Column(name = "active")
+        public boolean active;
+
+        @Column(name = "label")
+        public String label;
+
+    }
+
+    @Table(name = "measurement")
+    public static class Unconstructible {
+
+        @Column(name = "id")
+        public int id;
+
+        public Unconstructible(int id) {
+            this.id = id;
+        }
+
+    }
+
+}
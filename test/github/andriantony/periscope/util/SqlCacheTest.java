@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.util;
+
+import github.andriantony.periscope.constant.Operator;
+import github.andriantony.periscope.dialect.H2Dialect;
+import github.andriantony.periscope.dialect.MySqlDialect;
+import github.andriantony.periscope.type.Expression;
+import github.andriantony.periscope.type.Sort;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class SqlCacheTest {
+
+    private static final String[] COLUMNS = { "id", "name" };
+    private static final Sort[] NO_SORTS = new Sort[0];
+
+    private final H2Dialect h2 = new H2Dialect();
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @Test
+    public void shapesIgnoreBoundValues() {
+        SqlCache cache = new SqlCache(16);
+
+        String first = cache.get(select(new Expression("id", 1)), this::render);
+        String second = cache.get(select(new Expression("id", 2)), this::render);
+
+        assertSame(first, second);
+        assertEquals(1, renders.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shapesDependOnEverythingThatChangesTheText() {
+        QueryShape shape = select(new Expression("id", Arrays.asList(1, 2), Operator.IN));
+
+        assertEquals(shape, select(new Expression("id", Arrays.asList(3, 4), Operator.IN)));
+        assertNotEquals(shape, select(new Expression("id", Arrays.asList(1, 2, 3), Operator.IN)));
+        assertNotEquals(shape, select(new Expression("id", Arrays.asList(1, 2), Operator.NOT_IN)));
+        assertNotEquals(shape, select(new Expression("age", Arrays.asList(1, 2), Operator.IN)));
+        assertNotEquals(shape, new QueryShape(QueryShape.Kind.SELECT, null, new MySqlDialect(), "author", COLUMNS, new Expression[] { new Expression("id", Arrays.asList(1, 2), Operator.IN) }, NO_SORTS));
+        assertNotEquals(shape, new QueryShape(QueryShape.Kind.SELECT, null, h2, "author", COLUMNS, new Expression[] { new Expression("id", Arrays.asList(1, 2), Operator.IN) }, NO_SORTS, 0, true));
+        assertNotEquals(shape, new QueryShape(QueryShape.Kind.SELECT, null, h2, "author", COLUMNS, new Expression[] { new Expression("id", Arrays.asList(1, 2), Operator.IN) }, new Sort[] { new Sort("id") }));
+    }
+
+    @Test
+    public void zeroSizeDisablesCaching() {
+        SqlCache cache = new SqlCache(0);
+
+        cache.get(select(new Expression("id", 1)), this::render);
+        cache.get(select(new Expression("id", 1)), this::render);
+
+        assertEquals(2, renders.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void fullCacheMakesRoom() {
+        SqlCache cache = new SqlCache(8);
+
+        for (int i = 0; i < 50; i++) {
+            cache.get(select(new Expression("column" + i, i)), this::render);
+        }
+
+        assertTrue(cache.size() <= 8);
+        assertEquals(50, renders.get());
+    }
+
+    @Test
+    public void negativeSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SqlCache(-1));
+    }
+
+    private QueryShape select(Expression... expressions) {
+        return new QueryShape(QueryShape.Kind.SELECT, null, h2, "author", COLUMNS, expressions, NO_SORTS);
+    }
+
+    private String render() {
+        return "SELECT " + renders.incrementAndGet();
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2023 Andriantony.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package github.andriantony.periscope.util;
+
+import github.andriantony.periscope.TestDatabase;
+import github.andriantony.periscope.type.CacheStatistics;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Andriantony
+ */
+public class StatementCacheTest {
+
+    private static final String BY_ID = "SELECT name FROM author WHERE id = ?";
+    private static final String BY_NAME = "SELECT id FROM author WHERE name = ?";
+    private static final String BY_AGE = "SELECT id FROM author WHERE age = ?";
+
+    private DataSource dataSource;
+    private Connection connection;
+
+    @Before
+    public void setUp() throws SQLException {
+        dataSource = TestDatabase.create();
+        connection = dataSource.getConnection();
+        TestDatabase.execute(dataSource, "INSERT INTO author (name, age) VALUES ('alice', 30)");
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        connection.close();
+        TestDatabase.drop(dataSource);
+    }
+
+    @Test
+    public void returnedStatementsAreReusedWithClearedParameters() throws SQLException {
+        StatementCache cache = new StatementCache(4);
+        PreparedStatement first;
+
+        try (StatementCache.Lease lease = cache.prepare(connection, BY_ID, Statement.NO_GENERATED_KEYS)) {
+            first = lease.getStatement();
+            first.setInt(1, 1);
+            assertEquals("alice", name(first));
+        }
+
+        try (StatementCache.Lease lease = cache.prepare(connection, BY_ID, Statement.NO_GENERATED_KEYS)) {
+            assertSame(first, lease.getStatement());
+            assertThrows(SQLException.class, () -> lease.getStatement().executeQuery());
+        }
+
+        CacheStatistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.getHits());
+        assertEquals(1, statistics.getMisses());
+        assertEquals(1, statistics.getSize());
+    }
+
+    @Test
+    public void checkedOutStatementsAreNotShared() throws SQLException {
+        StatementCache cache = new StatementCache(4);
+
+        try (StatementCache.Lease outer = cache.prepare(connection, BY_ID, Statement.NO_GENERATED_KEYS);
+                StatementCache.Lease inner = cache.prepare(connection, BY_ID, Statement.NO_GENERATED_KEYS)) {
+            assertNotSame(outer.getStatement(), inner.getStatement());
+        }
+
+        assertEquals(2, cache.getStatistics().getMisses());
+        assertEquals(1, cache.getStatistics().getSize());
+    }
+
+    @Test
+    public void generatedKeysAreCachedSeparately() throws SQLException {
+        StatementCache cache = new StatementCache(4);
+
+        cache.prepare(connection, BY_ID, Statement.NO_GENERATED_KEYS).close();
+        cache.prepare(connection, BY_ID, Statement.RETURN_GENERATED_KEYS).close();
+
+        assertEquals(2, cache.getStatistics().getMisses());
+        assertEquals(2, cache.getStatistics().getSize());
+    }
+
+    @Test
+    public void leastRecentlyUsedStatementIsEvicted() throws SQLException {
+        StatementCache cache = new StatementCache(2);
+        PreparedStatement byId = checkOut(cache, BY_ID);
+        PreparedStatement byName = checkOut(cache, BY_NAME);
+
+        checkOut(cache, BY_ID);
+        checkOut(cache, BY_AGE);
+
+        assertFalse(byId.isClosed());
+        assertTrue(byName.isClosed());
+
+        CacheStatistics statistics = cache.getStatistics();
+        assertEquals(2, statistics.getSize());
+        assertEquals(1, statistics.getEvictions());
+    }
+
+    @Test
+    public void zeroSizeClosesEveryStatement() throws SQLException {
+        StatementCache cache = new StatementCache(0);
+        PreparedStatement statement = checkOut(cache, BY_ID);
+
+        assertTrue(statement.isClosed());
+        assertNotSame(statement, checkOut(cache, BY_ID));
+        assertEquals(0, cache.getStatistics().getHits());
+        assertEquals(0, cache.getStatistics().getSize());
+    }
+
+    @Test
+    public void discardClosesTheStatementsOfAConnection() throws SQLException {
+        StatementCache cache = new StatementCache(4);
+        PreparedStatement statement = checkOut(cache, BY_ID);
+
+        try (Connection other = dataSource.getConnection()) {
+            PreparedStatement kept = checkOut(cache, other, BY_ID);
+
+            cache.discard(connection);
+
+            assertTrue(statement.isClosed());
+            assertFalse(kept.isClosed());
+            assertEquals(1, cache.getStatistics().getSize());
+
+            cache.clear();
+            assertTrue(kept.isClosed());
+            assertEquals(0, cache.getStatistics().getSize());
+        }
+    }
+
+    @Test
+    public void negativeSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new StatementCache(-1));
+    }
+
+    private PreparedStatement checkOut(StatementCache cache, String sql) throws SQLException {
+        return checkOut(cache, connection, sql);
+    }
+
+    private static PreparedStatement checkOut(StatementCache cache, Connection connection, String sql) throws SQLException {
+        try (StatementCache.Lease lease = cache.prepare(connection, sql, Statement.NO_GENERATED_KEYS)) {
+            return lease.getStatement();
+        }
+    }
+
+    private static String name(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getString(1) : null;
+        }
+    }
+
+}